@@ -3,10 +3,77 @@ package Characters;
 import Items.Weapon;
 import Misc.Classes;
 
+/**
+ * Monstruo con más opciones que atacar: puede curarse o curar a otro
+ * monstruo del combate, y enfurecerse para pegar más fuerte. Qué hace en
+ * cada turno lo decide Logic.BossAI; sin ella ataca como los demás.
+ */
 public class Boss extends Monster {
 
+    // Curaciones que tiene un jefe en cada combate
+    public static final int POTIONS = 2;
+    // Niveles de furia que puede acumular
+    public static final int MAX_RAGE = 3;
+
+    private int potions = POTIONS;
+    private int rage = 0;
+
     public Boss(Weapon actualWeapon, int attack, int magic, int defense, int velocidad, int level, String name, String sprite, int life, int actualLife) {
         super(actualWeapon, attack, magic, defense, velocidad, level, name, sprite, life, actualLife);
     }
 
+    public int getPotions() {
+        return potions;
+    }
+
+    public void setPotions(int potions) {
+        if (potions >= 0) {
+            this.potions = potions;
+        } else {
+            throw new IllegalArgumentException("No puede ser negativo");
+        }
+    }
+
+    public int getRage() {
+        return rage;
+    }
+
+    public void setRage(int rage) {
+        if (rage >= 0 && rage <= MAX_RAGE) {
+            this.rage = rage;
+            invalidateStats();
+        } else {
+            throw new IllegalArgumentException("Debe estar entre 0 y " + MAX_RAGE);
+        }
+    }
+
+    /**
+     * Ataque que suma cada nivel de furia: la cuarta parte del ataque base,
+     * al menos 1.
+     */
+    public int getRageStep() {
+        return Math.max(1, getAttack() / 4);
+    }
+
+    /**
+     * Vida que devuelve una curación a target: la cuarta parte de su vida
+     * máxima, al menos 1, sin pasar de ella.
+     */
+    public static int healAmount(Monster target) {
+        return Math.min(Math.max(1, target.getLife() / 4), target.getLife() - target.getActualLife());
+    }
+
+    /**
+     * Vuelve a llenar las curaciones y quita la furia, para otro combate.
+     */
+    public void reset() {
+        potions = POTIONS;
+        setRage(0);
+    }
+
+    @Override
+    protected int attackBonus() {
+        return rage * getRageStep();
+    }
+
 }
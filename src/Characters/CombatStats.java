@@ -0,0 +1,69 @@
+package Characters;
+
+import Items.Effect;
+
+/**
+ * Estadísticas de combate efectivas de un personaje: las suyas más las de su
+ * equipo, guardadas como enteros. El personaje las marca como caducadas
+ * cuando cambia su arma, su armadura, su nivel, su clase o una estadística
+ * base, y se recalculan la siguiente vez que se piden; el combate solo lee
+ * los enteros. Las bonificaciones de clase se sumarán aquí. Los efectos
+ * del equipo ya están compilados: el de defensa queda multiplicado en
+ * getDefense y el del arma se guarda para aplicarlo al golpear.
+ *
+ * Si se modifica el Weapon o el Armor equipado en lugar de cambiarlo, hay
+ * que llamar a invalidateStats del personaje.
+ */
+public class CombatStats {
+
+    private int attack;
+    private int defense;
+    private int velocidad;
+    private Effect effect = Effect.NONE;
+    private boolean stale = true;
+
+    /**
+     * Ataque más el del arma.
+     */
+    public int getAttack() {
+        return attack;
+    }
+
+    /**
+     * Defensa más la de la armadura, por los multiplicadores de defensa del
+     * equipo.
+     */
+    public int getDefense() {
+        return defense;
+    }
+
+    /**
+     * Velocidad, nunca menor que 1.
+     */
+    public int getVelocidad() {
+        return velocidad;
+    }
+
+    /**
+     * Efecto del arma al golpear; Effect.NONE si no tiene.
+     */
+    public Effect getEffect() {
+        return effect;
+    }
+
+    boolean isStale() {
+        return stale;
+    }
+
+    void invalidate() {
+        stale = true;
+    }
+
+    void update(int attack, int defense, int velocidad, Effect weapon, Effect armor) {
+        this.attack = attack;
+        this.defense = (int) ((long) defense * weapon.getDefensePercent() * armor.getDefensePercent() / 10000);
+        this.effect = weapon;
+        this.velocidad = Math.max(1, velocidad);
+        stale = false;
+    }
+}
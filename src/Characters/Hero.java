@@ -4,12 +4,12 @@ import Items.*;
 import Logic.Game;
 import cu.edu.cujae.ceis.tree.general.GeneralTree;
 import Misc.*;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.LinkedList;
 import java.util.Queue;
-import javafx.scene.image.Image;
 
 public class Hero implements Serializable {
 
@@ -19,9 +19,26 @@ public class Hero implements Serializable {
         MAP, FIELD_VILLAGE, UNKNOWN
     }
 
+    /**
+     * Partes del Hero que una partida guarda por separado. CORE (nombre,
+     * estadísticas y posición) siempre se carga al momento; el resto puede
+     * quedar pendiente hasta que se use.
+     */
+    public enum Section {
+        CORE, EQUIPMENT, INVENTORY, QUESTS, CLASSES
+    }
+
+    /**
+     * Decodifica una sección pendiente sobre el Hero usando sus setters.
+     */
+    public interface SectionLoader {
+
+        void load(Hero hero, Section section) throws IOException;
+    }
+
     private String name;
+    // Solo la ruta: la imagen la resuelve GUI.SpriteCache cuando se dibuja
     private String spritePath;
-    private transient Image fxImage;
     private int velocidad;
     private int attack;
     private int magic;
@@ -41,6 +58,15 @@ public class Hero implements Serializable {
     private Location lastLocation = Location.UNKNOWN;
     private double lastPosX = 0.0;
     private double lastPosY = 0.0;
+    // Semilla de GameRandom de esta partida; 0 si aún no tiene
+    private long randomSeed = 0;
+
+    // Secciones aún sin decodificar, un bit por Section
+    private transient volatile int pendingSections = 0;
+    private transient SectionLoader sectionLoader;
+    private transient boolean loadingSection = false;
+    // Se rehace al deserializar una partida antigua
+    private transient CombatStats stats = new CombatStats();
 
     public Hero(String name, Weapon weapon, Armor armor) {
         setName(name);
@@ -60,7 +86,116 @@ public class Hero implements Serializable {
         this.actualClass = null;
         tasks = new ArrayDeque<>();
         completedTasks = new ArrayDeque<>();
-        loadFxImage();
+    }
+
+    // Copia para guardar en segundo plano. Las secciones que other aún no
+    // decodificó no se decodifican aquí: la copia se queda con el mismo loader
+    // y las lee de los bytes de la partida cuando el hilo que guarda las pida
+    private Hero(Hero other) {
+        synchronized (other) {
+            int pending = other.pendingSections;
+            name = other.name;
+            spritePath = other.spritePath;
+            velocidad = other.velocidad;
+            attack = other.attack;
+            magic = other.magic;
+            defense = other.defense;
+            level = other.level;
+            life = other.life;
+            actualLife = other.actualLife;
+            if (isPending(pending, Section.INVENTORY)) {
+                items = new LinkedList<>();
+                weapons = new LinkedList<>();
+            } else {
+                items = new LinkedList<>(other.items);
+                weapons = new LinkedList<>(other.weapons);
+            }
+            if (!isPending(pending, Section.EQUIPMENT)) {
+                actualWeapon = other.actualWeapon;
+                armor = other.armor;
+                actualClass = other.actualClass;
+            }
+            unlockedClasses = isPending(pending, Section.CLASSES) ? new GeneralTree<>() : other.unlockedClasses;
+            if (isPending(pending, Section.QUESTS)) {
+                tasks = new ArrayDeque<>();
+                completedTasks = new ArrayDeque<>();
+            } else {
+                tasks = new ArrayDeque<>(other.tasks);
+                completedTasks = new ArrayDeque<>(other.completedTasks);
+            }
+            lastLocation = other.lastLocation;
+            lastPosX = other.lastPosX;
+            lastPosY = other.lastPosY;
+            randomSeed = other.randomSeed;
+            sectionLoader = other.sectionLoader;
+            pendingSections = pending;
+        }
+    }
+
+    private static boolean isPending(int bits, Section section) {
+        return (bits & (1 << section.ordinal())) != 0;
+    }
+
+    /**
+     * Copia consistente del estado actual. Las listas se copian; los items,
+     * las clases y el árbol de clases se comparten. No decodifica las
+     * secciones pendientes, así que es barata aunque la partida se acabe de
+     * cargar.
+     */
+    public Hero snapshot() {
+        return new Hero(this);
+    }
+
+    /**
+     * Deja sections pendientes: se decodificarán con loader la primera vez
+     * que se lea o modifique alguno de sus campos, o al llamar a
+     * loadSections().
+     */
+    public synchronized void deferSections(SectionLoader loader, Section... sections) {
+        int bits = 0;
+        for (Section s : sections) {
+            bits = bits | (1 << s.ordinal());
+        }
+        sectionLoader = loader;
+        pendingSections = bits;
+        invalidateStats();
+    }
+
+    public boolean hasPendingSections() {
+        return pendingSections != 0;
+    }
+
+    /**
+     * Decodifica todas las secciones pendientes. Se puede llamar desde un
+     * hilo en segundo plano; los getters esperan si coinciden con él.
+     */
+    public void loadSections() {
+        for (Section s : Section.values()) {
+            load(s);
+        }
+    }
+
+    private void load(Section section) {
+        int bit = 1 << section.ordinal();
+        if ((pendingSections & bit) != 0) {
+            synchronized (this) {
+                // Mientras el loader rellena la sección sus propios setters no deben volver a cargarla
+                if ((pendingSections & bit) != 0 && !loadingSection) {
+                    loadingSection = true;
+                    try {
+                        sectionLoader.load(this, section);
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    } finally {
+                        loadingSection = false;
+                    }
+                    pendingSections = pendingSections & ~bit;
+                    if (pendingSections == 0) {
+                        sectionLoader = null;
+                    }
+                }
+            }
+        }
     }
 
     public Location getLastLocation() {
@@ -87,28 +222,73 @@ public class Hero implements Serializable {
         this.lastPosY = lastPosY;
     }
 
+    public long getRandomSeed() {
+        return randomSeed;
+    }
+
+    public void setRandomSeed(long randomSeed) {
+        this.randomSeed = randomSeed;
+    }
+
+    /**
+     * Ataque, defensa y velocidad efectivos, con el arma y la armadura
+     * equipadas. Se recalculan solo si algo cambió desde la última vez.
+     */
+    public CombatStats getCombatStats() {
+        CombatStats s = stats;
+        if (s == null) {
+            s = new CombatStats();
+            stats = s;
+        }
+        if (s.isStale()) {
+            Weapon w = getActualWeapon();
+            Armor a = getArmor();
+            s.update(attack + (w == null ? 0 : w.getAttack()), defense + (a == null ? 0 : a.getDefense()), velocidad,
+                    w == null ? Effect.NONE : w.getCompiledEffect(), a == null ? Effect.NONE : a.getCompiledEffect());
+        }
+        return s;
+    }
+
+    /**
+     * Obliga a recalcular las estadísticas de combate, por ejemplo tras
+     * modificar el arma o la armadura equipadas.
+     */
+    public void invalidateStats() {
+        if (stats != null) {
+            stats.invalidate();
+        }
+    }
+
     public Armor getArmor() {
+        load(Section.EQUIPMENT);
         return armor;
     }
 
     public void setArmor(Armor armor) {
+        load(Section.EQUIPMENT);
         this.armor = armor;
+        invalidateStats();
     }
 
     public GeneralTree<Classes> getUnlockedClasses() {
+        load(Section.CLASSES);
         return unlockedClasses;
     }
 
     public void setUnlockedClasses(GeneralTree<Classes> unlockedClasses) {
+        load(Section.CLASSES);
         this.unlockedClasses = unlockedClasses;
     }
 
     public Classes getActualClass() {
+        load(Section.EQUIPMENT);
         return actualClass;
     }
 
     public void setActualClass(Classes actualClass) {
+        load(Section.EQUIPMENT);
         this.actualClass = actualClass;
+        invalidateStats();
     }
 
     public int getLife() {
@@ -131,19 +311,6 @@ public class Hero implements Serializable {
         this.actualLife = actualLife;
     }
 
-    private void loadFxImage() {
-        if (!(spritePath == null || spritePath.isEmpty())) {
-            try {
-                fxImage = new Image(getClass().getResourceAsStream(spritePath));
-                if (fxImage.isError()) {
-                    fxImage = null;
-                }
-            } catch (Throwable ignored) {
-                fxImage = null;
-            }
-        }
-    }
-
     public int getVelocidad() {
         return velocidad;
     }
@@ -151,22 +318,14 @@ public class Hero implements Serializable {
     public void setVelocidad(int velocidad) {
         if (velocidad >= 1) {
             this.velocidad = velocidad;
+            invalidateStats();
         } else {
             throw new IllegalArgumentException("Debe ser mayor que 0");
         }
     }
 
-    public Image getImage() {
-        if (fxImage != null) {
-            return fxImage;
-        }
-        loadFxImage();
-        return fxImage;
-    }
-
     public void setSpritePath(String spritePath) {
         this.spritePath = spritePath;
-        this.fxImage = null;
     }
 
     public String getSpritePath() {
@@ -192,6 +351,7 @@ public class Hero implements Serializable {
     public void setAttack(int attack) {
         if (attack >= 1) {
             this.attack = attack;
+            invalidateStats();
         } else {
             throw new IllegalArgumentException("Debe ser mayor que 0");
         }
@@ -216,6 +376,7 @@ public class Hero implements Serializable {
     public void setDefense(int defense) {
         if (defense >= 1) {
             this.defense = defense;
+            invalidateStats();
         } else {
             throw new IllegalArgumentException("Debe ser mayor que 0");
         }
@@ -228,48 +389,60 @@ public class Hero implements Serializable {
     public void setLevel(int level) {
         if (level >= 1) {
             this.level = level;
+            invalidateStats();
         } else {
             throw new IllegalArgumentException("Debe ser mayor que 0");
         }
     }
 
     public LinkedList<Item> getItems() {
+        load(Section.INVENTORY);
         return items;
     }
 
     public void setItems(LinkedList<Item> items) {
+        load(Section.INVENTORY);
         this.items = items;
     }
 
     public LinkedList<Weapon> getWeapons() {
+        load(Section.INVENTORY);
         return weapons;
     }
 
     public void setWeapons(LinkedList<Weapon> weapons) {
+        load(Section.INVENTORY);
         this.weapons = weapons;
     }
 
     public Weapon getActualWeapon() {
+        load(Section.EQUIPMENT);
         return actualWeapon;
     }
 
     public void setActualWeapon(Weapon actualWeapon) {
+        load(Section.EQUIPMENT);
         this.actualWeapon = actualWeapon;
+        invalidateStats();
     }
 
     public Deque<Task> getCompletedTasks() {
+        load(Section.QUESTS);
         return completedTasks;
     }
 
     public void addCompletedTasks(Task t) {
+        load(Section.QUESTS);
         completedTasks.push(t);
     }
 
     public Queue<Task> getTasks() {
+        load(Section.QUESTS);
         return tasks;
     }
 
     public void addTasks(Task t) {
+        load(Section.QUESTS);
         tasks.offer(t);
     }
 }
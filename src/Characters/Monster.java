@@ -3,7 +3,6 @@ package Characters;
 import Items.*;
 import java.util.ArrayList;
 import Misc.*;
-import javafx.scene.image.Image;
 
 public class Monster extends NPC {
     
@@ -16,6 +15,11 @@ public class Monster extends NPC {
     private int velocidad;
     private ArrayList<Item> loot;
     private int level;
+    private final CombatStats stats = new CombatStats();
+    // En guardia hasta su siguiente acción
+    private boolean guarding = false;
+    // Tipo del que se creó, o null si se creó a mano
+    private MonsterTemplate template;
     
     public Monster(Weapon actualWeapon, int attack, int magic, int defense, int velocidad, int level, String name, String sprite, int life, int actualLife) {
         super(name, sprite);
@@ -52,6 +56,7 @@ public class Monster extends NPC {
     
     public void setActualWeapon(Weapon actualWeapon) {
         this.actualWeapon = actualWeapon;
+        stats.invalidate();
     }
     
     public int getVelocidad() {
@@ -60,6 +65,7 @@ public class Monster extends NPC {
     
     public void setVelocidad(int velocidad) {
         this.velocidad = velocidad;
+        stats.invalidate();
     }
     
     public int getAttack() {
@@ -68,6 +74,7 @@ public class Monster extends NPC {
     
     public void setAttack(int attack) {
         this.attack = attack;
+        stats.invalidate();
     }
     
     public int getMagic() {
@@ -84,6 +91,56 @@ public class Monster extends NPC {
     
     public void setDefense(int defense) {
         this.defense = defense;
+        stats.invalidate();
+    }
+    
+    /**
+     * Ataque, defensa y velocidad efectivos, recalculados solo si algo
+     * cambió desde la última vez.
+     */
+    public CombatStats getCombatStats() {
+        if (stats.isStale()) {
+            stats.update(attack + (actualWeapon == null ? 0 : actualWeapon.getAttack()) + attackBonus(),
+                    defense + (guarding ? Math.max(1, defense / 2) : 0), velocidad,
+                    actualWeapon == null ? Effect.NONE : actualWeapon.getCompiledEffect(), Effect.NONE);
+        }
+        return stats;
+    }
+    
+    /**
+     * Ataque que se suma al propio y al del arma, por ejemplo por la furia
+     * de un Boss. Quien lo cambie debe llamar a invalidateStats.
+     */
+    protected int attackBonus() {
+        return 0;
+    }
+    
+    /**
+     * Obliga a recalcular las estadísticas de combate, por ejemplo tras
+     * modificar el arma equipada.
+     */
+    public void invalidateStats() {
+        stats.invalidate();
+    }
+    
+    public MonsterTemplate getTemplate() {
+        return template;
+    }
+    
+    void setTemplate(MonsterTemplate template) {
+        this.template = template;
+    }
+    
+    public boolean isGuarding() {
+        return guarding;
+    }
+    
+    /**
+     * En guardia la defensa sube la mitad de la base, al menos 1.
+     */
+    public void setGuarding(boolean guarding) {
+        this.guarding = guarding;
+        stats.invalidate();
     }
     
     public ArrayList<Item> getLoot() {
@@ -100,6 +157,7 @@ public class Monster extends NPC {
     
     public void setLevel(int level) {
         this.level = level;
+        stats.invalidate();
     }
     
     public ArrayList<String> getDialogue() {
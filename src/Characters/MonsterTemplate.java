@@ -0,0 +1,125 @@
+package Characters;
+
+import Items.Weapon;
+
+/**
+ * Definición de un tipo de monstruo: estadísticas, arma y sprite. Su árbol
+ * de comportamiento, si tiene uno propio, lo guarda Logic.MonsterAI por id.
+ * No cambia y la comparten todos los Monster creados a
+ * partir de ella, que solo guardan su propio estado de combate. El sprite
+ * es su ruta; GUI.SpriteCache decodifica la imagen una vez por sesión.
+ */
+public final class MonsterTemplate {
+
+    private final String id;
+    private final String name;
+    private final Weapon weapon;
+    private final int attack;
+    private final int magic;
+    private final int defense;
+    private final int velocidad;
+    private final int level;
+    private final int life;
+    private final String spritePath;
+    private final boolean boss;
+
+    public MonsterTemplate(String id, String name, Weapon weapon, int attack, int magic, int defense, int velocidad, int level, int life, String spritePath, boolean boss) {
+        if (id == null || id.isEmpty()) {
+            throw new IllegalArgumentException("La plantilla necesita un id");
+        }
+        if (life <= 0) {
+            throw new IllegalArgumentException("Debe ser mayor que 0");
+        }
+        this.id = id;
+        this.name = name;
+        this.weapon = weapon;
+        this.attack = attack;
+        this.magic = magic;
+        this.defense = defense;
+        this.velocidad = velocidad;
+        this.level = level;
+        this.life = life;
+        this.spritePath = spritePath;
+        this.boss = boss;
+    }
+
+    /**
+     * Un monstruo nuevo de este tipo, con toda la vida.
+     */
+    public Monster create(String name) {
+        Monster m = boss
+                ? new Boss(weapon, attack, magic, defense, velocidad, level, name, spritePath, life, life)
+                : new Monster(weapon, attack, magic, defense, velocidad, level, name, spritePath, life, life);
+        m.setTemplate(this);
+        return m;
+    }
+
+    /**
+     * Devuelve m, que debe haberse creado con esta plantilla, al estado de
+     * recién creado para usarlo en otro combate.
+     */
+    public void reset(Monster m, String name) {
+        if (m.getTemplate() != this) {
+            throw new IllegalArgumentException("El monstruo no es de la plantilla " + id);
+        }
+        m.setName(name);
+        m.setActualWeapon(weapon);
+        m.setAttack(attack);
+        m.setMagic(magic);
+        m.setDefense(defense);
+        m.setVelocidad(velocidad);
+        m.setLevel(level);
+        m.setLife(life);
+        m.setActualLife(life);
+        m.setSpritePath(spritePath);
+        m.setGuarding(false);
+        m.getLoot().clear();
+        if (m instanceof Boss) {
+            ((Boss) m).reset();
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Weapon getWeapon() {
+        return weapon;
+    }
+
+    public int getAttack() {
+        return attack;
+    }
+
+    public int getMagic() {
+        return magic;
+    }
+
+    public int getDefense() {
+        return defense;
+    }
+
+    public int getVelocidad() {
+        return velocidad;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public int getLife() {
+        return life;
+    }
+
+    public String getSpritePath() {
+        return spritePath;
+    }
+
+    public boolean isBoss() {
+        return boss;
+    }
+}
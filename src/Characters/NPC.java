@@ -1,34 +1,20 @@
 package Characters;
 
 import java.util.ArrayList;
-import javafx.scene.image.Image;
 
 public abstract class NPC {
 
     protected String name;
     protected ArrayList<String> dialogue;
-    protected transient Image fxImage;
+    // Solo la ruta: la imagen la resuelve GUI.SpriteCache cuando se dibuja
+    protected String spritePath;
 
     public NPC(String name, String sprite) {
-        loadFxImage(sprite);
+        setSpritePath(sprite);
         setName(name);
 
     }
 
-    private void loadFxImage(String spritePath) {
-        if (!(spritePath == null || spritePath.isEmpty())) {
-
-            try {
-                fxImage = new Image(getClass().getResourceAsStream(spritePath));
-                if (fxImage.isError()) {
-                    fxImage = null;
-                }
-            } catch (Throwable ignored) {
-                fxImage = null;
-            }
-        }
-    }
-
     public String getName() {
         return name;
     }
@@ -37,8 +23,12 @@ public abstract class NPC {
         this.name = name;
     }
     
-    public Image getFxImage() {
-        return fxImage;
+    public String getSpritePath() {
+        return spritePath;
+    }
+
+    public void setSpritePath(String spritePath) {
+        this.spritePath = spritePath;
     }
 
 }
@@ -1,10 +1,20 @@
 package GUI;
 
+import Logic.AutoBattle;
+import Logic.BossAI;
+import Logic.CombatEngine;
+import Logic.CombatEvent;
+import Logic.CombatEventBuffer;
+import Logic.CombatEventPublisher;
+import Logic.Encounter;
 import Logic.Game;
+import Logic.GameRandom;
+import Logic.MonsterAI;
 import Characters.Monster;
+import Items.Item;
 import Characters.Hero;
-import Items.Weapon;
 import com.almasb.fxgl.dsl.FXGL;
+import javafx.animation.AnimationTimer;
 import javafx.animation.FadeTransition;
 import javafx.animation.PauseTransition;
 import javafx.animation.SequentialTransition;
@@ -32,15 +42,16 @@ import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Queue;
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * CombatScreen completo con: - constructor: CombatScreen(Game game, String
- * bgPath, List<String> monsterSpritePaths, Hero heroForIcon) - toasts
+ * bgPath, List<String> monsterIds, Hero heroForIcon) - toasts
  * secuenciales (no modales) - música de combate configurable vía
  * setBattleMusicPath(...) - Game Over centrado que detiene la música previa -
- * createDebugMonster adaptado a la firma solicitada - indicador de vida del
- * héroe en esquina que se actualiza en tiempo real
+ * monstruos de la reserva de Game.getMonsterRegistry, que se devuelven al
+ * salir - indicador de vida del héroe en esquina que se actualiza en tiempo
+ * real
  */
 public class CombatScreen {
 
@@ -56,9 +67,26 @@ public class CombatScreen {
     private final HBox actionButtons;
 
     private final Game game;
-    private final List<Monster> monsters = new ArrayList<>();
+    // Estado y reglas del combate; esta pantalla solo los muestra
+    private final Encounter encounter;
+    private final CombatEngine engine;
+    // Decide fuera del hilo de FX lo que hacen los Boss; sin jefes no crea hilos
+    private final BossAI bossAI;
+    private final MonsterAI monsterAI = new MonsterAI();
+    // Los monstruos que se pidieron a la reserva, también los que caen
+    private final List<Monster> spawned;
+    // El motor publica aquí y la pantalla lo vacía una vez por pulso
+    private final CombatEventBuffer events = new CombatEventBuffer();
+    private final AnimationTimer eventPump;
+    private int pendingHeroHp = -1;
+    private AutoBattle.Summary lastSummary = null;
+    // Región del combate, para los monstruos sin tabla de botín propia
+    private String region = "field";
+    private final List<Item> lastLoot = new ArrayList<>();
+    // Multiplicador de velocidad de las animaciones (1, 2 o 4)
+    private double animationSpeed = 1.0;
     private final List<ImageView> monsterViews = new ArrayList<>();
-    private final Random rnd = new Random();
+    private final RandomGenerator rnd;
 
     // Botones y selección por teclado
     private final List<Button> buttons = new ArrayList<>();
@@ -78,6 +106,8 @@ public class CombatScreen {
 
     // Flag que indica que estamos en estado Game Over (bloquea inputs salvo Start)
     private volatile boolean gameOverActive = false;
+    // Ya se salió del combate; las teclas que lleguen antes del runLater no repiten la salida
+    private boolean exiting = false;
 
     // Cola de toasts (mensajes temporales no modales, uno a la vez)
     private final ToastQueue toastQueue = new ToastQueue();
@@ -90,12 +120,13 @@ public class CombatScreen {
      *
      * @param game instancia del juego (no nula según tu implementación)
      * @param bgPath ruta del fondo (ej: "/Resources/textures/battle_bg.png")
-     * @param monsterSpritePaths lista de rutas de sprites para elegir
+     * @param monsterIds ids de MonsterTemplate entre los que elegir
      * aleatoriamente
      * @param heroForIcon héroe para usar su imagen en el icono (puede ser null)
      */
-    public CombatScreen(Game game, String bgPath, List<String> monsterSpritePaths, Hero heroForIcon) {
+    public CombatScreen(Game game, String bgPath, List<String> monsterIds, Hero heroForIcon) {
         this.game = game;
+        this.rnd = game.getRandom().stream(GameRandom.COMBAT);
 
         root = new StackPane();
         root.setPrefSize(800, 600);
@@ -161,11 +192,12 @@ public class CombatScreen {
         setupHeroHpLabel();
 
         // Generar entre 1 y 3 monstruos y colocarlos en monstersBox (fila, alineados al centro)
+        List<Monster> monsters = new ArrayList<>();
         int count = 1 + rnd.nextInt(3);
         int i = 0;
         while (i < count) {
-            String sprite = chooseRandomSprite(monsterSpritePaths);
-            Monster m = createDebugMonster(sprite, "Monstruo " + (i + 1));
+            String id = chooseRandomTemplate(monsterIds);
+            Monster m = game.getMonsterRegistry().acquire(id, "Monstruo " + (i + 1));
             monsters.add(m);
             ImageView mv = createMonsterView(m);
             monsterViews.add(mv);
@@ -180,6 +212,21 @@ public class CombatScreen {
             i = i + 1;
         }
 
+        spawned = monsters;
+        encounter = new Encounter(game.getHero(), monsters);
+        engine = new CombatEngine(new CombatEventPublisher(events, game.getHero()));
+        bossAI = new BossAI(game.getRandom());
+        engine.setBossAI(bossAI);
+        engine.setMonsterAI(monsterAI);
+        bossAI.plan(encounter);
+        eventPump = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                drainEvents();
+                toastQueue.tick(now);
+            }
+        };
+
         // Crear botones y lógica de selección
         createActionButtons();
 
@@ -191,8 +238,10 @@ public class CombatScreen {
             if (newScene != null) {
                 stopBattleMusic();
                 playBattleMusic();
+                eventPump.start();
                 Platform.runLater(root::requestFocus);
             } else {
+                eventPump.stop();
                 stopBattleMusic();
             }
         });
@@ -216,6 +265,75 @@ public class CombatScreen {
         }
     }
 
+    /**
+     * Tiempo máximo que un mensaje puede esperar a que acaben los anteriores
+     * antes de mostrarse apilado sobre ellos.
+     *
+     * @param seconds segundos; 0 muestra cada mensaje en cuanto llega
+     */
+    public void setToastMaxLatency(double seconds) {
+        toastQueue.setMaxLatency(seconds);
+    }
+
+    /**
+     * Velocidad de las animaciones del combate normal: 1, 2 o 4 veces más
+     * rápido. También se cambia con la tecla F durante el combate.
+     */
+    public void setAnimationSpeed(double speed) {
+        animationSpeed = Math.max(1.0, speed);
+        toastQueue.setRate(animationSpeed);
+    }
+
+    public double getAnimationSpeed() {
+        return animationSpeed;
+    }
+
+    /**
+     * Resumen del último combate automático, o null si no lo hubo.
+     */
+    public AutoBattle.Summary getLastSummary() {
+        return lastSummary;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public void setRegion(String region) {
+        this.region = region;
+    }
+
+    /**
+     * Objetos que ganó el héroe al vencer, vacío si no ganó o no cayó nada.
+     */
+    public List<Item> getLastLoot() {
+        return lastLoot;
+    }
+
+    /**
+     * Resuelve lo que queda del combate sin animaciones con AutoBattle y
+     * vuelve al mapa en el siguiente pulso, o muestra el Game Over. Se puede
+     * llamar sin haber mostrado la pantalla. Devuelve el resumen, o null si
+     * el combate ya había terminado.
+     */
+    public AutoBattle.Summary autoBattle() {
+        AutoBattle.Summary summary = null;
+        if (!gameOverActive && !encounter.isOver()) {
+            // Con las mismas IA que el combate animado, que puede haber empezado ya
+            AutoBattle auto = new AutoBattle(game);
+            auto.setBossAI(bossAI);
+            auto.setMonsterAI(monsterAI);
+            summary = auto.fight(encounter);
+            lastSummary = summary;
+            if (summary.getOutcome() == Encounter.Outcome.DEFEAT) {
+                showGameOver();
+            } else {
+                endCombatAndReturnToMap();
+            }
+        }
+        return summary;
+    }
+
     private void setupHeroHpLabel() {
         heroHpLabel.setStyle("-fx-background-color: rgba(0,0,0,0.6); -fx-text-fill: white; -fx-padding: 6 10 6 10; -fx-background-radius: 6;");
         heroHpLabel.setFont(Font.font(13));
@@ -226,6 +344,11 @@ public class CombatScreen {
         root.getChildren().add(heroHpLabel);
     }
 
+    // Desde el hilo de FX, con la vida ya conocida
+    private void showHeroHp(int actual) {
+        heroHpLabel.setText("HP: " + actual + " / " + game.getHero().getLife());
+    }
+
     private void updateHeroHpDisplay() {
         Platform.runLater(() -> {
             try {
@@ -242,60 +365,19 @@ public class CombatScreen {
         });
     }
 
-    private String chooseRandomSprite(List<String> paths) {
-        String out = "/Resources/sprites/Monsters/monster1.png";
-        if (paths != null && !paths.isEmpty()) {
-            int idx = rnd.nextInt(paths.size());
-            if (idx >= 0 && idx < paths.size()) {
-                out = paths.get(idx);
+    private String chooseRandomTemplate(List<String> ids) {
+        String out = "monster1";
+        if (ids != null && !ids.isEmpty()) {
+            int idx = rnd.nextInt(ids.size());
+            if (idx >= 0 && idx < ids.size()) {
+                out = ids.get(idx);
             }
         }
         return out;
     }
 
-    /**
-     * Método solicitado: constructor de Monster con la firma que pediste.
-     */
-    private Monster createDebugMonster(String spritePath, String name) {
-        Weapon w = null;
-        int idx = 0;
-        int itemsSize = game.getItems().size();
-        boolean foundWeapon = false;
-        while (idx < itemsSize && !foundWeapon) {
-            Object it = game.getItems().get(idx);
-            if (it instanceof Weapon) {
-                w = (Weapon) it;
-                foundWeapon = true;
-            }
-            idx = idx + 1;
-        }
-
-        int attack = 4;
-        int magic = 0;
-        int defense = 1;
-        int velocidad = 6;
-        int level = 1;
-        int life = 12;
-        int actualLife = 12;
-
-        // Constructor que pediste (sin Classes)
-        Monster m = new Monster(w, attack, magic, defense, velocidad, level, name, spritePath, life, actualLife);
-
-        return m;
-    }
-
     private ImageView createMonsterView(Monster m) {
-        Image img = null;
-        try {
-            img = m.getFxImage();
-        } catch (Throwable ignored) {
-        }
-        if (img == null) {
-            try {
-                img = new Image(getClass().getResourceAsStream("/Resources/sprites/Monsters/monster1.png"));
-            } catch (Throwable ignored) {
-            }
-        }
+        Image img = SpriteCache.get(m.getSpritePath(), SpriteCache.MONSTER_SPRITE);
         ImageView iv = new ImageView(img);
         iv.setPreserveRatio(true);
         iv.setFitWidth(88);
@@ -307,22 +389,13 @@ public class CombatScreen {
     private void createHeroIcon(Hero heroForIcon) {
         Image heroImg = null;
         if (heroForIcon != null) {
-            try {
-                heroImg = heroForIcon.getImage();
-            } catch (Throwable ignored) {
-            }
+            heroImg = SpriteCache.get(heroForIcon.getSpritePath());
         }
         if (heroImg == null && game != null && game.getHero() != null) {
-            try {
-                heroImg = game.getHero().getImage();
-            } catch (Throwable ignored) {
-            }
+            heroImg = SpriteCache.get(game.getHero().getSpritePath());
         }
         if (heroImg == null) {
-            try {
-                heroImg = new Image(getClass().getResourceAsStream("/Resources/sprites/hero.png"));
-            } catch (Throwable ignored) {
-            }
+            heroImg = SpriteCache.get(SpriteCache.HERO_SPRITE);
         }
         ImageView heroIv = new ImageView(heroImg);
         heroIv.setPreserveRatio(true);
@@ -351,27 +424,29 @@ public class CombatScreen {
         Button bItem = styledButton("Item");
         Button bDefend = styledButton("Defend");
         Button bEscape = styledButton("Escape");
+        Button bAuto = styledButton("Auto");
 
         buttons.add(bBattle);
         buttons.add(bItem);
         buttons.add(bDefend);
         buttons.add(bEscape);
+        buttons.add(bAuto);
 
         bBattle.setOnAction(e -> {
             if (!gameOverActive) {
-                onBattle();
+                playTurn(CombatEngine.Action.BATTLE);
             }
         });
         bItem.setOnAction(e -> {
             if (!gameOverActive) {
                 toastQueue.enqueue("Item: acción ejecutada correctamente.");
-                monstersAttackAfterHeroAction();
+                playTurn(CombatEngine.Action.ITEM);
             }
         });
         bDefend.setOnAction(e -> {
             if (!gameOverActive) {
                 toastQueue.enqueue("Defend: acción ejecutada correctamente.");
-                monstersAttackAfterHeroAction();
+                playTurn(CombatEngine.Action.DEFEND);
             }
         });
         bEscape.setOnAction(e -> {
@@ -379,14 +454,19 @@ public class CombatScreen {
                 closeCombatAndReturnToMap();
             }
         });
+        bAuto.setOnAction(e -> {
+            if (!gameOverActive) {
+                autoBattle();
+            }
+        });
 
-        actionButtons.getChildren().addAll(bBattle, bItem, bDefend, bEscape);
+        actionButtons.getChildren().addAll(bBattle, bItem, bDefend, bEscape, bAuto);
         updateButtonSelection();
     }
 
     private Button styledButton(String text) {
         Button b = new Button(text);
-        b.setMinWidth(140);
+        b.setMinWidth(136);
         b.setMinHeight(44);
         b.setStyle("-fx-background-color: linear-gradient(#3a7bd5,#00d2ff); -fx-text-fill: white; -fx-font-weight: bold; -fx-background-radius: 6;");
         b.setFont(Font.font(14));
@@ -450,6 +530,19 @@ public class CombatScreen {
                 }
                 return;
             }
+            if (code == KeyCode.DIGIT5 || code == KeyCode.NUMPAD5) {
+                ev.consume();
+                if (buttons.size() > 4) {
+                    buttons.get(4).fire();
+                }
+                return;
+            }
+            if (code == KeyCode.F) {
+                ev.consume();
+                setAnimationSpeed(animationSpeed >= 4.0 ? 1.0 : animationSpeed * 2);
+                toastQueue.enqueue("Velocidad x" + (int) animationSpeed);
+                return;
+            }
 
             if (code == KeyCode.ESCAPE) {
                 ev.consume();
@@ -472,120 +565,125 @@ public class CombatScreen {
     }
 
     // --- acciones de combate y flujo ---
-    private void onBattle() {
-        boolean hadTarget = false;
-        Monster target = null;
-        int tIndex = 0;
-        int monstersCount = monsters.size();
-
-        // Buscar primer monstruo vivo (sin break)
-        while (tIndex < monstersCount && !hadTarget) {
-            Monster m = monsters.get(tIndex);
-            if (m.getActualLife() > 0) {
-                target = m;
-                hadTarget = true;
-            }
-            tIndex = tIndex + 1;
-        }
-
-        boolean endCombatNow = false;
-        if (!hadTarget) {
-            endCombatNow = true;
-        }
-
-        boolean heroDidDamage = false;
-        if (!endCombatNow && target != null) {
-            heroDidDamage = game.heroCombat(target);
-            final Monster finalTarget = target;
-            final boolean finalHeroDidDamage = heroDidDamage;
-            String heroMsg = finalHeroDidDamage
-                    ? ("Has atacado a " + finalTarget.getName() + ". Vida restante del monstruo: " + finalTarget.getActualLife())
-                    : "Tu ataque no hizo daño.";
-            toastQueue.enqueue(heroMsg);
-            updateHeroHpDisplay(); // por si alguna acción del héroe afecta visualmente
-        }
-
-        boolean removedOne = false;
-        if (!endCombatNow && target != null && game.checkGameOver(target.getActualLife())) {
-            removeMonster(target);
-            removedOne = true;
-        }
-
-        if (!endCombatNow) {
-            if (monsters.isEmpty()) {
-                endCombatNow = true;
-            }
-        }
-
-        if (endCombatNow) {
+    private void playTurn(CombatEngine.Action action) {
+        Encounter.Outcome outcome = engine.turn(encounter, action);
+        if (outcome == Encounter.Outcome.DEFEAT) {
+            showGameOver();
+        } else if (outcome != Encounter.Outcome.ONGOING) {
             endCombatAndReturnToMap();
-            return;
         }
-
-        monstersAttackAfterHeroAction();
     }
 
-    private void monstersAttackAfterHeroAction() {
-        int idx = 0;
-        int total = monsters.size();
-        boolean heroDied = false;
-
-        while (idx < total && !heroDied) {
-            Monster m = monsters.get(idx);
-            boolean alive = m.getActualLife() > 0;
-            if (alive) {
-                boolean monsterDidDamage = game.combat(m);
-                int heroHp = game.getHero().getActualLife();
-                final String msg = monsterDidDamage
-                        ? (m.getName() + " atacó. Vida restante del héroe: " + heroHp)
-                        : (m.getName() + " atacó pero no hizo daño. Vida del héroe: " + heroHp);
-
-                // Encolar toast y actualizar HP display inmediatamente después del ataque
-                toastQueue.enqueue(msg);
-                updateHeroHpDisplay();
+    // Traduce los eventos del motor a mensajes y cambios en pantalla. De
+    // varios cambios de vida del héroe en un mismo pulso solo se pinta el último.
+    private void drainEvents() {
+        pendingHeroHp = -1;
+        events.drain(this::showEvent);
+        if (pendingHeroHp >= 0) {
+            showHeroHp(pendingHeroHp);
+        }
+    }
 
-                if (game.checkGameOver(heroHp)) {
-                    heroDied = true;
+    private void showEvent(CombatEvent e) {
+        Monster m = e.getMonster();
+        switch (e.getType()) {
+            case DAMAGE:
+                toastQueue.enqueue(e.isByHero()
+                        ? ("Has atacado a " + m.getName() + ". Vida restante del monstruo: " + e.getRemaining())
+                        : (m.getName() + " atacó. Vida restante del héroe: " + e.getRemaining()));
+                break;
+            case MISS:
+                toastQueue.enqueue(e.isByHero()
+                        ? "Tu ataque no hizo daño."
+                        : (m.getName() + " atacó pero no hizo daño. Vida del héroe: " + e.getRemaining()));
+                break;
+            case DEATH:
+                if (e.getIndex() < monstersBox.getChildren().size()) {
+                    monstersBox.getChildren().remove(e.getIndex());
                 }
-            }
-            idx = idx + 1;
+                break;
+            case HERO_HP_CHANGED:
+                pendingHeroHp = e.getValue();
+                break;
+            case GUARD:
+                toastQueue.enqueue(m.getName() + " se pone en guardia.");
+                break;
+            case HEAL:
+                toastQueue.enqueue(m.getName() + " recuperó " + e.getValue() + " de vida. Vida restante del monstruo: " + e.getRemaining());
+                break;
+            case RAGE:
+                toastQueue.enqueue(m.getName() + " se enfurece (furia " + e.getValue() + ").");
+                break;
+            case STATUS:
+                toastQueue.enqueue(m == null
+                        ? ("Los estados te hacen " + e.getValue() + " de daño. Vida restante del héroe: " + e.getRemaining())
+                        : (m.getName() + " sufre " + e.getValue() + " de daño por sus estados. Vida restante del monstruo: " + e.getRemaining()));
+                break;
+            case STUN:
+                toastQueue.enqueue(m == null ? "Estás aturdido y pierdes el turno." : (m.getName() + " está aturdido y pierde su turno."));
+                break;
+            default:
+                // VICTORY: la salida del combate la hace playTurn
+                break;
         }
+    }
 
-        if (heroDied) {
-            showGameOver();
-        }
+    // Cuando ya no se van a mostrar, los monstruos vuelven a la reserva
+    private void releaseMonsters() {
+        bossAI.close();
+        game.getMonsterRegistry().releaseAll(spawned);
+        spawned.clear();
     }
 
-    private void removeMonster(Monster m) {
-        int idx = monsters.indexOf(m);
-        if (idx >= 0) {
-            monsters.remove(idx);
-            if (idx < monstersBox.getChildren().size()) {
-                final int removeIdx = idx;
-                Platform.runLater(() -> monstersBox.getChildren().remove(removeIdx));
+    // Todo el botín del combate se tira de una vez al ganar y pasa al héroe
+    private void rollLoot() {
+        lastLoot.clear();
+        if (encounter.getOutcome() == Encounter.Outcome.VICTORY) {
+            lastLoot.addAll(game.getLootTables().rollEncounter(spawned, region,
+                    game.getRandom().stream(GameRandom.LOOT)));
+            for (Item item : lastLoot) {
+                game.addHeroItem(item);
             }
         }
     }
 
     private void endCombatAndReturnToMap() {
+        if (exiting) {
+            return;
+        }
+        exiting = true;
+        try {
+            game.logHeroLife();
+        } catch (Throwable ignored) {
+        }
+        rollLoot();
         stopBattleMusic();
         Platform.runLater(() -> {
             try {
                 FXGL.getGameScene().removeUINode(root);
             } catch (Throwable ignored) {
             }
+            releaseMonsters();
             if (onExit != null) {
                 onExit.run();
             }
         });
     }
 
+    // Antes de huir actúan los monstruos más rápidos y los estados, que pueden
+    // matar al héroe; y un aturdimiento hace perder la huida y seguir en combate
     private void closeCombatAndReturnToMap() {
-        endCombatAndReturnToMap();
+        Encounter.Outcome outcome = engine.turn(encounter, CombatEngine.Action.ESCAPE);
+        if (outcome == Encounter.Outcome.DEFEAT) {
+            showGameOver();
+        } else if (outcome != Encounter.Outcome.ONGOING) {
+            endCombatAndReturnToMap();
+        }
     }
 
     // --- Game Over ---
     private void showGameOver() {
+        releaseMonsters();
         Platform.runLater(() -> {
             if (gameOverOverlay != null) {
                 return;
@@ -723,68 +821,162 @@ public class CombatScreen {
         });
     }
 
-    // --- ToastQueue: muestra labels temporales en orden, uno a la vez ---
+    // --- ToastQueue: mensajes temporales sobre un conjunto fijo de etiquetas ---
+    // Normalmente muestra un mensaje tras otro. Si el primero en espera ya lleva
+    // maxLatency, se muestra en el momento apilado sobre los visibles; y si no
+    // quedan etiquetas libres, lo que espera se añade como líneas a la más
+    // reciente, que hace de registro del combate. Así ningún mensaje tarda más
+    // de maxLatency en verse. Las etiquetas y sus transiciones se crean una vez.
     private class ToastQueue {
 
-        private final Queue<String> q = new ArrayDeque<>();
-        private boolean showing = false;
+        private final int POOL_SIZE = 4;
+        private final int MAX_LINES = 6;
         private final double DURATION_SECONDS = 1.2;
         private final double FADE_SECONDS = 0.22;
 
-        public synchronized void enqueue(String msg) {
-            q.offer(msg == null ? "" : msg);
-            if (!showing) {
-                showing = true;
-                Platform.runLater(this::showNext);
+        private final Queue<Pending> q = new ArrayDeque<>();
+        private final VBox log = new VBox(6);
+        private final List<Toast> pool = new ArrayList<>();
+        private Toast newest = null;
+        private int visible = 0;
+        private long maxLatencyNanos = 600_000_000L;
+
+        private class Pending {
+
+            final String text;
+            final long at;
+
+            Pending(String text, long at) {
+                this.text = text;
+                this.at = at;
             }
         }
 
-        private void showNext() {
-            String msg = q.poll();
-            if (msg == null) {
-                showing = false;
-                return;
-            }
+        private class Toast {
 
-            Label lbl = new Label(msg);
-            lbl.setStyle("-fx-background-color: rgba(0,0,0,0.75); -fx-text-fill: white; -fx-padding: 10 16 10 16; -fx-background-radius: 8; -fx-font-size: 13;");
-            lbl.setOpacity(0.0);
+            final Label lbl = new Label();
+            final SequentialTransition seq;
+            boolean busy = false;
+            int lines = 0;
 
-            StackPane container = new StackPane(lbl);
-            container.setPickOnBounds(false);
-            container.setMouseTransparent(true);
-            container.setPrefSize(800, 600);
+            Toast() {
+                lbl.setStyle("-fx-background-color: rgba(0,0,0,0.75); -fx-text-fill: white; -fx-padding: 10 16 10 16; -fx-background-radius: 8; -fx-font-size: 13;");
+                lbl.setVisible(false);
+                lbl.setManaged(false);
 
-            StackPane.setAlignment(lbl, Pos.BOTTOM_CENTER);
-            lbl.setTranslateY(-72);
+                FadeTransition fadeIn = new FadeTransition(javafx.util.Duration.seconds(FADE_SECONDS), lbl);
+                fadeIn.setFromValue(0.0);
+                fadeIn.setToValue(1.0);
 
-            try {
-                if (root != null) {
-                    root.getChildren().add(container);
-                }
-            } catch (Throwable ignored) {
+                PauseTransition pause = new PauseTransition(javafx.util.Duration.seconds(DURATION_SECONDS));
+
+                FadeTransition fadeOut = new FadeTransition(javafx.util.Duration.seconds(FADE_SECONDS), lbl);
+                fadeOut.setFromValue(1.0);
+                fadeOut.setToValue(0.0);
+
+                seq = new SequentialTransition(fadeIn, pause, fadeOut);
+                seq.setOnFinished(ev -> release(this));
             }
+        }
 
-            FadeTransition fadeIn = new FadeTransition(javafx.util.Duration.seconds(FADE_SECONDS), lbl);
-            fadeIn.setFromValue(0.0);
-            fadeIn.setToValue(1.0);
+        ToastQueue() {
+            log.setAlignment(Pos.BOTTOM_CENTER);
+            log.setPickOnBounds(false);
+            log.setMouseTransparent(true);
+            log.setMaxSize(Region.USE_PREF_SIZE, Region.USE_PREF_SIZE);
+            StackPane.setAlignment(log, Pos.BOTTOM_CENTER);
+            log.setTranslateY(-72);
+            int i = 0;
+            while (i < POOL_SIZE) {
+                Toast t = new Toast();
+                pool.add(t);
+                log.getChildren().add(t.lbl);
+                i = i + 1;
+            }
+        }
 
-            PauseTransition pause = new PauseTransition(javafx.util.Duration.seconds(DURATION_SECONDS));
+        public synchronized void enqueue(String msg) {
+            q.offer(new Pending(msg == null ? "" : msg, System.nanoTime()));
+        }
 
-            FadeTransition fadeOut = new FadeTransition(javafx.util.Duration.seconds(FADE_SECONDS), lbl);
-            fadeOut.setFromValue(1.0);
-            fadeOut.setToValue(0.0);
+        synchronized void setRate(double rate) {
+            for (Toast t : pool) {
+                t.seq.setRate(rate);
+            }
+        }
 
-            fadeOut.setOnFinished(ev -> {
-                try {
-                    root.getChildren().remove(container);
-                } catch (Throwable ignored) {
+        synchronized void setMaxLatency(double seconds) {
+            maxLatencyNanos = (long) (Math.max(0.0, seconds) * 1_000_000_000L);
+        }
+
+        // Se llama en cada pulso desde el hilo de FX
+        synchronized void tick(long now) {
+            while (!q.isEmpty() && (visible == 0 || now - q.peek().at >= maxLatencyNanos)) {
+                Toast t = freeToast();
+                if (t != null) {
+                    show(t, q.poll().text);
+                } else {
+                    while (!q.isEmpty()) {
+                        append(newest, q.poll().text);
+                    }
+                    // Vuelve a contar la pausa sin repetir la entrada
+                    newest.seq.playFrom(javafx.util.Duration.seconds(FADE_SECONDS));
                 }
-                Platform.runLater(this::showNext);
-            });
+            }
+        }
 
-            SequentialTransition seq = new SequentialTransition(fadeIn, pause, fadeOut);
-            seq.play();
+        private Toast freeToast() {
+            Toast free = null;
+            int i = 0;
+            while (i < pool.size() && free == null) {
+                if (!pool.get(i).busy) {
+                    free = pool.get(i);
+                }
+                i = i + 1;
+            }
+            return free;
+        }
+
+        private void show(Toast t, String msg) {
+            try {
+                if (root != null && log.getParent() == null) {
+                    root.getChildren().add(log);
+                }
+                log.toFront();
+            } catch (Throwable ignored) {
+            }
+            t.busy = true;
+            t.lines = 1;
+            t.lbl.setText(msg);
+            t.lbl.setOpacity(0.0);
+            t.lbl.setVisible(true);
+            t.lbl.setManaged(true);
+            // El más reciente queda abajo del todo
+            t.lbl.toFront();
+            newest = t;
+            visible = visible + 1;
+            t.seq.playFromStart();
+        }
+
+        private void append(Toast t, String msg) {
+            String text = t.lbl.getText() + "\n" + msg;
+            t.lines = t.lines + 1;
+            if (t.lines > MAX_LINES) {
+                text = text.substring(text.indexOf('\n') + 1);
+                t.lines = MAX_LINES;
+            }
+            t.lbl.setText(text);
+            t.lbl.setOpacity(1.0);
+        }
+
+        private synchronized void release(Toast t) {
+            t.busy = false;
+            t.lbl.setVisible(false);
+            t.lbl.setManaged(false);
+            visible = visible - 1;
+            if (newest == t) {
+                newest = null;
+            }
         }
     }
 }
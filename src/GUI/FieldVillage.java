@@ -197,9 +197,8 @@ public class FieldVillage {
     }
 
     private ImageView createHeroView() {
-        Image img = null;
-        try { img = new Image(getClass().getResourceAsStream("/Resources/sprites/hero.png")); }
-        catch (Throwable ignored) { img = null; }
+        String sprite = (game != null && game.getHero() != null) ? game.getHero().getSpritePath() : null;
+        Image img = SpriteCache.get(sprite, SpriteCache.HERO_SPRITE);
         ImageView iv = new ImageView(img);
         iv.setPreserveRatio(true);
         iv.setFitWidth(HERO_W);
@@ -254,11 +253,8 @@ public class FieldVillage {
                     clearInputState();
                     try {
                         if (game != null && game.getHero() != null) {
-                            Hero h = game.getHero();
-                            h.setLastLocation(Hero.Location.FIELD_VILLAGE);
-                            h.setLastPosX(heroView.getLayoutX());
-                            h.setLastPosY(heroView.getLayoutY());
-                            try { game.createSaveGame(); } catch (Throwable ignored) {}
+                            // Solo cambia la posición: basta con un registro en el diario
+                            game.moveHero(Hero.Location.FIELD_VILLAGE, heroView.getLayoutX(), heroView.getLayoutY());
                         }
                     } catch (Throwable ignored) {}
                     if (onExitCallback != null) {
@@ -297,7 +293,7 @@ public class FieldVillage {
                             h.setLastLocation(Hero.Location.FIELD_VILLAGE);
                             h.setLastPosX(heroView.getLayoutX());
                             h.setLastPosY(heroView.getLayoutY());
-                            try { game.createSaveGame(); } catch (Throwable ignored) {}
+                            try { game.createSaveGameAsync(); } catch (Throwable ignored) {}
                         }
                     } catch (Throwable ignored) {}
 
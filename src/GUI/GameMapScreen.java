@@ -2,15 +2,24 @@ package GUI;
 
 import Runner.MainScreen;
 import Characters.Hero;
+import Logic.AutoBattle;
+import Logic.Encounter;
 import Logic.Game;
+import Logic.GameRandom;
+import Items.Item;
 import com.almasb.fxgl.dsl.FXGL;
 import javafx.animation.AnimationTimer;
+import javafx.animation.FadeTransition;
+import javafx.animation.PauseTransition;
+import javafx.animation.SequentialTransition;
 import javafx.application.Platform;
 import javafx.geometry.Point2D;
+import javafx.geometry.Pos;
 import javafx.geometry.Rectangle2D;
 import javafx.scene.Cursor;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
+import javafx.scene.control.Label;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.KeyCode;
@@ -28,7 +37,7 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 public class GameMapScreen {
 
@@ -57,6 +66,8 @@ public class GameMapScreen {
 
     // Ruta configurable para la música de combate
     private String combatMusicPath = "/Resources/music/fieldBattle.mp3";
+    // Velocidad de animación elegida en el último combate (tecla F en combate)
+    private double combatSpeed = 1.0;
 
     public enum Direction {
         NONE, N, NE, E, SE, S, SW, W, NW
@@ -96,10 +107,11 @@ public class GameMapScreen {
     private boolean debugEnabled = true;
 
     // Random para usos de debug (por ejemplo abrir combate con número aleatorio de monstruos)
-    private final Random rnd = new Random();
+    private final RandomGenerator rnd;
 
     public GameMapScreen(Game game) {
         this.game = game;
+        this.rnd = game.getRandom().stream(GameRandom.MAP);
         Hero hero = game.getHero();
 
         Image mapImg;
@@ -203,19 +215,7 @@ public class GameMapScreen {
     }
 
     private ImageView createHeroView(Hero hero) {
-        Image img = null;
-        if (hero != null) {
-            try {
-                img = hero.getImage();
-            } catch (Throwable ignored) {
-            }
-        }
-        if (img == null) {
-            try {
-                img = new Image(getClass().getResourceAsStream("/Resources/sprites/hero.png"));
-            } catch (Throwable ignored) {
-            }
-        }
+        Image img = SpriteCache.get(hero == null ? null : hero.getSpritePath(), SpriteCache.HERO_SPRITE);
         ImageView iv = new ImageView(img);
         iv.setPreserveRatio(true);
         iv.setFitWidth(48);
@@ -297,10 +297,10 @@ public class GameMapScreen {
                 System.out.println("Hero scene center: " + getHeroSceneCenter());
                 System.out.println("Hero direction: " + getHeroDirection().name());
             } else if (k == KeyCode.B) {
-                // Debug: abrir pantalla de combate
+                // Debug: abrir pantalla de combate; con Shift se resuelve en automático
                 handled = true;
                 clearInputState();
-                openDebugCombat();
+                openDebugCombat(ev.isShiftDown());
             } else if (k == KeyCode.W || k == KeyCode.UP) {
                 up = true;
             } else if (k == KeyCode.S || k == KeyCode.DOWN) {
@@ -374,7 +374,7 @@ public class GameMapScreen {
                     h.setLastPosX(heroView.getLayoutX());
                     h.setLastPosY(heroView.getLayoutY());
                     try {
-                        game.createSaveGame();
+                        game.createSaveGameAsync();
                     } catch (Throwable ignored) {
                     }
                 }
@@ -829,42 +829,95 @@ public class GameMapScreen {
         vx = vy = 0;
     }
 
-    private void openDebugCombat() {
+    private void openDebugCombat(boolean auto) {
         String bg = "/Resources/textures/Battle/fieldBattle.png";
-        List<String> sprites = List.of(
-                "/Resources/sprites/Monsters/monster1.png",
-                "/Resources/sprites/Monsters/monster2.png",
-                "/Resources/sprites/Monsters/monster3.png"
-        );
+        // Plantillas de Game.getMonsterRegistry, una por sprite de prueba
+        List<String> monsters = List.of("monster1", "monster2", "monster3");
 
-        stopMapMusic();
-
-        GUI.CombatScreen cs = new GUI.CombatScreen(game, bg, sprites, game.getHero());
+        GUI.CombatScreen cs = new GUI.CombatScreen(game, bg, monsters, game.getHero());
         // Pasar la ruta de música de combate configurada (si se cambió desde fuera)
         cs.setBattleMusicPath(combatMusicPath);
         //cs.setBattleMusicPath("/Resources/music/bossBattle2.mp3");
+        cs.setAnimationSpeed(combatSpeed);
 
-        cs.setOnExit(() -> {
+        // El combate automático se resuelve aquí mismo; el mapa solo se quita si se pierde
+        AutoBattle.Summary summary = auto ? cs.autoBattle() : null;
+        if (summary != null && summary.getOutcome() == Encounter.Outcome.DEFEAT) {
+            // autoBattle ya dejó en cola el Game Over; la pantalla de combate no
+            // se muestra para no taparlo, solo se quita el mapa
+            stopMapMusic();
             Platform.runLater(() -> {
                 try {
-                    FXGL.getGameScene().removeUINode(cs.root);
+                    FXGL.getGameScene().removeUINode(root);
                 } catch (Throwable ignored) {
                 }
+            });
+        } else if (summary != null) {
+            showNotice(summary + lootText(cs.getLastLoot()));
+        } else {
+            stopMapMusic();
+
+            cs.setOnExit(() -> {
+                Platform.runLater(() -> {
+                    try {
+                        FXGL.getGameScene().removeUINode(cs.root);
+                    } catch (Throwable ignored) {
+                    }
+                    try {
+                        FXGL.getGameScene().addUINode(root);
+                    } catch (Throwable ignored) {
+                    }
+                    startMapMusic();
+                    combatSpeed = cs.getAnimationSpeed();
+                    if (cs.getLastSummary() != null) {
+                        showNotice(cs.getLastSummary() + lootText(cs.getLastLoot()));
+                    } else if (!cs.getLastLoot().isEmpty()) {
+                        showNotice(lootText(cs.getLastLoot()).trim());
+                    }
+                    root.requestFocus();
+                });
+            });
+
+            Platform.runLater(() -> {
                 try {
-                    FXGL.getGameScene().addUINode(root);
+                    FXGL.getGameScene().removeUINode(root);
                 } catch (Throwable ignored) {
                 }
-                startMapMusic();
-                root.requestFocus();
+                cs.show();
             });
-        });
+        }
+    }
 
-        Platform.runLater(() -> {
-            try {
-                FXGL.getGameScene().removeUINode(root);
-            } catch (Throwable ignored) {
+    private static String lootText(List<Item> loot) {
+        StringBuilder sb = new StringBuilder();
+        if (!loot.isEmpty()) {
+            sb.append("\nBotín:");
+            int i = 0;
+            while (i < loot.size()) {
+                sb.append(i == 0 ? " " : ", ").append(loot.get(i).getName());
+                i = i + 1;
             }
-            cs.show();
-        });
+        }
+        return sb.toString();
+    }
+
+    // Mensaje breve en la parte superior del mapa, que se desvanece solo
+    private void showNotice(String msg) {
+        Label lbl = new Label(msg);
+        lbl.setStyle("-fx-background-color: rgba(0,0,0,0.75); -fx-text-fill: white; -fx-padding: 8 14 8 14; -fx-background-radius: 8; -fx-font-size: 13;");
+        lbl.setWrapText(true);
+        lbl.setMaxWidth(640);
+        lbl.setMouseTransparent(true);
+        StackPane.setAlignment(lbl, Pos.TOP_CENTER);
+        lbl.setTranslateY(16);
+        root.getChildren().add(lbl);
+
+        PauseTransition pause = new PauseTransition(javafx.util.Duration.seconds(3.0));
+        FadeTransition fadeOut = new FadeTransition(javafx.util.Duration.seconds(0.4), lbl);
+        fadeOut.setFromValue(1.0);
+        fadeOut.setToValue(0.0);
+        SequentialTransition seq = new SequentialTransition(pause, fadeOut);
+        seq.setOnFinished(ev -> root.getChildren().remove(lbl));
+        seq.play();
     }
 }
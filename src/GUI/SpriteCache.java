@@ -0,0 +1,74 @@
+package GUI;
+
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javafx.scene.image.Image;
+
+/**
+ * Imágenes de los sprites, resueltas a partir de la ruta que guardan Hero y
+ * los NPC. El modelo solo conoce la ruta; la imagen se decodifica la primera
+ * vez que una pantalla la pide y se comparte entre todos los personajes con
+ * el mismo sprite. Una ruta que no existe o no se puede decodificar también
+ * se recuerda, para no volver a intentarlo en cada combate.
+ */
+public final class SpriteCache {
+
+    public static final String HERO_SPRITE = "/Resources/sprites/hero.png";
+    public static final String MONSTER_SPRITE = "/Resources/sprites/Monsters/monster1.png";
+
+    private static final Map<String, Image> IMAGES = new ConcurrentHashMap<>();
+    private static final Set<String> MISSING = ConcurrentHashMap.newKeySet();
+
+    private SpriteCache() {
+    }
+
+    /**
+     * Imagen del sprite en path, o null si no existe o no se puede cargar.
+     */
+    public static Image get(String path) {
+        Image img = null;
+        if (!(path == null || path.isEmpty()) && !MISSING.contains(path)) {
+            img = IMAGES.get(path);
+            if (img == null) {
+                img = load(path);
+                if (img == null) {
+                    MISSING.add(path);
+                } else {
+                    Image previous = IMAGES.putIfAbsent(path, img);
+                    if (previous != null) {
+                        img = previous;
+                    }
+                }
+            }
+        }
+        return img;
+    }
+
+    /**
+     * Como get(path), pero si no hay imagen devuelve la de fallback.
+     */
+    public static Image get(String path, String fallback) {
+        Image img = get(path);
+        if (img == null) {
+            img = get(fallback);
+        }
+        return img;
+    }
+
+    private static Image load(String path) {
+        Image img = null;
+        try (InputStream in = SpriteCache.class.getResourceAsStream(path)) {
+            if (in != null) {
+                img = new Image(in);
+                if (img.isError()) {
+                    img = null;
+                }
+            }
+        } catch (Throwable ignored) {
+            img = null;
+        }
+        return img;
+    }
+}
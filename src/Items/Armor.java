@@ -1,8 +1,12 @@
 package Items;
 
 public class Armor extends Item{
+    // El que se calculaba antes de compiledEffect; las partidas viejas guardan armaduras con él
+    private static final long serialVersionUID = 9135144626017118015L;
     protected int defense;
     protected String effect;
+    // effect ya compilado; se rehace tras leer la armadura con serialización de Java
+    protected transient Effect compiledEffect;
    
     
     public Armor(String info, String name, String id ,int defense, String effect){
@@ -25,6 +29,18 @@ public class Armor extends Item{
 
     public void setEffect(String effect) {
         this.effect = effect;
+        this.compiledEffect = Effect.parse(effect);
+    }
+
+    /**
+     * El texto de efecto ya compilado; de una armadura solo cuenta la
+     * defensa.
+     */
+    public Effect getCompiledEffect() {
+        if (compiledEffect == null) {
+            compiledEffect = Effect.parse(effect);
+        }
+        return compiledEffect;
     }
     
     
@@ -0,0 +1,197 @@
+package Items;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Efecto de un arma o una armadura, ya leído de su texto de efecto. Se
+ * compila una sola vez, al crear el item o cambiar su efecto, y los items
+ * con el mismo texto comparten el mismo objeto; el combate solo lee sus
+ * enteros.
+ *
+ * El texto es una lista de órdenes separadas por ";". Las que no empiezan
+ * por un nombre conocido son solo descripción ("Inflict damage.") y se
+ * ignoran:
+ * <pre>
+ * poison:daño:turnos        veneno; uno nuevo sustituye al anterior
+ * burn:daño:turnos          quemadura; se acumula con las anteriores
+ * stun:probabilidad:acciones  aturde al objetivo, que pierde sus acciones
+ * lifesteal:porcentaje      cura al atacante ese porcentaje del daño hecho
+ * defense:porcentaje        multiplica la defensa de quien lo lleva
+ * </pre>
+ * El veneno, la quemadura, el aturdimiento y el robo de vida se aplican al
+ * golpear con el arma; en una armadura solo cuenta la defensa. El
+ * aturdimiento no es al azar: cada golpe suma su probabilidad y aturde cada
+ * vez que se llega a 100, así que "stun:25:1" aturde uno de cada cuatro
+ * golpes.
+ *
+ * Un texto con una orden conocida mal escrita ("poison:weak", "burn:x", un
+ * número que no es mayor que 0) no lanza al compilarlo: el efecto entero
+ * queda en NONE. Quien crea el catálogo lo rechaza antes con check.
+ */
+public final class Effect {
+
+    /**
+     * Sin efecto.
+     */
+    public static final Effect NONE = new Effect(0, 0, 0, 0, 0, 0, 0, 100);
+
+    private static final Map<String, Effect> CACHE = new ConcurrentHashMap<>();
+
+    private final int poisonDamage;
+    private final int poisonTurns;
+    private final int burnDamage;
+    private final int burnTurns;
+    private final int stunPercent;
+    private final int stunActions;
+    private final int lifestealPercent;
+    private final int defensePercent;
+
+    private Effect(int poisonDamage, int poisonTurns, int burnDamage, int burnTurns, int stunPercent,
+            int stunActions, int lifestealPercent, int defensePercent) {
+        this.poisonDamage = poisonDamage;
+        this.poisonTurns = poisonTurns;
+        this.burnDamage = burnDamage;
+        this.burnTurns = burnTurns;
+        this.stunPercent = stunPercent;
+        this.stunActions = stunActions;
+        this.lifestealPercent = lifestealPercent;
+        this.defensePercent = defensePercent;
+    }
+
+    /**
+     * Compila text, o devuelve el efecto ya compilado para el mismo texto.
+     * null, un texto sin órdenes o uno con una orden mal escrita da NONE.
+     */
+    public static Effect parse(String text) {
+        Effect effect = NONE;
+        if (text != null && !text.isBlank()) {
+            effect = CACHE.get(text);
+            if (effect == null) {
+                effect = compile(text, false);
+                CACHE.putIfAbsent(text, effect);
+            }
+        }
+        return effect;
+    }
+
+    /**
+     * Lanza IllegalArgumentException si text tiene una orden conocida mal
+     * escrita, que parse convertiría en NONE sin avisar.
+     */
+    public static void check(String text) {
+        if (text != null && !text.isBlank()) {
+            compile(text, true);
+        }
+    }
+
+    // Con strict, una orden mal escrita lanza en vez de dar NONE
+    private static Effect compile(String text, boolean strict) {
+        int poisonDamage = 0;
+        int poisonTurns = 0;
+        int burnDamage = 0;
+        int burnTurns = 0;
+        int stunPercent = 0;
+        int stunActions = 0;
+        int lifestealPercent = 0;
+        int defensePercent = 100;
+        boolean any = false;
+        String malformed = null;
+        for (String part : text.split(";")) {
+            String[] words = part.trim().toLowerCase(Locale.ROOT).split(":");
+            String name = words[0].trim();
+            boolean known = true;
+            if (name.equals("poison")) {
+                poisonDamage = value(words, 1, 3);
+                poisonTurns = value(words, 2, 3);
+            } else if (name.equals("burn")) {
+                burnDamage = value(words, 1, 3);
+                burnTurns = value(words, 2, 3);
+            } else if (name.equals("stun")) {
+                stunPercent = Math.min(100, value(words, 1, 3));
+                stunActions = value(words, 2, 3);
+            } else if (name.equals("lifesteal")) {
+                lifestealPercent = value(words, 1, 2);
+            } else if (name.equals("defense")) {
+                defensePercent = value(words, 1, 2);
+            } else {
+                known = false;
+            }
+            any = any || known;
+            if (malformed == null && (poisonDamage < 0 || poisonTurns < 0 || burnDamage < 0 || burnTurns < 0
+                    || stunPercent < 0 || stunActions < 0 || lifestealPercent < 0 || defensePercent < 0)) {
+                malformed = part.trim();
+            }
+        }
+        Effect effect = NONE;
+        if (malformed != null) {
+            if (strict) {
+                throw new IllegalArgumentException("Efecto mal escrito: " + malformed);
+            }
+        } else if (any) {
+            effect = new Effect(poisonDamage, poisonTurns, burnDamage, burnTurns, stunPercent, stunActions,
+                    lifestealPercent, defensePercent);
+        }
+        return effect;
+    }
+
+    // Número index de una orden que debe tener count partes, o -1 si la orden está mal escrita
+    private static int value(String[] words, int index, int count) {
+        int v = -1;
+        if (words.length == count) {
+            try {
+                v = Integer.parseInt(words[index].trim());
+            } catch (NumberFormatException e) {
+                v = -1;
+            }
+        }
+        return v < 1 ? -1 : v;
+    }
+
+    /**
+     * true si el efecto hace algo al golpear (veneno, quemadura,
+     * aturdimiento o robo de vida).
+     */
+    public boolean isOnHit() {
+        return poisonTurns > 0 || burnTurns > 0 || stunActions > 0 || lifestealPercent > 0;
+    }
+
+    public int getPoisonDamage() {
+        return poisonDamage;
+    }
+
+    public int getPoisonTurns() {
+        return poisonTurns;
+    }
+
+    public int getBurnDamage() {
+        return burnDamage;
+    }
+
+    public int getBurnTurns() {
+        return burnTurns;
+    }
+
+    /**
+     * Lo que suma cada golpe al medidor de aturdimiento, de 0 a 100.
+     */
+    public int getStunPercent() {
+        return stunPercent;
+    }
+
+    public int getStunActions() {
+        return stunActions;
+    }
+
+    public int getLifestealPercent() {
+        return lifestealPercent;
+    }
+
+    /**
+     * Porcentaje por el que se multiplica la defensa; 100 la deja igual.
+     */
+    public int getDefensePercent() {
+        return defensePercent;
+    }
+}
@@ -2,10 +2,15 @@ package Items;
 
 public abstract class Weapon extends Item {
 
+    // El que se calculaba antes de compiledEffect; las partidas viejas guardan armas con él
+    private static final long serialVersionUID = -9209265638774520356L;
+
     protected int attack;
     protected int lifeSpan;
     protected String effect;
     protected String type;
+    // effect ya compilado; se rehace tras leer el arma con serialización de Java
+    protected transient Effect compiledEffect;
 
     public Weapon(String info, String name, String id, int attack, int lifeSpan,
             String effect, String type){
@@ -38,6 +43,18 @@ public abstract class Weapon extends Item {
 
     public void setEffect(String effect) {
         this.effect = effect;
+        this.compiledEffect = Effect.parse(effect);
+    }
+
+    /**
+     * El texto de efecto ya compilado. Quien lleve el arma debe llamar a
+     * invalidateStats si se cambia el efecto.
+     */
+    public Effect getCompiledEffect() {
+        if (compiledEffect == null) {
+            compiledEffect = Effect.parse(effect);
+        }
+        return compiledEffect;
     }
 
     public String getType() {
@@ -0,0 +1,231 @@
+package Logic;
+
+import Characters.Hero;
+import Characters.Monster;
+import Items.Item;
+import Items.Wares;
+
+/**
+ * Resuelve un combate de una vez con una política fija, sin animaciones:
+ * el héroe ataca siempre, y si su vida baja de healThreshold de la máxima
+ * usa (y gasta) el primer Wares de su inventario con Game.heal. Solo queda
+ * el resumen. Los monstruos y los jefes deciden con las mismas IA que el
+ * combate animado si se le pasan con setMonsterAI y setBossAI.
+ */
+public class AutoBattle {
+
+    /**
+     * Resultado de un combate automático.
+     */
+    public static class Summary {
+
+        private Encounter.Outcome outcome;
+        private int turns;
+        private int damageDealt;
+        private int damageTaken;
+        private int monstersDefeated;
+        private int heals;
+        private int lifeStolen;
+        private int lifeBefore;
+        private int lifeAfter;
+        private int maxLife;
+
+        public Encounter.Outcome getOutcome() {
+            return outcome;
+        }
+
+        public int getTurns() {
+            return turns;
+        }
+
+        /**
+         * Daño hecho a los monstruos, con golpes y con estados.
+         */
+        public int getDamageDealt() {
+            return damageDealt;
+        }
+
+        /**
+         * Daño recibido por el héroe, con golpes y con estados.
+         */
+        public int getDamageTaken() {
+            return damageTaken;
+        }
+
+        public int getMonstersDefeated() {
+            return monstersDefeated;
+        }
+
+        public int getHeals() {
+            return heals;
+        }
+
+        /**
+         * Vida que recuperó el héroe robándola con su arma.
+         */
+        public int getLifeStolen() {
+            return lifeStolen;
+        }
+
+        public int getLifeBefore() {
+            return lifeBefore;
+        }
+
+        public int getLifeAfter() {
+            return lifeAfter;
+        }
+
+        @Override
+        public String toString() {
+            String result;
+            switch (outcome) {
+                case VICTORY:
+                    result = "Victoria";
+                    break;
+                case DEFEAT:
+                    result = "Derrota";
+                    break;
+                default:
+                    result = "Huida";
+                    break;
+            }
+            return result + " en " + turns + " turnos: " + monstersDefeated + " monstruos derrotados, "
+                    + damageDealt + " de daño hecho, " + damageTaken + " recibido, " + heals + " curas, "
+                    + lifeStolen + " de vida robada. Vida: "
+                    + lifeBefore + " -> " + lifeAfter + " / " + maxLife;
+        }
+    }
+
+    // Suma lo que pasa en cada turno para el resumen
+    private static class Tally implements CombatListener {
+
+        private final Summary summary;
+
+        Tally(Summary summary) {
+            this.summary = summary;
+        }
+
+        @Override
+        public void heroAttacked(Monster target, int damage) {
+            summary.damageDealt = summary.damageDealt + Math.max(0, damage);
+        }
+
+        @Override
+        public void monsterAttacked(Monster monster, int damage) {
+            summary.damageTaken = summary.damageTaken + Math.max(0, damage);
+        }
+
+        @Override
+        public void monsterDefeated(Monster monster, int index) {
+            summary.monstersDefeated = summary.monstersDefeated + 1;
+        }
+
+        @Override
+        public void statusDamaged(Monster target, int damage) {
+            if (target == null) {
+                summary.damageTaken = summary.damageTaken + damage;
+            } else {
+                summary.damageDealt = summary.damageDealt + damage;
+            }
+        }
+
+        @Override
+        public void lifeStolen(Monster monster, int amount) {
+            if (monster == null) {
+                summary.lifeStolen = summary.lifeStolen + amount;
+            }
+        }
+    }
+
+    private final Game game;
+    private double healThreshold = 0.3;
+    private int maxTurns = 200;
+    private BossAI bossAI;
+    private MonsterAI monsterAI;
+
+    public AutoBattle(Game game) {
+        this.game = game;
+    }
+
+    /**
+     * Fracción de la vida máxima (0 a 1) por debajo de la cual el héroe se
+     * cura en lugar de atacar. 0 hace que ataque siempre.
+     */
+    public void setHealThreshold(double healThreshold) {
+        if (healThreshold < 0 || healThreshold > 1) {
+            throw new IllegalArgumentException("Debe estar entre 0 y 1");
+        }
+        this.healThreshold = healThreshold;
+    }
+
+    /**
+     * Turnos tras los que el héroe huye si el combate no ha terminado.
+     */
+    public void setMaxTurns(int maxTurns) {
+        if (maxTurns < 1) {
+            throw new IllegalArgumentException("Debe ser mayor que 0");
+        }
+        this.maxTurns = maxTurns;
+    }
+
+    /**
+     * IA de los jefes, como CombatEngine.setBossAI; null para que solo
+     * ataquen.
+     */
+    public void setBossAI(BossAI bossAI) {
+        this.bossAI = bossAI;
+    }
+
+    /**
+     * IA de los demás monstruos, como CombatEngine.setMonsterAI; null para
+     * que solo ataquen.
+     */
+    public void setMonsterAI(MonsterAI monsterAI) {
+        this.monsterAI = monsterAI;
+    }
+
+    /**
+     * Juega el combate hasta el final. El héroe del combate debe ser el del
+     * juego, que es al que cura Game.heal.
+     */
+    public Summary fight(Encounter encounter) {
+        Hero hero = encounter.getHero();
+        Summary summary = new Summary();
+        summary.lifeBefore = hero.getActualLife();
+        summary.maxLife = hero.getLife();
+        CombatEngine engine = new CombatEngine(new Tally(summary));
+        engine.setBossAI(bossAI);
+        engine.setMonsterAI(monsterAI);
+
+        while (!encounter.isOver() && encounter.getTurn() < maxTurns) {
+            CombatEngine.Action action = CombatEngine.Action.BATTLE;
+            if (hero.getActualLife() < healThreshold * hero.getLife()) {
+                Wares w = firstWares(hero);
+                if (w != null && game.heal(w)) {
+                    game.removeHeroItem(w);
+                    summary.heals = summary.heals + 1;
+                    action = CombatEngine.Action.ITEM;
+                }
+            }
+            engine.turn(encounter, action);
+        }
+        if (!encounter.isOver()) {
+            engine.turn(encounter, CombatEngine.Action.ESCAPE);
+        }
+
+        summary.outcome = encounter.getOutcome();
+        summary.turns = encounter.getTurn();
+        summary.lifeAfter = hero.getActualLife();
+        return summary;
+    }
+
+    private static Wares firstWares(Hero hero) {
+        Wares found = null;
+        for (Item i : hero.getItems()) {
+            if (found == null && i instanceof Wares) {
+                found = (Wares) i;
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,196 @@
+package Logic;
+
+/**
+ * Resultados agregados de una simulación de combates: victorias, turnos
+ * hasta ganar, daño por golpe de cada bando y vida restante del héroe. Todo
+ * se guarda en histogramas de enteros, así que dos informes parciales se
+ * combinan sumándolos y los percentiles salen exactos.
+ */
+public class BalanceReport {
+
+    // El daño por golpe se acumula hasta este valor; por encima cae en el último cubo
+    static final int DAMAGE_BUCKETS = 256;
+
+    private long fights;
+    private long victories;
+    private long defeats;
+    private long stalemates;
+    private final long[] turnsToWin;
+    private final long[] heroHits = new long[DAMAGE_BUCKETS];
+    private final long[] monsterHits = new long[DAMAGE_BUCKETS];
+    private final long[] hpLeftPercent = new long[101];
+    private long heroDamageTotal;
+    private long monsterDamageTotal;
+
+    public BalanceReport(int maxTurns) {
+        turnsToWin = new long[maxTurns + 1];
+    }
+
+    void record(Encounter.Outcome outcome, int turns, int heroLife, int heroMaxLife) {
+        fights = fights + 1;
+        switch (outcome) {
+            case VICTORY:
+                victories = victories + 1;
+                turnsToWin[Math.min(turns, turnsToWin.length - 1)]++;
+                hpLeftPercent[(int) Math.max(0, Math.min(100, (long) heroLife * 100 / heroMaxLife))]++;
+                break;
+            case DEFEAT:
+                defeats = defeats + 1;
+                break;
+            default:
+                stalemates = stalemates + 1;
+                break;
+        }
+    }
+
+    void heroHit(int damage) {
+        int d = Math.max(0, damage);
+        heroDamageTotal = heroDamageTotal + d;
+        heroHits[Math.min(d, DAMAGE_BUCKETS - 1)]++;
+    }
+
+    void monsterHit(int damage) {
+        int d = Math.max(0, damage);
+        monsterDamageTotal = monsterDamageTotal + d;
+        monsterHits[Math.min(d, DAMAGE_BUCKETS - 1)]++;
+    }
+
+    /**
+     * Suma other a este informe. Ambos deben tener el mismo límite de turnos.
+     */
+    void merge(BalanceReport other) {
+        fights = fights + other.fights;
+        victories = victories + other.victories;
+        defeats = defeats + other.defeats;
+        stalemates = stalemates + other.stalemates;
+        heroDamageTotal = heroDamageTotal + other.heroDamageTotal;
+        monsterDamageTotal = monsterDamageTotal + other.monsterDamageTotal;
+        add(turnsToWin, other.turnsToWin);
+        add(heroHits, other.heroHits);
+        add(monsterHits, other.monsterHits);
+        add(hpLeftPercent, other.hpLeftPercent);
+    }
+
+    private static void add(long[] into, long[] from) {
+        int i = 0;
+        while (i < into.length) {
+            into[i] = into[i] + from[i];
+            i = i + 1;
+        }
+    }
+
+    public long getFights() {
+        return fights;
+    }
+
+    public long getVictories() {
+        return victories;
+    }
+
+    public long getDefeats() {
+        return defeats;
+    }
+
+    /**
+     * Combates que llegaron al límite de turnos sin terminar.
+     */
+    public long getStalemates() {
+        return stalemates;
+    }
+
+    public double getWinRate() {
+        return fights == 0 ? 0.0 : (double) victories / fights;
+    }
+
+    public double getMeanTurnsToWin() {
+        return mean(turnsToWin);
+    }
+
+    public int getTurnsToWinPercentile(double p) {
+        return percentile(turnsToWin, p);
+    }
+
+    public double getMeanHeroDamage() {
+        long hits = count(heroHits);
+        return hits == 0 ? 0.0 : (double) heroDamageTotal / hits;
+    }
+
+    public int getHeroDamagePercentile(double p) {
+        return percentile(heroHits, p);
+    }
+
+    public double getMeanMonsterDamage() {
+        long hits = count(monsterHits);
+        return hits == 0 ? 0.0 : (double) monsterDamageTotal / hits;
+    }
+
+    public int getMonsterDamagePercentile(double p) {
+        return percentile(monsterHits, p);
+    }
+
+    /**
+     * Percentil de la vida restante del héroe, en % de su vida máxima, entre
+     * los combates ganados.
+     */
+    public int getHpLeftPercentile(double p) {
+        return percentile(hpLeftPercent, p);
+    }
+
+    private static long count(long[] histogram) {
+        long total = 0;
+        for (long c : histogram) {
+            total = total + c;
+        }
+        return total;
+    }
+
+    private static double mean(long[] histogram) {
+        long total = 0;
+        long sum = 0;
+        int i = 0;
+        while (i < histogram.length) {
+            total = total + histogram[i];
+            sum = sum + histogram[i] * i;
+            i = i + 1;
+        }
+        return total == 0 ? 0.0 : (double) sum / total;
+    }
+
+    // Menor valor cuyo acumulado alcanza la fracción p (0..1) del total; -1 si está vacío
+    private static int percentile(long[] histogram, double p) {
+        long total = count(histogram);
+        int value = -1;
+        if (total > 0) {
+            long needed = Math.max(1, (long) Math.ceil(p * total));
+            long seen = 0;
+            int i = 0;
+            while (i < histogram.length && value < 0) {
+                seen = seen + histogram[i];
+                if (seen >= needed) {
+                    value = i;
+                }
+                i = i + 1;
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Combates:            %d%n", fights));
+        sb.append(String.format("Victorias:           %d (%.2f%%)%n", victories, getWinRate() * 100));
+        sb.append(String.format("Derrotas:            %d%n", defeats));
+        sb.append(String.format("Sin resolver:        %d%n", stalemates));
+        sb.append(String.format("Turnos hasta ganar:  media %.2f  p50 %d  p90 %d  p99 %d%n", getMeanTurnsToWin(),
+                getTurnsToWinPercentile(0.5), getTurnsToWinPercentile(0.9), getTurnsToWinPercentile(0.99)));
+        sb.append(String.format("Daño del héroe:      media %.2f  p10 %d  p50 %d  p90 %d%n", getMeanHeroDamage(),
+                getHeroDamagePercentile(0.1), getHeroDamagePercentile(0.5), getHeroDamagePercentile(0.9)));
+        sb.append(String.format("Daño de monstruos:   media %.2f  p10 %d  p50 %d  p90 %d%n", getMeanMonsterDamage(),
+                getMonsterDamagePercentile(0.1), getMonsterDamagePercentile(0.5),
+                getMonsterDamagePercentile(0.9)));
+        sb.append(String.format("Vida restante (%%):   p10 %d  p50 %d  p90 %d%n", getHpLeftPercentile(0.1),
+                getHpLeftPercentile(0.5), getHpLeftPercentile(0.9)));
+        return sb.toString();
+    }
+}
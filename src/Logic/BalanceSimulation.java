@@ -0,0 +1,293 @@
+package Logic;
+
+import Characters.Hero;
+import Characters.Monster;
+import Items.Armor;
+import Items.Item;
+import Items.Weapon;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Simulación Monte Carlo de combates para ajustar el equilibrio. Cada
+ * combate toma al azar las estadísticas del héroe y de 1 a 3 monstruos dentro
+ * de los rangos configurados, y el arma y la armadura del héroe del catálogo
+ * de items, y se resuelve con CombatEngine sin interfaz.
+ *
+ * Los combates se reparten en bloques fijos de LEAF entre los hilos de un
+ * ForkJoinPool. Cada bloque tiene su propio generador derivado de la semilla
+ * y de su posición, así que con la misma semilla el resultado es el mismo
+ * sea cual sea el número de hilos.
+ */
+public class BalanceSimulation {
+
+    private static final int LEAF = 16 * 1024;
+
+    /**
+     * Rango cerrado [min, max] de una estadística.
+     */
+    public static class Range {
+
+        private final int min;
+        private final int max;
+
+        public Range(int min, int max) {
+            if (min > max) {
+                throw new IllegalArgumentException("Rango vacío: " + min + ":" + max);
+            }
+            this.min = min;
+            this.max = max;
+        }
+
+        /**
+         * Lee "min:max" o un solo valor.
+         */
+        public static Range parse(String text) {
+            int colon = text.indexOf(':');
+            Range r;
+            if (colon < 0) {
+                int v = Integer.parseInt(text.trim());
+                r = new Range(v, v);
+            } else {
+                r = new Range(Integer.parseInt(text.substring(0, colon).trim()),
+                        Integer.parseInt(text.substring(colon + 1).trim()));
+            }
+            return r;
+        }
+
+        public int getMin() {
+            return min;
+        }
+
+        public int getMax() {
+            return max;
+        }
+
+        int sample(SplittableRandom rnd) {
+            return min == max ? min : rnd.nextInt(min, max + 1);
+        }
+
+        @Override
+        public String toString() {
+            return min + ":" + max;
+        }
+    }
+
+    private final List<Weapon> weapons = new ArrayList<>();
+    private final List<Armor> armors = new ArrayList<>();
+
+    // Valores por defecto: los del Hero recién creado y los de CombatScreen.createDebugMonster
+    private Range heroAttack = new Range(5, 5);
+    private Range heroDefense = new Range(4, 4);
+    private Range heroLife = new Range(100, 100);
+    private Range heroVelocidad = new Range(10, 10);
+    private Range monsterAttack = new Range(4, 4);
+    private Range monsterDefense = new Range(1, 1);
+    private Range monsterLife = new Range(12, 12);
+    private Range monsterVelocidad = new Range(6, 6);
+    private Range monsterCount = new Range(1, 3);
+    private boolean monstersUseCatalog = false;
+    private int maxTurns = 200;
+
+    /**
+     * catalog es el catálogo de items del juego (Game.itemCatalog()); de él
+     * se toman las armas y armaduras.
+     */
+    public BalanceSimulation(List<Item> catalog) {
+        for (Item i : catalog) {
+            if (i instanceof Weapon) {
+                weapons.add((Weapon) i);
+            } else if (i instanceof Armor) {
+                armors.add((Armor) i);
+            }
+        }
+        if (weapons.isEmpty() || armors.isEmpty()) {
+            throw new IllegalArgumentException("El catálogo necesita al menos un arma y una armadura");
+        }
+    }
+
+    public void setHeroAttack(Range heroAttack) {
+        this.heroAttack = atLeastOne(heroAttack, "ataque del héroe");
+    }
+
+    public void setHeroDefense(Range heroDefense) {
+        this.heroDefense = atLeastOne(heroDefense, "defensa del héroe");
+    }
+
+    public void setHeroLife(Range heroLife) {
+        this.heroLife = atLeastOne(heroLife, "vida del héroe");
+    }
+
+    public void setHeroVelocidad(Range heroVelocidad) {
+        this.heroVelocidad = atLeastOne(heroVelocidad, "velocidad del héroe");
+    }
+
+    public void setMonsterAttack(Range monsterAttack) {
+        this.monsterAttack = monsterAttack;
+    }
+
+    public void setMonsterDefense(Range monsterDefense) {
+        this.monsterDefense = monsterDefense;
+    }
+
+    public void setMonsterLife(Range monsterLife) {
+        this.monsterLife = atLeastOne(monsterLife, "vida de los monstruos");
+    }
+
+    public void setMonsterVelocidad(Range monsterVelocidad) {
+        this.monsterVelocidad = atLeastOne(monsterVelocidad, "velocidad de los monstruos");
+    }
+
+    public void setMonsterCount(Range monsterCount) {
+        this.monsterCount = atLeastOne(monsterCount, "número de monstruos");
+    }
+
+    /**
+     * Si es true los monstruos también llevan un arma al azar del catálogo;
+     * si no, la primera (los puños), como createDebugMonster.
+     */
+    public void setMonstersUseCatalog(boolean monstersUseCatalog) {
+        this.monstersUseCatalog = monstersUseCatalog;
+    }
+
+    public void setMaxTurns(int maxTurns) {
+        if (maxTurns < 1) {
+            throw new IllegalArgumentException("Debe ser mayor que 0");
+        }
+        this.maxTurns = maxTurns;
+    }
+
+    private static Range atLeastOne(Range r, String what) {
+        if (r.getMin() < 1) {
+            throw new IllegalArgumentException("El mínimo de " + what + " debe ser mayor que 0");
+        }
+        return r;
+    }
+
+    @Override
+    public String toString() {
+        return "héroe ataque " + heroAttack + " defensa " + heroDefense + " vida " + heroLife
+                + " velocidad " + heroVelocidad
+                + "; monstruos " + monsterCount + " ataque " + monsterAttack + " defensa " + monsterDefense
+                + " vida " + monsterLife + " velocidad " + monsterVelocidad + (monstersUseCatalog ? " con armas del catálogo" : "")
+                + "; " + weapons.size() + " armas, " + armors.size() + " armaduras; máx. " + maxTurns + " turnos";
+    }
+
+    /**
+     * Simula fights combates con la semilla dada en un pool de threads hilos.
+     */
+    public BalanceReport run(long fights, long seed, int threads) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        BalanceReport report;
+        try {
+            report = pool.invoke(new Sweep(0, fights, seed));
+        } finally {
+            pool.shutdown();
+        }
+        return report;
+    }
+
+    private class Sweep extends RecursiveTask<BalanceReport> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long from;
+        private final long to;
+        private final long seed;
+
+        Sweep(long from, long to, long seed) {
+            this.from = from;
+            this.to = to;
+            this.seed = seed;
+        }
+
+        @Override
+        protected BalanceReport compute() {
+            BalanceReport report;
+            if (to - from <= LEAF) {
+                report = simulate(from, to, seed);
+            } else {
+                // Se corta en un múltiplo de LEAF para que los bloques no dependan del reparto
+                long mid = from + Math.max(1, (to - from) / LEAF / 2) * LEAF;
+                Sweep left = new Sweep(from, mid, seed);
+                Sweep right = new Sweep(mid, to, seed);
+                left.fork();
+                report = right.compute();
+                report.merge(left.join());
+            }
+            return report;
+        }
+    }
+
+    // Cuenta el daño de cada golpe sin crear objetos
+    private static class HitCounter implements CombatListener {
+
+        private final BalanceReport report;
+
+        HitCounter(BalanceReport report) {
+            this.report = report;
+        }
+
+        @Override
+        public void heroAttacked(Monster target, int damage) {
+            report.heroHit(damage);
+        }
+
+        @Override
+        public void monsterAttacked(Monster monster, int damage) {
+            report.monsterHit(damage);
+        }
+    }
+
+    private BalanceReport simulate(long from, long to, long seed) {
+        BalanceReport report = new BalanceReport(maxTurns);
+        SplittableRandom rnd = new SplittableRandom(GameRandom.mix(seed, from / LEAF + 1));
+        CombatEngine engine = new CombatEngine(new HitCounter(report));
+        Hero hero = new Hero("Simulación", weapons.get(0), armors.get(0));
+        Monster[] pool = new Monster[monsterCount.getMax()];
+        int k = 0;
+        while (k < pool.length) {
+            pool[k] = new Monster(weapons.get(0), 1, 0, 0, 1, 1, "Monstruo " + (k + 1), null, 1, 1);
+            k = k + 1;
+        }
+        List<Monster> fighters = new ArrayList<>(pool.length);
+
+        long i = from;
+        while (i < to) {
+            hero.setActualWeapon(weapons.get(rnd.nextInt(weapons.size())));
+            hero.setArmor(armors.get(rnd.nextInt(armors.size())));
+            hero.setAttack(heroAttack.sample(rnd));
+            hero.setDefense(heroDefense.sample(rnd));
+            hero.setVelocidad(heroVelocidad.sample(rnd));
+            int life = heroLife.sample(rnd);
+            hero.setLife(life);
+            hero.setActualLife(life);
+
+            fighters.clear();
+            int count = monsterCount.sample(rnd);
+            k = 0;
+            while (k < count) {
+                Monster m = pool[k];
+                m.setActualWeapon(monstersUseCatalog ? weapons.get(rnd.nextInt(weapons.size())) : weapons.get(0));
+                m.setAttack(monsterAttack.sample(rnd));
+                m.setDefense(monsterDefense.sample(rnd));
+                m.setVelocidad(monsterVelocidad.sample(rnd));
+                int mLife = monsterLife.sample(rnd);
+                m.setLife(mLife);
+                m.setActualLife(mLife);
+                fighters.add(m);
+                k = k + 1;
+            }
+
+            Encounter encounter = new Encounter(hero, fighters);
+            Encounter.Outcome outcome = engine.resolve(encounter, maxTurns);
+            report.record(outcome, encounter.getTurn(), hero.getActualLife(), hero.getLife());
+            i = i + 1;
+        }
+        return report;
+    }
+}
@@ -0,0 +1,306 @@
+package Logic;
+
+import Characters.Hero;
+import Characters.Monster;
+
+/**
+ * Árbol de comportamiento de un tipo de monstruo: selectores, secuencias,
+ * condiciones sobre la vida, la velocidad y el nivel, y las acciones que
+ * puede elegir en su turno. Se describe con los métodos estáticos (Node) y
+ * se compila una vez a arreglos de enteros en preorden, así que evaluarlo
+ * no crea objetos.
+ *
+ * El árbol no guarda estado y lo comparten todos los monstruos del mismo
+ * tipo. Lo que necesita recordar cada monstruo (por ahora, la última vez
+ * que pasó un cooldown) va en un arreglo del combate que MonsterAI reparte
+ * por monstruo; getSlots dice cuántos enteros usa cada uno.
+ */
+public final class BehaviorTree {
+
+    public enum Action {
+        ATTACK, GUARD
+    }
+
+    /**
+     * Nodo de la descripción de un árbol, antes de compilarlo.
+     */
+    public static final class Node {
+
+        private final int op;
+        private final int arg;
+        private final Node[] children;
+
+        private Node(int op, int arg, Node... children) {
+            this.op = op;
+            this.arg = arg;
+            this.children = children;
+        }
+    }
+
+    private static final int SELECTOR = 0;
+    private static final int SEQUENCE = 1;
+    private static final int INVERT = 2;
+    private static final int COOLDOWN = 3;
+    private static final int HP_BELOW = 4;
+    private static final int HERO_HP_BELOW = 5;
+    private static final int FASTER = 6;
+    private static final int LEVEL_ABOVE = 7;
+    private static final int ACT = 8;
+
+    private static final Action[] ACTIONS = Action.values();
+
+    private static final int FAILURE = 0;
+    private static final int SUCCESS = 1;
+    private static final int OUT_OF_TICKS = -1;
+
+    /**
+     * Lo que la evaluación de un árbol lee y escribe. MonsterAI reutiliza
+     * uno solo para todos los monstruos.
+     */
+    static final class Context {
+
+        Monster monster;
+        Hero hero;
+        int[] memory;
+        int base;
+        int turn;
+        int ticks;
+        int action;
+    }
+
+    // Preorden: los hijos de i empiezan en i + 1 y el subárbol acaba en end[i]
+    private final int[] op;
+    private final int[] arg;
+    private final int[] end;
+    private final int[] slot;
+    private final int slots;
+
+    private BehaviorTree(int size, int slots) {
+        op = new int[size];
+        arg = new int[size];
+        end = new int[size];
+        slot = new int[size];
+        this.slots = slots;
+    }
+
+    /**
+     * Prueba los hijos en orden y tiene éxito con el primero que lo tenga.
+     */
+    public static Node selector(Node... children) {
+        return new Node(SELECTOR, 0, children);
+    }
+
+    /**
+     * Tiene éxito si todos los hijos lo tienen, probándolos en orden.
+     */
+    public static Node sequence(Node... children) {
+        return new Node(SEQUENCE, 0, children);
+    }
+
+    public static Node not(Node child) {
+        return new Node(INVERT, 0, child);
+    }
+
+    /**
+     * Evalúa child solo si han pasado al menos turns turnos del héroe desde
+     * la última vez que tuvo éxito para este monstruo.
+     */
+    public static Node cooldown(int turns, Node child) {
+        if (turns < 1) {
+            throw new IllegalArgumentException("Debe ser mayor que 0");
+        }
+        return new Node(COOLDOWN, turns, child);
+    }
+
+    /**
+     * Al monstruo le queda menos de percent por ciento de su vida.
+     */
+    public static Node hpBelow(int percent) {
+        return new Node(HP_BELOW, percent(percent));
+    }
+
+    /**
+     * Al héroe le queda menos de percent por ciento de su vida.
+     */
+    public static Node heroHpBelow(int percent) {
+        return new Node(HERO_HP_BELOW, percent(percent));
+    }
+
+    /**
+     * El monstruo es más rápido que el héroe.
+     */
+    public static Node faster() {
+        return new Node(FASTER, 0);
+    }
+
+    /**
+     * El nivel del monstruo supera al del héroe en levels o más (puede ser
+     * negativo).
+     */
+    public static Node levelAbove(int levels) {
+        return new Node(LEVEL_ABOVE, levels);
+    }
+
+    public static Node attack() {
+        return new Node(ACT, Action.ATTACK.ordinal());
+    }
+
+    /**
+     * Se defiende hasta su siguiente acción.
+     */
+    public static Node guard() {
+        return new Node(ACT, Action.GUARD.ordinal());
+    }
+
+    private static int percent(int percent) {
+        if (percent < 0 || percent > 100) {
+            throw new IllegalArgumentException("Debe estar entre 0 y 100");
+        }
+        return percent;
+    }
+
+    public static BehaviorTree compile(Node root) {
+        BehaviorTree tree = new BehaviorTree(count(root, -1), count(root, COOLDOWN));
+        tree.layout(root, 0, 0);
+        return tree;
+    }
+
+    // Nodos del subárbol, o solo los de código op si no es -1
+    private static int count(Node n, int op) {
+        int total = op < 0 || n.op == op ? 1 : 0;
+        for (Node c : n.children) {
+            total = total + count(c, op);
+        }
+        return total;
+    }
+
+    // Coloca n en la posición at y devuelve la siguiente posición libre.
+    // nextSlot es el primer entero de memoria aún sin asignar.
+    private int layout(Node n, int at, int nextSlot) {
+        op[at] = n.op;
+        arg[at] = n.arg;
+        int free = nextSlot;
+        if (n.op == COOLDOWN) {
+            slot[at] = free;
+            free = free + 1;
+        }
+        int next = at + 1;
+        for (Node c : n.children) {
+            int before = next;
+            next = layout(c, next, free);
+            free = free + slotsIn(before, next);
+        }
+        end[at] = next;
+        return next;
+    }
+
+    private int slotsIn(int from, int to) {
+        int total = 0;
+        int i = from;
+        while (i < to) {
+            if (op[i] == COOLDOWN) {
+                total = total + 1;
+            }
+            i = i + 1;
+        }
+        return total;
+    }
+
+    /**
+     * Enteros de memoria que necesita cada monstruo que use el árbol.
+     */
+    public int getSlots() {
+        return slots;
+    }
+
+    /**
+     * Número de nodos.
+     */
+    public int size() {
+        return op.length;
+    }
+
+    /**
+     * Evalúa el árbol para c.monster y devuelve la última acción elegida en
+     * la rama que tuvo éxito, o ATTACK si el árbol falla. Cada nodo visitado
+     * gasta un tick de c.ticks; si se acaban a medias devuelve null.
+     */
+    Action decide(Context c) {
+        c.action = Action.ATTACK.ordinal();
+        int result = run(0, c);
+        return result == SUCCESS ? ACTIONS[c.action] : (result == FAILURE ? Action.ATTACK : null);
+    }
+
+    private int run(int i, Context c) {
+        int result;
+        if (c.ticks <= 0) {
+            result = OUT_OF_TICKS;
+        } else {
+            c.ticks = c.ticks - 1;
+            int child = i + 1;
+            switch (op[i]) {
+                case SELECTOR:
+                    // Una rama que falla no deja elegida su acción
+                    int chosen = c.action;
+                    result = FAILURE;
+                    while (result == FAILURE && child < end[i]) {
+                        c.action = chosen;
+                        result = run(child, c);
+                        child = end[child];
+                    }
+                    if (result == FAILURE) {
+                        c.action = chosen;
+                    }
+                    break;
+                case SEQUENCE:
+                    result = SUCCESS;
+                    while (result == SUCCESS && child < end[i]) {
+                        result = run(child, c);
+                        child = end[child];
+                    }
+                    break;
+                case INVERT:
+                    result = run(child, c);
+                    if (result != OUT_OF_TICKS) {
+                        result = SUCCESS - result;
+                    }
+                    break;
+                case COOLDOWN:
+                    // Se guarda el turno más 1, para que 0 signifique "nunca"
+                    int at = c.base + slot[i];
+                    int last = c.memory[at];
+                    if (last != 0 && c.turn + 1 - last < arg[i]) {
+                        result = FAILURE;
+                    } else {
+                        result = run(child, c);
+                        if (result == SUCCESS) {
+                            c.memory[at] = c.turn + 1;
+                        }
+                    }
+                    break;
+                case HP_BELOW:
+                    result = below(c.monster.getActualLife(), c.monster.getLife(), arg[i]);
+                    break;
+                case HERO_HP_BELOW:
+                    result = below(c.hero.getActualLife(), c.hero.getLife(), arg[i]);
+                    break;
+                case FASTER:
+                    result = c.monster.getCombatStats().getVelocidad() > c.hero.getCombatStats().getVelocidad()
+                            ? SUCCESS : FAILURE;
+                    break;
+                case LEVEL_ABOVE:
+                    result = c.monster.getLevel() - c.hero.getLevel() >= arg[i] ? SUCCESS : FAILURE;
+                    break;
+                default:
+                    c.action = arg[i];
+                    result = SUCCESS;
+                    break;
+            }
+        }
+        return result;
+    }
+
+    private static int below(int actual, int max, int percent) {
+        return (long) actual * 100 < (long) percent * max ? SUCCESS : FAILURE;
+    }
+}
@@ -0,0 +1,556 @@
+package Logic;
+
+import Characters.Boss;
+import Characters.CombatStats;
+import Characters.Hero;
+import Characters.Monster;
+import Items.Item;
+import Items.Wares;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Decide qué hace cada Boss en su próximo turno: atacar, enfurecerse o
+ * curar a uno de los monstruos del combate. Prueba cada jugada con
+ * partidas simuladas hasta el final del combate (o unos turnos), sobre una
+ * copia del estado del combate, y elige la que más veces se probó con UCB1.
+ * En esas partidas el héroe ataca al primer monstruo en pie o, con poca
+ * vida, a veces se cura con sus Wares, y los jefes juegan con una política
+ * sencilla.
+ *
+ * plan copia el estado en el hilo que juega los turnos y lanza la búsqueda
+ * en un pool propio, con un límite de tiempo por decisión; no espera a que
+ * acabe. CombatEngine recoge la decisión con poll cuando le toca al jefe y,
+ * si aún no está lista, el jefe ataca. Así el hilo de la interfaz nunca se
+ * queda esperando.
+ */
+public class BossAI {
+
+    public enum Kind {
+        ATTACK, RAGE, HEAL
+    }
+
+    /**
+     * Jugada elegida para un jefe, con lo que dio en la búsqueda.
+     */
+    public static class Move {
+
+        private final Kind kind;
+        private final Monster target;
+        private final int rollouts;
+        private final double value;
+
+        Move(Kind kind, Monster target, int rollouts, double value) {
+            this.kind = kind;
+            this.target = target;
+            this.rollouts = rollouts;
+            this.value = value;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        /**
+         * Monstruo al que cura en HEAL; null en las demás.
+         */
+        public Monster getTarget() {
+            return target;
+        }
+
+        /**
+         * Partidas simuladas con esta jugada.
+         */
+        public int getRollouts() {
+            return rollouts;
+        }
+
+        /**
+         * Valor medio para los monstruos, de 0 (gana el héroe) a 1 (pierde).
+         */
+        public double getValue() {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return kind + (target != null ? " " + target.getName() : "") + " (" + rollouts + " partidas, "
+                    + Math.round(value * 1000) / 1000.0 + ")";
+        }
+    }
+
+    // Exploración de UCB1
+    private static final double EXPLORATION = 0.7;
+    // Con menos de esta fracción de vida el héroe simulado se cura la mitad de las veces
+    private static final double HERO_HEAL_THRESHOLD = 0.3;
+
+    private final GameRandom random;
+    private final int threads;
+    private final Map<Boss, CompletableFuture<Move>> decisions = new ConcurrentHashMap<>();
+    private ForkJoinPool pool;
+    private long budgetNanos = 5_000_000L;
+    private int horizon = 30;
+    private long plans = 0;
+
+    public BossAI(GameRandom random) {
+        this(random, Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    /**
+     * threads hilos de búsqueda; cada uno juega sus propias partidas y al
+     * final se suman.
+     */
+    public BossAI(GameRandom random, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Debe ser mayor que 0");
+        }
+        this.random = random;
+        this.threads = threads;
+    }
+
+    /**
+     * Tiempo máximo de búsqueda de cada decisión, en milisegundos.
+     */
+    public void setBudgetMillis(double millis) {
+        if (millis <= 0) {
+            throw new IllegalArgumentException("Debe ser mayor que 0");
+        }
+        this.budgetNanos = (long) (millis * 1_000_000L);
+    }
+
+    /**
+     * Turnos del héroe que se simulan como mucho en cada partida.
+     */
+    public void setHorizon(int horizon) {
+        if (horizon < 1) {
+            throw new IllegalArgumentException("Debe ser mayor que 0");
+        }
+        this.horizon = horizon;
+    }
+
+    /**
+     * Empieza a buscar la próxima jugada de cada jefe en pie, a partir del
+     * estado actual. Las decisiones anteriores que no se usaron se
+     * descartan. Debe llamarse desde el hilo que juega los turnos.
+     */
+    public void plan(Encounter encounter) {
+        decisions.clear();
+        if (!encounter.isOver()) {
+            for (Monster m : encounter.getMonsters()) {
+                if (m instanceof Boss && m.getActualLife() > 0) {
+                    Boss boss = (Boss) m;
+                    State root = State.of(encounter, boss);
+                    List<Move> moves = legalMoves(encounter, boss);
+                    SplittableRandom rnd = random.child("boss", plans);
+                    plans = plans + 1;
+                    decisions.put(boss, search(root, moves, rnd, System.nanoTime() + budgetNanos));
+                }
+            }
+        }
+    }
+
+    /**
+     * Decisión para boss si la búsqueda ya terminó, o null. No espera. La
+     * decisión se consume: un segundo poll da null hasta el próximo plan.
+     */
+    public Move poll(Boss boss) {
+        CompletableFuture<Move> future = decisions.remove(boss);
+        return future == null ? null : future.getNow(null);
+    }
+
+    /**
+     * Espera la decisión de boss, para usos sin interfaz como una
+     * simulación. Nunca tarda mucho más que el límite de tiempo.
+     */
+    public Move await(Boss boss) {
+        CompletableFuture<Move> future = decisions.remove(boss);
+        return future == null ? null : future.join();
+    }
+
+    /**
+     * Detiene el pool de búsqueda. Un plan posterior crea otro.
+     */
+    public synchronized void close() {
+        decisions.clear();
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    private synchronized ForkJoinPool pool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(threads);
+        }
+        return pool;
+    }
+
+    private static List<Move> legalMoves(Encounter encounter, Boss boss) {
+        List<Move> moves = new ArrayList<>();
+        moves.add(new Move(Kind.ATTACK, null, 0, 0));
+        if (boss.getRage() < Boss.MAX_RAGE) {
+            moves.add(new Move(Kind.RAGE, null, 0, 0));
+        }
+        if (boss.getPotions() > 0) {
+            for (Monster m : encounter.getMonsters()) {
+                if (m.getActualLife() > 0) {
+                    moves.add(new Move(Kind.HEAL, m, 0, 0));
+                }
+            }
+        }
+        return moves;
+    }
+
+    private CompletableFuture<Move> search(State root, List<Move> moves, SplittableRandom rnd, long deadline) {
+        List<CompletableFuture<double[]>> parts = new ArrayList<>(threads);
+        int w = 0;
+        while (w < threads) {
+            SplittableRandom own = rnd.split();
+            parts.add(CompletableFuture.supplyAsync(() -> rollouts(root, moves, own, deadline), pool()));
+            w = w + 1;
+        }
+        return CompletableFuture.allOf(parts.toArray(new CompletableFuture<?>[0]))
+                .thenApply(done -> best(moves, parts));
+    }
+
+    // Partidas hasta deadline eligiendo la jugada inicial con UCB1. Devuelve
+    // por jugada el número de partidas y la suma de valores, intercalados.
+    private double[] rollouts(State root, List<Move> moves, SplittableRandom rnd, long deadline) {
+        int k = moves.size();
+        int[] kinds = new int[k];
+        int[] targets = new int[k];
+        int i = 0;
+        while (i < k) {
+            kinds[i] = moves.get(i).kind.ordinal();
+            targets[i] = root.indexOf(moves.get(i).target);
+            i = i + 1;
+        }
+        double[] stats = new double[2 * k];
+        State s = root.copy();
+        int total = 0;
+        while (System.nanoTime() < deadline) {
+            int pick = choose(stats, k, total);
+            s.copyFrom(root);
+            double value = s.playout(kinds[pick], targets[pick], rnd, horizon);
+            stats[2 * pick] = stats[2 * pick] + 1;
+            stats[2 * pick + 1] = stats[2 * pick + 1] + value;
+            total = total + 1;
+        }
+        return stats;
+    }
+
+    private static int choose(double[] stats, int k, int total) {
+        int pick = -1;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        int i = 0;
+        while (i < k && (pick < 0 || stats[2 * pick] > 0)) {
+            double n = stats[2 * i];
+            double score = n == 0
+                    ? Double.POSITIVE_INFINITY
+                    : stats[2 * i + 1] / n + EXPLORATION * Math.sqrt(Math.log(total) / n);
+            if (score > bestScore) {
+                bestScore = score;
+                pick = i;
+            }
+            i = i + 1;
+        }
+        return pick;
+    }
+
+    // La más jugada entre todos los hilos; en empate, la de mejor valor
+    private static Move best(List<Move> moves, List<CompletableFuture<double[]>> parts) {
+        int k = moves.size();
+        double[] sum = new double[2 * k];
+        for (CompletableFuture<double[]> part : parts) {
+            double[] stats = part.join();
+            int i = 0;
+            while (i < 2 * k) {
+                sum[i] = sum[i] + stats[i];
+                i = i + 1;
+            }
+        }
+        int pick = 0;
+        int i = 1;
+        while (i < k) {
+            double n = sum[2 * i];
+            double bestN = sum[2 * pick];
+            if (n > bestN || (n == bestN && n > 0 && sum[2 * i + 1] / n > sum[2 * pick + 1] / bestN)) {
+                pick = i;
+            }
+            i = i + 1;
+        }
+        Move m = moves.get(pick);
+        int n = (int) sum[2 * pick];
+        return new Move(m.kind, m.target, n, n == 0 ? 0 : sum[2 * pick + 1] / n);
+    }
+
+    /**
+     * Copia del combate con lo justo para simularlo: vida, estadísticas
+     * efectivas e iniciativa de cada uno, por columnas como en Horde. Las
+     * reglas son las básicas de CombatEngine (ataques, curas y furia del
+     * jefe); las partidas no simulan la guardia de los demás monstruos ni
+     * los efectos de las armas (veneno, quemadura, aturdimiento y robo de
+     * vida), y las estadísticas efectivas son las del momento de la copia.
+     */
+    static final class State {
+
+        private static final int ATTACK = Kind.ATTACK.ordinal();
+        private static final int RAGE = Kind.RAGE.ordinal();
+        private static final int HEAL = Kind.HEAL.ordinal();
+
+        Monster[] monsters;
+        int heroHp;
+        int heroLife;
+        int heroAttack;
+        int heroDefense;
+        int heroVelocidad;
+        long heroReady;
+        int wares;
+        int waresHealing;
+        int[] hp;
+        int[] life;
+        int[] attack;
+        int[] defense;
+        int[] velocidad;
+        long[] ready;
+        int boss;
+        int potions;
+        int rage;
+        int rageStep;
+
+        static State of(Encounter encounter, Boss boss) {
+            State s = new State();
+            Hero hero = encounter.getHero();
+            TurnScheduler scheduler = encounter.getScheduler();
+            CombatStats hs = hero.getCombatStats();
+            s.heroHp = hero.getActualLife();
+            s.heroLife = hero.getLife();
+            s.heroAttack = hs.getAttack();
+            s.heroDefense = hs.getDefense();
+            s.heroVelocidad = hs.getVelocidad();
+            s.heroReady = scheduler.readyAt(null);
+            for (Item item : hero.getItems()) {
+                if (item instanceof Wares) {
+                    if (s.wares == 0) {
+                        s.waresHealing = ((Wares) item).getHealing();
+                    }
+                    s.wares = s.wares + 1;
+                }
+            }
+            List<Monster> list = encounter.getMonsters();
+            int n = list.size();
+            s.monsters = list.toArray(new Monster[n]);
+            s.hp = new int[n];
+            s.life = new int[n];
+            s.attack = new int[n];
+            s.defense = new int[n];
+            s.velocidad = new int[n];
+            s.ready = new long[n];
+            int i = 0;
+            while (i < n) {
+                Monster m = s.monsters[i];
+                CombatStats ms = m.getCombatStats();
+                s.hp[i] = m.getActualLife();
+                s.life[i] = m.getLife();
+                s.attack[i] = ms.getAttack();
+                s.defense[i] = ms.getDefense();
+                s.velocidad[i] = ms.getVelocidad();
+                s.ready[i] = scheduler.readyAt(m);
+                i = i + 1;
+            }
+            s.boss = s.indexOf(boss);
+            s.potions = boss.getPotions();
+            s.rage = boss.getRage();
+            s.rageStep = boss.getRageStep();
+            return s;
+        }
+
+        int indexOf(Monster m) {
+            int found = -1;
+            int i = 0;
+            while (i < monsters.length && found < 0) {
+                if (monsters[i] == m) {
+                    found = i;
+                }
+                i = i + 1;
+            }
+            return found;
+        }
+
+        State copy() {
+            State s = new State();
+            s.monsters = monsters;
+            s.hp = hp.clone();
+            s.life = life;
+            s.attack = attack.clone();
+            s.defense = defense;
+            s.velocidad = velocidad;
+            s.ready = ready.clone();
+            s.copyFrom(this);
+            return s;
+        }
+
+        // Las columnas que no cambian en una partida se comparten con el original
+        void copyFrom(State o) {
+            heroHp = o.heroHp;
+            heroLife = o.heroLife;
+            heroAttack = o.heroAttack;
+            heroDefense = o.heroDefense;
+            heroVelocidad = o.heroVelocidad;
+            heroReady = o.heroReady;
+            wares = o.wares;
+            waresHealing = o.waresHealing;
+            System.arraycopy(o.hp, 0, hp, 0, hp.length);
+            System.arraycopy(o.attack, 0, attack, 0, attack.length);
+            System.arraycopy(o.ready, 0, ready, 0, ready.length);
+            boss = o.boss;
+            potions = o.potions;
+            rage = o.rage;
+            rageStep = o.rageStep;
+        }
+
+        /**
+         * Juega hasta el final o hasta horizon turnos del héroe, con kind y
+         * target como jugada del jefe en su próximo turno. Devuelve el
+         * valor para los monstruos, de 0 a 1.
+         */
+        double playout(int kind, int target, SplittableRandom rnd, int horizon) {
+            boolean first = true;
+            int heroTurns = 0;
+            while (heroHp > 0 && anyAlive() && heroTurns < horizon) {
+                int actor = nextActor();
+                if (actor < 0) {
+                    heroReady = heroReady + TurnScheduler.GAUGE / heroVelocidad;
+                    heroAct(rnd);
+                    heroTurns = heroTurns + 1;
+                } else {
+                    ready[actor] = ready[actor] + TurnScheduler.GAUGE / velocidad[actor];
+                    if (actor == boss && first) {
+                        bossAct(kind, target);
+                        first = false;
+                    } else if (actor == boss) {
+                        bossPolicy(rnd);
+                    } else {
+                        monsterAttack(actor);
+                    }
+                }
+            }
+            return value();
+        }
+
+        // El siguiente en actuar como en TurnScheduler: -1 es el héroe, que gana los empates
+        private int nextActor() {
+            int actor = -1;
+            long at = heroReady;
+            int i = 0;
+            while (i < hp.length) {
+                if (hp[i] > 0 && ready[i] < at) {
+                    actor = i;
+                    at = ready[i];
+                }
+                i = i + 1;
+            }
+            return actor;
+        }
+
+        private boolean anyAlive() {
+            boolean alive = false;
+            int i = 0;
+            while (i < hp.length && !alive) {
+                alive = hp[i] > 0;
+                i = i + 1;
+            }
+            return alive;
+        }
+
+        private void heroAct(SplittableRandom rnd) {
+            if (wares > 0 && heroHp < HERO_HEAL_THRESHOLD * heroLife && rnd.nextBoolean()) {
+                heroHp = Math.min(heroLife, heroHp + waresHealing);
+                wares = wares - 1;
+            } else {
+                int t = 0;
+                while (hp[t] == 0) {
+                    t = t + 1;
+                }
+                int damage = heroAttack - defense[t];
+                if (damage > 0) {
+                    hp[t] = Math.max(0, hp[t] - damage);
+                }
+            }
+        }
+
+        private void monsterAttack(int i) {
+            int damage = attack[i] - heroDefense;
+            if (damage > 0) {
+                heroHp = Math.max(0, heroHp - damage);
+            }
+        }
+
+        private void bossAct(int kind, int target) {
+            if (kind == HEAL && potions > 0 && target >= 0 && hp[target] > 0) {
+                hp[target] = hp[target] + Math.min(Math.max(1, life[target] / 4), life[target] - hp[target]);
+                potions = potions - 1;
+            } else if (kind == RAGE && rage < Boss.MAX_RAGE) {
+                rage = rage + 1;
+                attack[boss] = attack[boss] + rageStep;
+            } else {
+                monsterAttack(boss);
+            }
+        }
+
+        // Política de los turnos siguientes del jefe: casi siempre ataca
+        private void bossPolicy(SplittableRandom rnd) {
+            int r = rnd.nextInt(10);
+            int kind = ATTACK;
+            int target = -1;
+            if (r < 2) {
+                kind = RAGE;
+            } else if (r < 4) {
+                kind = HEAL;
+                target = mostHurt();
+            }
+            bossAct(kind, target);
+        }
+
+        private int mostHurt() {
+            int found = -1;
+            int i = 0;
+            while (i < hp.length) {
+                if (hp[i] > 0 && hp[i] < life[i]
+                        && (found < 0 || (long) hp[i] * life[found] < (long) hp[found] * life[i])) {
+                    found = i;
+                }
+                i = i + 1;
+            }
+            return found;
+        }
+
+        // 1 si cae el héroe, 0 si caen todos los monstruos, y si no una mezcla
+        // de la vida que le falta al héroe y la que conservan los monstruos
+        private double value() {
+            double value;
+            if (heroHp == 0) {
+                value = 1;
+            } else if (!anyAlive()) {
+                value = 0;
+            } else {
+                long left = 0;
+                long total = 0;
+                int i = 0;
+                while (i < hp.length) {
+                    left = left + hp[i];
+                    total = total + life[i];
+                    i = i + 1;
+                }
+                value = 0.5 * (1 - (double) heroHp / heroLife) + 0.5 * left / Math.max(1, total);
+            }
+            return value;
+        }
+    }
+}
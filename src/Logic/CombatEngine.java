@@ -0,0 +1,331 @@
+package Logic;
+
+import Characters.Boss;
+import Characters.Hero;
+import Characters.Monster;
+import Items.Effect;
+
+import java.util.List;
+
+/**
+ * Reglas y flujo de turnos del combate, sin interfaz gráfica. El orden lo
+ * decide la velocidad de cada combatiente (TurnScheduler): cada turno el
+ * héroe realiza una acción y después actúan los monstruos que tienen la
+ * iniciativa antes de que el héroe vuelva a estar listo, que pueden ser
+ * varios, uno o ninguno. El combate termina en victoria cuando no queda
+ * ningún monstruo, en derrota cuando la vida del héroe llega a 0, o con una
+ * huida.
+ *
+ * Sin listener no se crea ningún objeto por turno, así que un combate
+ * completo se puede repetir millones de veces para ajustar el equilibrio.
+ *
+ * Un Boss ataca como los demás salvo que haya una BossAI: entonces hace la
+ * jugada que ella tenga lista, y al final de cada turno se le pide que
+ * planee la siguiente. Con una MonsterAI los demás monstruos eligen su
+ * acción con su árbol de comportamiento; sin ella siempre atacan.
+ *
+ * El efecto del arma (Items.Effect) se aplica con cada golpe que hace daño.
+ * El veneno y la quemadura hacen su daño al empezar cada turno del héroe, y
+ * quien está aturdido pierde sus siguientes acciones; todo ello vive en los
+ * StatusEffects del combate, que no existen hasta el primer efecto.
+ */
+public class CombatEngine {
+
+    public enum Action {
+        BATTLE, ITEM, DEFEND, ESCAPE
+    }
+
+    private final CombatListener listener;
+    private BossAI bossAI;
+    private MonsterAI monsterAI;
+
+    public CombatEngine() {
+        this(null);
+    }
+
+    public CombatEngine(CombatListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * IA de los jefes del combate, o null para que solo ataquen. Hay que
+     * llamar a su plan con el combate antes del primer turno.
+     */
+    public void setBossAI(BossAI bossAI) {
+        this.bossAI = bossAI;
+    }
+
+    /**
+     * IA de los monstruos que no son jefes, o null para que solo ataquen.
+     */
+    public void setMonsterAI(MonsterAI monsterAI) {
+        this.monsterAI = monsterAI;
+    }
+
+    /**
+     * Juega un turno con la acción del héroe, y los de los monstruos hasta
+     * que el héroe vuelva a estar listo. ITEM y DEFEND todavía no tienen
+     * efecto propio: solo ceden el turno a los monstruos. Devuelve el
+     * resultado del combate tras el turno.
+     */
+    public Encounter.Outcome turn(Encounter encounter, Action action) {
+        if (!encounter.isOver()) {
+            if (monsterAI != null) {
+                monsterAI.beginTurn();
+            }
+            // Solo hace algo en el primer turno, si algún monstruo es más rápido que el héroe
+            monstersUntilHero(encounter);
+            if (!encounter.isOver()) {
+                encounter.nextTurn();
+                encounter.getScheduler().next();
+                if (encounter.getStatusEffects() != null) {
+                    tickStatus(encounter);
+                }
+                if (!encounter.isOver() && !isStunned(encounter, 0, null)) {
+                    switch (action) {
+                        case ESCAPE:
+                            encounter.setOutcome(Encounter.Outcome.ESCAPED);
+                            break;
+                        case BATTLE:
+                            heroAttack(encounter);
+                            break;
+                        default:
+                            break;
+                    }
+                }
+                if (!encounter.isOver()) {
+                    monstersUntilHero(encounter);
+                }
+            }
+            if (encounter.isOver() && listener != null) {
+                listener.combatEnded(encounter);
+            }
+            if (!encounter.isOver() && bossAI != null) {
+                bossAI.plan(encounter);
+            }
+        }
+        return encounter.getOutcome();
+    }
+
+    /**
+     * Resuelve el combate atacando siempre, hasta que termine o se llegue a
+     * maxTurns. Devuelve ONGOING si ninguno de los dos bandos puede hacer
+     * daño al otro.
+     */
+    public Encounter.Outcome resolve(Encounter encounter, int maxTurns) {
+        while (!encounter.isOver() && encounter.getTurn() < maxTurns) {
+            turn(encounter, Action.BATTLE);
+        }
+        return encounter.getOutcome();
+    }
+
+    /**
+     * Posición del monstruo al que ataca el héroe, o -1 si no queda ninguno
+     * en pie. Ataca al primero vivo.
+     */
+    protected int selectTarget(Encounter encounter) {
+        List<Monster> monsters = encounter.getMonsters();
+        int target = -1;
+        int i = 0;
+        while (i < monsters.size() && target < 0) {
+            if (monsters.get(i).getActualLife() > 0) {
+                target = i;
+            }
+            i = i + 1;
+        }
+        return target;
+    }
+
+    private void heroAttack(Encounter encounter) {
+        int index = selectTarget(encounter);
+        if (index < 0) {
+            encounter.setOutcome(Encounter.Outcome.VICTORY);
+        } else {
+            Hero hero = encounter.getHero();
+            Monster target = encounter.getMonsters().get(index);
+            int damage = heroDamage(hero, target);
+            if (damage > 0) {
+                target.setActualLife(Math.max(0, target.getActualLife() - damage));
+            }
+            if (listener != null) {
+                listener.heroAttacked(target, damage);
+            }
+            Effect effect = hero.getCombatStats().getEffect();
+            if (damage > 0 && effect.isOnHit()) {
+                onHit(encounter, effect, null, target, damage);
+            }
+            if (target.getActualLife() == 0) {
+                defeat(encounter, index);
+            }
+            if (encounter.getMonsters().isEmpty()) {
+                encounter.setOutcome(Encounter.Outcome.VICTORY);
+            }
+        }
+    }
+
+    // Quita al monstruo de la posición index, ya sin vida
+    private void defeat(Encounter encounter, int index) {
+        Monster m = encounter.getMonsters().remove(index);
+        StatusEffects status = encounter.getStatusEffects();
+        if (status != null) {
+            status.defeated(status.indexOf(m));
+        }
+        if (listener != null) {
+            listener.monsterDefeated(m, index);
+        }
+    }
+
+    // Efecto del arma de source (null el héroe) tras hacer damage a victim (null el héroe)
+    private void onHit(Encounter encounter, Effect effect, Monster source, Monster victim, int damage) {
+        if (effect.getPoisonTurns() > 0 || effect.getBurnTurns() > 0 || effect.getStunActions() > 0) {
+            StatusEffects status = encounter.statusEffects();
+            status.apply(effect, status.indexOf(source), status.indexOf(victim), encounter.getTurn());
+        }
+        if (effect.getLifestealPercent() > 0) {
+            int life = source == null ? encounter.getHero().getLife() : source.getLife();
+            int actual = source == null ? encounter.getHero().getActualLife() : source.getActualLife();
+            int amount = Math.min(life - actual, damage * effect.getLifestealPercent() / 100);
+            if (amount > 0 && actual > 0) {
+                if (source == null) {
+                    encounter.getHero().setActualLife(actual + amount);
+                } else {
+                    source.setActualLife(actual + amount);
+                }
+                if (listener != null) {
+                    listener.lifeStolen(source, amount);
+                }
+            }
+        }
+    }
+
+    // Daño de los venenos y quemaduras al empezar el turno, primero a los monstruos
+    private void tickStatus(Encounter encounter) {
+        StatusEffects status = encounter.getStatusEffects();
+        if (status.getActive() > 0) {
+            List<Monster> monsters = encounter.getMonsters();
+            // Solo los que tienen daño por turno; hacia atrás, porque defeat
+            // pone el último de la lista en el sitio del derrotado
+            int i = status.getDamagedCount() - 1;
+            while (i >= 0) {
+                int order = status.getDamaged(i);
+                Monster m = status.getTarget(order);
+                if (order > 0 && m.getActualLife() > 0) {
+                    int amount = status.getRate(order);
+                    m.setActualLife(Math.max(0, m.getActualLife() - amount));
+                    if (listener != null) {
+                        listener.statusDamaged(m, amount);
+                    }
+                    if (m.getActualLife() == 0) {
+                        defeat(encounter, status.liveIndex(monsters, order));
+                    }
+                }
+                i = i - 1;
+            }
+            Hero hero = encounter.getHero();
+            int amount = status.getRate(0);
+            if (monsters.isEmpty()) {
+                encounter.setOutcome(Encounter.Outcome.VICTORY);
+            } else if (amount > 0) {
+                hero.setActualLife(Math.max(0, hero.getActualLife() - amount));
+                if (listener != null) {
+                    listener.statusDamaged(null, amount);
+                }
+                if (hero.getActualLife() == 0) {
+                    encounter.setOutcome(Encounter.Outcome.DEFEAT);
+                }
+            }
+        }
+        status.expire(encounter.getTurn());
+    }
+
+    // true si el combatiente con orden de entrada order (0 el héroe) pierde esta acción
+    private boolean isStunned(Encounter encounter, int order, Monster m) {
+        StatusEffects status = encounter.getStatusEffects();
+        boolean stunned = status != null && status.consumeStun(order);
+        if (stunned && listener != null) {
+            listener.stunned(m);
+        }
+        return stunned;
+    }
+
+    // Actúan por orden de iniciativa los monstruos que estén listos antes que el héroe
+    private void monstersUntilHero(Encounter encounter) {
+        TurnScheduler scheduler = encounter.getScheduler();
+        while (!encounter.isOver() && scheduler.peek() != null && !scheduler.isHeroNext()) {
+            TurnScheduler.Initiative next = scheduler.next();
+            Monster m = next.getMonster();
+            if (m.isGuarding()) {
+                m.setGuarding(false);
+            }
+            if (isStunned(encounter, next.getOrder(), m)) {
+                // Pierde la acción
+            } else if (bossAI != null && m instanceof Boss) {
+                bossTurn(encounter, (Boss) m, bossAI.poll((Boss) m));
+            } else if (monsterAI != null
+                    && monsterAI.decide(encounter, m, next.getOrder()) == BehaviorTree.Action.GUARD) {
+                m.setGuarding(true);
+                if (listener != null) {
+                    listener.monsterGuarded(m);
+                }
+            } else {
+                monsterAttack(encounter, m);
+            }
+        }
+    }
+
+    private void monsterAttack(Encounter encounter, Monster m) {
+        Hero hero = encounter.getHero();
+        int damage = monsterDamage(m, hero);
+        if (damage > 0) {
+            hero.setActualLife(Math.max(0, hero.getActualLife() - damage));
+        }
+        if (listener != null) {
+            listener.monsterAttacked(m, damage);
+        }
+        Effect effect = m.getCombatStats().getEffect();
+        if (damage > 0 && effect.isOnHit()) {
+            onHit(encounter, effect, m, null, damage);
+        }
+        if (hero.getActualLife() == 0) {
+            encounter.setOutcome(Encounter.Outcome.DEFEAT);
+        }
+    }
+
+    // Aplica la jugada de la IA si sigue siendo posible; si no hay o ya no vale, ataca
+    private void bossTurn(Encounter encounter, Boss boss, BossAI.Move move) {
+        BossAI.Kind kind = move == null ? BossAI.Kind.ATTACK : move.getKind();
+        Monster target = move == null ? null : move.getTarget();
+        if (kind == BossAI.Kind.HEAL && boss.getPotions() > 0
+                && encounter.getMonsters().contains(target) && target.getActualLife() > 0) {
+            int amount = Boss.healAmount(target);
+            target.setActualLife(target.getActualLife() + amount);
+            boss.setPotions(boss.getPotions() - 1);
+            if (listener != null) {
+                listener.monsterHealed(boss, target, amount);
+            }
+        } else if (kind == BossAI.Kind.RAGE && boss.getRage() < Boss.MAX_RAGE) {
+            boss.setRage(boss.getRage() + 1);
+            if (listener != null) {
+                listener.monsterEnraged(boss, boss.getRage());
+            }
+        } else {
+            monsterAttack(encounter, boss);
+        }
+    }
+
+    /**
+     * Daño del héroe a m: ataque del héroe y de su arma menos la defensa del
+     * monstruo. Puede ser 0 o negativo.
+     */
+    public static int heroDamage(Hero hero, Monster m) {
+        return hero.getCombatStats().getAttack() - m.getCombatStats().getDefense();
+    }
+
+    /**
+     * Daño de m al héroe: ataque del monstruo y de su arma menos la defensa
+     * del héroe y de su armadura. Puede ser 0 o negativo.
+     */
+    public static int monsterDamage(Monster m, Hero hero) {
+        return m.getCombatStats().getAttack() - hero.getCombatStats().getDefense();
+    }
+}
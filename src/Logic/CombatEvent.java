@@ -0,0 +1,103 @@
+package Logic;
+
+import Characters.Monster;
+
+/**
+ * Algo que ocurrió en el combate, tal como lo recibe la interfaz desde
+ * CombatEventBuffer. Los objetos se reutilizan: quien lo recibe en drain
+ * debe copiar lo que necesite y no guardarlo.
+ */
+public class CombatEvent {
+
+    public enum Type {
+        /**
+         * Un golpe que hizo daño. getValue es el daño y getRemaining la
+         * vida que le queda a quien lo recibió.
+         */
+        DAMAGE,
+        /**
+         * Un golpe que no hizo daño. getRemaining es la vida de quien lo
+         * recibió.
+         */
+        MISS,
+        /**
+         * getMonster quedó sin vida; getIndex es su posición en el combate.
+         */
+        DEATH,
+        /**
+         * La vida del héroe pasó a getValue.
+         */
+        HERO_HP_CHANGED,
+        /**
+         * getMonster se puso en guardia.
+         */
+        GUARD,
+        /**
+         * getMonster recuperó getValue de vida y tiene ahora getRemaining.
+         */
+        HEAL,
+        /**
+         * El jefe getMonster se enfureció; getValue es su nivel de furia.
+         */
+        RAGE,
+        /**
+         * Un veneno o una quemadura hizo getValue de daño. getMonster es
+         * quien lo recibió, o null si fue el héroe; getRemaining su vida.
+         */
+        STATUS,
+        /**
+         * getMonster estaba aturdido y perdió su acción; null si fue el
+         * héroe.
+         */
+        STUN,
+        VICTORY
+    }
+
+    private Type type;
+    private Monster monster;
+    private boolean byHero;
+    private int value;
+    private int remaining;
+    private int index;
+
+    void set(Type type, Monster monster, boolean byHero, int value, int remaining, int index) {
+        this.type = type;
+        this.monster = monster;
+        this.byHero = byHero;
+        this.value = value;
+        this.remaining = remaining;
+        this.index = index;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Monstruo que golpea o recibe el golpe, o que cae. null en
+     * HERO_HP_CHANGED y VICTORY, y en STATUS y STUN si es el héroe.
+     */
+    public Monster getMonster() {
+        return monster;
+    }
+
+    /**
+     * true si en DAMAGE o MISS el golpe fue del héroe al monstruo, false si
+     * fue del monstruo al héroe.
+     */
+    public boolean isByHero() {
+        return byHero;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    public int getRemaining() {
+        return remaining;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+}
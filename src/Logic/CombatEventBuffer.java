@@ -0,0 +1,109 @@
+package Logic;
+
+import Characters.Monster;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Cola circular acotada de CombatEvent entre un único productor (el motor
+ * de combate, vía CombatEventPublisher) y un único consumidor (la pantalla,
+ * que la vacía una vez por pulso). No usa locks: cada lado solo escribe su
+ * propio contador, y los eventos viven en huecos creados de antemano, así
+ * que publicar no crea objetos.
+ *
+ * Si la cola está llena, publish descarta el evento y lo cuenta en
+ * getDropped; con la capacidad por defecto un turno normal no se acerca.
+ */
+public class CombatEventBuffer {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final CombatEvent[] slots;
+    private final int mask;
+    // Siguiente hueco a leer (solo lo escribe el consumidor)
+    private final AtomicLong head = new AtomicLong();
+    // Siguiente hueco a escribir (solo lo escribe el productor)
+    private final AtomicLong tail = new AtomicLong();
+    // Copia de head que guarda el productor, para no leer el atómico en cada evento
+    private long headCache = 0;
+    private final AtomicLong dropped = new AtomicLong();
+
+    public CombatEventBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * capacity se redondea a la siguiente potencia de 2.
+     */
+    public CombatEventBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Debe ser mayor que 0");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size = size << 1;
+        }
+        slots = new CombatEvent[size];
+        int i = 0;
+        while (i < size) {
+            slots[i] = new CombatEvent();
+            i = i + 1;
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * Añade un evento. Solo debe llamarlo el hilo productor. Devuelve false
+     * si la cola estaba llena y el evento se descartó.
+     */
+    public boolean publish(CombatEvent.Type type, Monster monster, boolean byHero, int value, int remaining,
+            int index) {
+        long t = tail.get();
+        boolean room = t - headCache < slots.length;
+        if (!room) {
+            headCache = head.get();
+            room = t - headCache < slots.length;
+        }
+        if (room) {
+            slots[(int) t & mask].set(type, monster, byHero, value, remaining, index);
+            // La escritura del hueco queda visible antes que el nuevo tail
+            tail.lazySet(t + 1);
+        } else {
+            dropped.incrementAndGet();
+        }
+        return room;
+    }
+
+    /**
+     * Pasa a handler todos los eventos publicados hasta ahora, en orden, y
+     * devuelve cuántos fueron. Solo debe llamarlo el hilo consumidor.
+     */
+    public int drain(Consumer<CombatEvent> handler) {
+        long h = head.get();
+        long t = tail.get();
+        int count = (int) (t - h);
+        while (h < t) {
+            handler.accept(slots[(int) h & mask]);
+            h = h + 1;
+            // Se libera cada hueco tras usarlo para que el productor pueda seguir
+            head.lazySet(h);
+        }
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return head.get() == tail.get();
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * Eventos descartados porque la cola estaba llena.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+}
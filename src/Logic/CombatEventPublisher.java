@@ -0,0 +1,92 @@
+package Logic;
+
+import Characters.Boss;
+import Characters.Hero;
+import Characters.Monster;
+
+/**
+ * Listener de CombatEngine que convierte cada aviso en CombatEvent y lo
+ * publica en un CombatEventBuffer, en lugar de tocar la interfaz desde el
+ * motor. Debe usarse desde un solo hilo, el que juega los turnos.
+ */
+public class CombatEventPublisher implements CombatListener {
+
+    private final CombatEventBuffer buffer;
+    private final Hero hero;
+
+    public CombatEventPublisher(CombatEventBuffer buffer, Hero hero) {
+        this.buffer = buffer;
+        this.hero = hero;
+    }
+
+    @Override
+    public void heroAttacked(Monster target, int damage) {
+        CombatEvent.Type type = damage > 0 ? CombatEvent.Type.DAMAGE : CombatEvent.Type.MISS;
+        buffer.publish(type, target, true, Math.max(0, damage), target.getActualLife(), -1);
+    }
+
+    @Override
+    public void monsterAttacked(Monster monster, int damage) {
+        int life = hero.getActualLife();
+        if (damage > 0) {
+            buffer.publish(CombatEvent.Type.DAMAGE, monster, false, damage, life, -1);
+            buffer.publish(CombatEvent.Type.HERO_HP_CHANGED, null, false, life, life, -1);
+        } else {
+            buffer.publish(CombatEvent.Type.MISS, monster, false, 0, life, -1);
+        }
+    }
+
+    @Override
+    public void monsterDefeated(Monster monster, int index) {
+        buffer.publish(CombatEvent.Type.DEATH, monster, true, 0, 0, index);
+    }
+
+    @Override
+    public void monsterGuarded(Monster monster) {
+        buffer.publish(CombatEvent.Type.GUARD, monster, false, 0, monster.getActualLife(), -1);
+    }
+
+    @Override
+    public void monsterHealed(Boss boss, Monster target, int amount) {
+        buffer.publish(CombatEvent.Type.HEAL, target, false, amount, target.getActualLife(), -1);
+    }
+
+    @Override
+    public void monsterEnraged(Boss boss, int rage) {
+        buffer.publish(CombatEvent.Type.RAGE, boss, false, rage, boss.getActualLife(), -1);
+    }
+
+    @Override
+    public void statusDamaged(Monster target, int damage) {
+        if (target == null) {
+            int life = hero.getActualLife();
+            buffer.publish(CombatEvent.Type.STATUS, null, false, damage, life, -1);
+            buffer.publish(CombatEvent.Type.HERO_HP_CHANGED, null, false, life, life, -1);
+        } else {
+            buffer.publish(CombatEvent.Type.STATUS, target, true, damage, target.getActualLife(), -1);
+        }
+    }
+
+    @Override
+    public void stunned(Monster monster) {
+        buffer.publish(CombatEvent.Type.STUN, monster, monster == null, 0,
+                monster == null ? hero.getActualLife() : monster.getActualLife(), -1);
+    }
+
+    @Override
+    public void lifeStolen(Monster monster, int amount) {
+        if (monster == null) {
+            int life = hero.getActualLife();
+            buffer.publish(CombatEvent.Type.HERO_HP_CHANGED, null, false, life, life, -1);
+        } else {
+            buffer.publish(CombatEvent.Type.HEAL, monster, false, amount, monster.getActualLife(), -1);
+        }
+    }
+
+    @Override
+    public void combatEnded(Encounter encounter) {
+        if (encounter.getOutcome() == Encounter.Outcome.VICTORY) {
+            buffer.publish(CombatEvent.Type.VICTORY, null, true, 0, 0, -1);
+        }
+    }
+}
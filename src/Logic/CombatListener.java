@@ -0,0 +1,70 @@
+package Logic;
+
+import Characters.Boss;
+import Characters.Monster;
+
+/**
+ * Recibe lo que ocurre en cada turno de CombatEngine, por ejemplo para
+ * mostrar mensajes. Todos los métodos tienen una implementación vacía; una
+ * simulación sin interfaz no necesita ningún listener.
+ */
+public interface CombatListener {
+
+    /**
+     * El héroe atacó a target. damage es 0 o negativo si no le hizo daño.
+     */
+    default void heroAttacked(Monster target, int damage) {
+    }
+
+    /**
+     * monster atacó al héroe. damage es 0 o negativo si no le hizo daño.
+     */
+    default void monsterAttacked(Monster monster, int damage) {
+    }
+
+    /**
+     * monster quedó sin vida y se quitó de la posición index del combate.
+     */
+    default void monsterDefeated(Monster monster, int index) {
+    }
+
+    /**
+     * monster se puso en guardia hasta su siguiente acción.
+     */
+    default void monsterGuarded(Monster monster) {
+    }
+
+    /**
+     * El jefe boss curó amount de vida a target, que puede ser él mismo.
+     */
+    default void monsterHealed(Boss boss, Monster target, int amount) {
+    }
+
+    /**
+     * El jefe boss se enfureció y su furia subió a rage.
+     */
+    default void monsterEnraged(Boss boss, int rage) {
+    }
+
+    /**
+     * Un veneno o una quemadura hizo damage a target al empezar el turno;
+     * target es null si fue al héroe.
+     */
+    default void statusDamaged(Monster target, int damage) {
+    }
+
+    /**
+     * monster (null el héroe) estaba aturdido y perdió su acción.
+     */
+    default void stunned(Monster monster) {
+    }
+
+    /**
+     * El arma de monster (null el héroe) le curó amount de vida al golpear.
+     */
+    default void lifeStolen(Monster monster, int amount) {
+    }
+
+    default void combatEnded(Encounter encounter) {
+    }
+}
@@ -0,0 +1,131 @@
+package Logic;
+
+import Characters.Hero;
+import Characters.Monster;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Estado de un combate: el héroe, los monstruos que siguen en pie, el número
+ * de turno y el resultado. No depende de JavaFX; lo hace avanzar
+ * CombatEngine y la pantalla de combate solo lo dibuja.
+ */
+public class Encounter {
+
+    public enum Outcome {
+        ONGOING, VICTORY, DEFEAT, ESCAPED
+    }
+
+    private final Hero hero;
+    private final List<Monster> monsters;
+    private final TurnScheduler scheduler;
+    private final int size;
+    // Los monstruos en su orden de entrada, también los derrotados
+    private final Monster[] entered;
+    private int turn = 0;
+    private Outcome outcome = Outcome.ONGOING;
+    // Árbol de cada monstruo por orden de entrada y su memoria, behaviorStride enteros por monstruo
+    private BehaviorTree[] behaviorTrees;
+    private int[] behaviorMemory;
+    private int behaviorStride;
+    private StatusEffects statusEffects;
+
+    public Encounter(Hero hero, List<Monster> monsters) {
+        this.hero = hero;
+        this.monsters = new ArrayList<>(monsters);
+        this.size = monsters.size();
+        this.entered = monsters.toArray(new Monster[0]);
+        this.scheduler = new TurnScheduler(hero, this.monsters);
+    }
+
+    public Hero getHero() {
+        return hero;
+    }
+
+    /**
+     * Monstruos que siguen en combate, en el orden en que se muestran. Un
+     * monstruo derrotado se quita de la lista.
+     */
+    public List<Monster> getMonsters() {
+        return monsters;
+    }
+
+    TurnScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Monstruos con los que empezó el combate.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    Monster[] getEntered() {
+        return entered;
+    }
+
+    /**
+     * Estados activos del combate, o null si todavía no se aplicó ninguno.
+     */
+    StatusEffects getStatusEffects() {
+        return statusEffects;
+    }
+
+    StatusEffects statusEffects() {
+        if (statusEffects == null) {
+            statusEffects = new StatusEffects(this);
+        }
+        return statusEffects;
+    }
+
+    BehaviorTree[] getBehaviorTrees() {
+        return behaviorTrees;
+    }
+
+    int[] getBehaviorMemory() {
+        return behaviorMemory;
+    }
+
+    int getBehaviorStride() {
+        return behaviorStride;
+    }
+
+    void setBehaviorMemory(BehaviorTree[] trees, int[] memory, int stride) {
+        this.behaviorTrees = trees;
+        this.behaviorMemory = memory;
+        this.behaviorStride = stride;
+    }
+
+    /**
+     * Los próximos count turnos según la velocidad de cada uno, para
+     * mostrarlos en pantalla.
+     */
+    public List<TurnScheduler.Initiative> previewTurns(int count) {
+        return scheduler.preview(count);
+    }
+
+    /**
+     * Número de acciones del héroe en este combate.
+     */
+    public int getTurn() {
+        return turn;
+    }
+
+    void nextTurn() {
+        turn = turn + 1;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    void setOutcome(Outcome outcome) {
+        this.outcome = outcome;
+    }
+
+    public boolean isOver() {
+        return outcome != Outcome.ONGOING;
+    }
+}
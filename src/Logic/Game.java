@@ -8,16 +8,28 @@ import Utils.*;
 import cu.edu.cujae.ceis.tree.binary.BinaryTreeNode;
 
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.CRC32C;
 
 public class Game {
 
+    private static final SaveWorker SAVER = new SaveWorker();
+    // Tamaño del diario a partir del cual se escribe una partida completa y se compacta
+    private static final long JOURNAL_COMPACT_BYTES = 32 * 1024;
+
     private File save;
     private File archives;
     private Hero hero;
@@ -26,13 +38,47 @@ public class Game {
     private ArrayList<Item> items;
     private GeneralTree<Classes> classes;
     private LocalDateTime playedTime;
+    private final SaveCodec codec = new SaveCodec();
+    private SaveContainer container;
+    private SaveJournal journal;
+    private volatile boolean compacting = false;
+    private volatile boolean compressSaves = true;
+    private volatile SaveMetrics lastSaveMetrics;
+    private GameRandom random = GameRandom.withNewSeed();
+    private final MonsterRegistry monsterRegistry = new MonsterRegistry();
+    private LootTables lootTables;
 
     public Hero getHero() {
         return hero;
     }
 
+    /**
+     * Azar de la partida. Su semilla se guarda con el Hero, así que al
+     * cargar una partida los generadores vuelven a empezar igual.
+     */
+    public GameRandom getRandom() {
+        return random;
+    }
+
+    // Toma la semilla de la partida cargada, o le da una si es anterior a tenerla
+    private void adoptRandomSeed() {
+        if (hero.getRandomSeed() != 0) {
+            random = new GameRandom(hero.getRandomSeed());
+        } else {
+            random = GameRandom.withNewSeed();
+            hero.setRandomSeed(random.getSeed());
+        }
+    }
+
     public void createHero(String name) {
         hero = new Hero(name, (Weapon) items.get(0), (Armor) items.get(6));
+        random = GameRandom.withNewSeed();
+        hero.setRandomSeed(random.getSeed());
+        try {
+            journal.reset(0, 0);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
     }
 
     public LocalDateTime getPlayedTime() {
@@ -49,6 +95,53 @@ public class Game {
 
     public void setSave(File save) {
         this.save = save;
+        if (journal != null) {
+            journal.close();
+        }
+        this.journal = new SaveJournal(SaveJournal.fileFor(save));
+    }
+
+    public SaveJournal getJournal() {
+        return journal;
+    }
+
+    public boolean isCompressSaves() {
+        return compressSaves;
+    }
+
+    /**
+     * Activa o desactiva la compresión de las partidas. Las partidas ya
+     * escritas se siguen leyendo en cualquier caso: el codec va en la cabecera.
+     */
+    public void setCompressSaves(boolean compressSaves) {
+        this.compressSaves = compressSaves;
+    }
+
+    /**
+     * Tamaño sin comprimir, tamaño escrito y tiempo del último guardado
+     * completo, o null si todavía no se ha guardado.
+     */
+    public SaveMetrics getLastSaveMetrics() {
+        return lastSaveMetrics;
+    }
+
+    /**
+     * Tipos de monstruo y su reserva de instancias. Se llena en
+     * createItems, porque las plantillas usan las armas del catálogo.
+     */
+    public MonsterRegistry getMonsterRegistry() {
+        return monsterRegistry;
+    }
+
+    /**
+     * Tablas de botín de las plantillas y regiones. El archivo de datos no
+     * se lee hasta que se tira el primer botín.
+     */
+    public LootTables getLootTables() {
+        if (lootTables == null) {
+            lootTables = new LootTables(items, LootTables.DEFAULT_PATH);
+        }
+        return lootTables;
     }
 
     public ArrayList<NPC> getCharacters() {
@@ -81,6 +174,7 @@ public class Game {
 
     public void setArchives(File archives) {
         this.archives = archives;
+        this.container = new SaveContainer(archives);
     }
 
     public GeneralTree<Classes> getClasses() {
@@ -94,6 +188,8 @@ public class Game {
     public Game() {
         this.save = new File("C:\\Ale\\Codigos\\Filetest", "file0.sav");
         this.archives = new File("C:\\Ale\\Codigos\\Filetest", "file.sav");
+        this.container = new SaveContainer(archives);
+        this.journal = new SaveJournal(SaveJournal.fileFor(save));
 
         File parent = save.getParentFile();
         if (parent != null && !parent.exists()) {
@@ -108,16 +204,398 @@ public class Game {
 
     public boolean createSaveGame() {
         boolean created = false;
+        awaitPendingSave();
+        try {
+            lastSaveMetrics = writeSaveFile(save, codec, hero, playedTime, compressSaves,
+                    journal.getId(), journal.getSeq());
+            created = true;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return created;
+    }
 
-        File parent = save.getParentFile();
+    /**
+     * Guarda sin bloquear el hilo que llama. La copia del Hero se toma aquí;
+     * la codificación y la escritura ocurren en un hilo virtual. Si hay otra
+     * petición pendiente para el mismo archivo solo se escribe la más reciente.
+     */
+    public CompletableFuture<SaveResult> createSaveGameAsync() {
+        return SAVER.submit(save, hero.snapshot(), playedTime, compressSaves, journal.getId(), journal.getSeq())
+                .whenComplete((result, error) -> {
+                    if (result != null && result.isSaved()) {
+                        lastSaveMetrics = result.getMetrics();
+                    }
+                });
+    }
+
+    /**
+     * Espera a que terminen los guardados en segundo plano. Se llama antes de
+     * leer la partida o de salir del juego.
+     */
+    public void awaitPendingSave() {
+        SAVER.awaitIdle();
+    }
+
+    /**
+     * Escribe la partida completa. El cuerpo va directamente del codec al
+     * canal, comprimido por bloques si compress está activo y merece la pena;
+     * la cabecera se escribe al final en la posición 0, cuando ya se conocen
+     * la longitud y el checksum de lo escrito.
+     *
+     * Todo se escribe en un archivo temporal con un único fsync al final y
+     * luego se renombra sobre el original, que pasa a ser la generación
+     * anterior (.bak). Un cierre a mitad de escritura deja intacta la última
+     * partida buena.
+     */
+    static SaveMetrics writeSaveFile(File file, SaveCodec codec, Hero hero, LocalDateTime playedTime,
+            boolean compress, int journalId, int journalSeq) throws IOException {
+        long start = System.nanoTime();
+        File parent = file.getParentFile();
         if (parent != null && !parent.exists()) {
             parent.mkdirs();
         }
 
-        try (RandomAccessFile raf = new RandomAccessFile(save, "rw")) {
-            byte[] data = Convert.toBytes(hero);
-            raf.writeInt(data.length);
-            raf.write(data);
+        ByteBuffer raw = codec.encode(hero);
+        int rawBytes = raw.remaining();
+        int stored = 0;
+        short codecId = SaveSummary.CODEC_RAW;
+        CRC32C crc = new CRC32C();
+        File tmp = new File(file.getPath() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ch.position(SaveSummary.HEADER_SIZE);
+            if (compress && rawBytes >= SaveCodec.COMPRESS_MIN_BYTES) {
+                codecId = SaveSummary.CODEC_DEFLATE;
+                stored = codec.deflateTo(raw, ch, crc);
+            } else {
+                crc.update(raw.duplicate());
+                while (raw.hasRemaining()) {
+                    stored = stored + ch.write(raw);
+                }
+            }
+            ByteBuffer header = ByteBuffer.allocate(SaveSummary.HEADER_SIZE);
+            SaveSummary.of(hero, playedTime, codecId, stored, (int) crc.getValue(), journalId, journalSeq)
+                    .writeTo(header);
+            header.flip();
+            long at = 0;
+            while (header.hasRemaining()) {
+                at = at + ch.write(header, at);
+            }
+            // Un solo fsync para cuerpo y cabecera, antes del renombrado
+            ch.force(true);
+        }
+        commitGeneration(tmp, file);
+        return new SaveMetrics(rawBytes, stored, codecId, System.nanoTime() - start);
+    }
+
+    /**
+     * Sustituye file por tmp de forma atómica. La versión actual de file se
+     * conserva como .bak mediante un enlace duro, de modo que en ningún
+     * momento falta la partida principal; si el sistema de archivos no admite
+     * enlaces se mueve, y durante ese instante la carga usa el .bak.
+     */
+    private static void commitGeneration(File tmp, File file) throws IOException {
+        File bak = backupFile(file);
+        if (file.exists()) {
+            Files.deleteIfExists(bak.toPath());
+            try {
+                Files.createLink(bak.toPath(), file.toPath());
+            } catch (IOException | UnsupportedOperationException e) {
+                Files.move(file.toPath(), bak.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        File dir = file.getAbsoluteFile().getParentFile();
+        try (FileChannel d = FileChannel.open(dir.toPath(), StandardOpenOption.READ)) {
+            d.force(true);
+        } catch (IOException ignored) {
+            // En Windows no se puede abrir un directorio; NTFS ya registra el renombrado
+        }
+    }
+
+    private static File backupFile(File save) {
+        return new File(save.getPath() + ".bak");
+    }
+
+    /**
+     * Carga la partida. Si la generación más reciente no pasa la verificación
+     * (cabecera, longitud o CRC del cuerpo) se carga la anterior (.bak) y se
+     * vuelve a escribir como partida principal.
+     */
+    public boolean readSaveGame() {
+        boolean correct = false;
+        boolean rewrite = false;
+        awaitPendingSave();
+        File[] generations = {save, backupFile(save)};
+        IOException failure = null;
+        int i = 0;
+        while (!correct && i < generations.length) {
+            if (generations[i].exists()) {
+                try {
+                    rewrite = loadSaveFile(generations[i]) || i > 0;
+                    correct = true;
+                } catch (IOException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+            i = i + 1;
+        }
+        if (!correct) {
+            throw new RuntimeException(failure != null ? failure : new FileNotFoundException(save.getPath()));
+        }
+        if (i > 1 && save.exists()) {
+            // Se quita la principal dañada para que no pase a ser el próximo .bak
+            save.delete();
+        }
+        adoptRandomSeed();
+        if (rewrite) {
+            createSaveGame();
+        }
+        loadHeroSectionsInBackground();
+        return correct;
+    }
+
+    // Carga una generación concreta; devuelve true si hay que reescribirla en el formato actual
+    private boolean loadSaveFile(File file) throws IOException {
+        boolean rewrite;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            byte[] head = new byte[(int) Math.min(SaveSummary.HEADER_SIZE, raf.length())];
+            raf.readFully(head);
+            SaveSummary summary = SaveSummary.readFrom(ByteBuffer.wrap(head));
+            if (summary != null) {
+                if (summary.getPayloadLength() < 0
+                        || raf.length() < (long) SaveSummary.HEADER_SIZE + summary.getPayloadLength()) {
+                    throw new IOException("Partida incompleta en " + file.getName());
+                }
+                ByteBuffer data = codec.readBuffer(summary.getPayloadLength());
+                FileChannel ch = raf.getChannel();
+                long at = SaveSummary.HEADER_SIZE;
+                while (data.hasRemaining()) {
+                    int n = ch.read(data, at);
+                    if (n < 0) {
+                        throw new IOException("Partida incompleta en " + file.getName());
+                    }
+                    at = at + n;
+                }
+                data.flip();
+                decodeRecord(summary, data, file.getName());
+                journal.replay(hero, summary.getJournalId(), summary.getJournalSeq());
+                // Partida anterior al diario: se reescribe para que su cabecera lo referencie
+                rewrite = summary.getJournalId() == 0;
+            } else if (SaveSummary.hasMagic(ByteBuffer.wrap(head))) {
+                throw new IOException("Cabecera dañada en " + file.getName());
+            } else {
+                // Formato antiguo: longitud + Hero serializado con ObjectOutputStream
+                raf.seek(0);
+                int length = raf.readInt();
+                if (length < 0 || length > raf.length() - 4) {
+                    throw new IOException("Partida antigua incompleta en " + file.getName());
+                }
+                byte[] data = new byte[length];
+                raf.readFully(data);
+                try {
+                    hero = (Hero) Convert.toObject(data);
+                } catch (ClassNotFoundException e) {
+                    throw new IOException(e);
+                }
+                journal.reset(0, 0);
+                rewrite = true;
+            }
+        }
+        return rewrite;
+    }
+
+    /**
+     * true si hay una partida guardada, en cualquier formato o solo como
+     * generación anterior. No lee el archivo ni espera a los guardados en
+     * segundo plano, así que se puede llamar desde el hilo de la interfaz.
+     */
+    public boolean hasSaveGame() {
+        return save.exists() || backupFile(save).exists();
+    }
+
+    /**
+     * Lee solo la cabecera de la partida con una lectura posicionada de
+     * HEADER_SIZE bytes; si la principal no tiene una cabecera válida, la de
+     * la generación anterior. Devuelve null si no hay ninguna, también si la
+     * partida está en formato antiguo. No espera a los guardados pendientes
+     * (se escriben aparte y se renombran, así que la cabecera nunca está a
+     * medias) ni carga o migra nada: de eso se encarga readSaveGame.
+     */
+    public SaveSummary readSaveSummary() {
+        SaveSummary summary = readHeader(save);
+        if (summary == null) {
+            summary = readHeader(backupFile(save));
+        }
+        return summary;
+    }
+
+    private static SaveSummary readHeader(File file) {
+        SaveSummary summary = null;
+        if (file.exists()) {
+            try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                ByteBuffer head = ByteBuffer.allocate(SaveSummary.HEADER_SIZE);
+                ch.read(head, 0);
+                head.flip();
+                summary = SaveSummary.readFrom(head);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return summary;
+    }
+
+    public boolean deleteSaveGame() {
+        boolean correct = false;
+        awaitPendingSave();
+        journal.delete();
+        backupFile(save).delete();
+        new File(save.getPath() + ".tmp").delete();
+        if (save.exists()) {
+            correct = save.delete();
+        }
+        return correct;
+    }
+
+    // --- cambios pequeños que se anotan en el diario en vez de reescribir la partida ---
+    public void moveHero(Hero.Location location, double x, double y) {
+        hero.setLastLocation(location);
+        hero.setLastPosX(x);
+        hero.setLastPosY(y);
+        try {
+            if (journal.isOpen()) {
+                journal.appendPosition(hero.getLastLocation(), x, y);
+            }
+            afterJournalAppend();
+        } catch (IOException e) {
+            createSaveGameAsync();
+        }
+    }
+
+    public void logHeroLife() {
+        try {
+            if (journal.isOpen()) {
+                journal.appendLife(hero.getActualLife(), hero.getLife());
+            }
+            afterJournalAppend();
+        } catch (IOException e) {
+            createSaveGameAsync();
+        }
+    }
+
+    public void addHeroItem(Item i) {
+        hero.getItems().add(i);
+        try {
+            if (journal.isOpen()) {
+                journal.appendItemAdd(i);
+            }
+            afterJournalAppend();
+        } catch (IOException e) {
+            createSaveGameAsync();
+        }
+    }
+
+    public boolean removeHeroItem(Item i) {
+        int index = hero.getItems().indexOf(i);
+        boolean removed = index >= 0;
+        if (removed) {
+            hero.getItems().remove(index);
+            try {
+                if (journal.isOpen()) {
+                    journal.appendItemRemove(index);
+                }
+                afterJournalAppend();
+            } catch (IOException e) {
+                createSaveGameAsync();
+            }
+        }
+        return removed;
+    }
+
+    public void equipWeapon(Weapon w) {
+        hero.setActualWeapon(w);
+        try {
+            if (journal.isOpen()) {
+                journal.appendEquipWeapon(w);
+            }
+            afterJournalAppend();
+        } catch (IOException e) {
+            createSaveGameAsync();
+        }
+    }
+
+    public void equipArmor(Armor a) {
+        hero.setArmor(a);
+        try {
+            if (journal.isOpen()) {
+                journal.appendEquipArmor(a);
+            }
+            afterJournalAppend();
+        } catch (IOException e) {
+            createSaveGameAsync();
+        }
+    }
+
+    public void completeTask(Task t) {
+        hero.getTasks().remove(t);
+        hero.addCompletedTasks(t);
+        try {
+            if (journal.isOpen()) {
+                journal.appendTaskComplete(t);
+            }
+            afterJournalAppend();
+        } catch (IOException e) {
+            createSaveGameAsync();
+        }
+    }
+
+    /**
+     * Cuando el diario pasa de JOURNAL_COMPACT_BYTES se escribe una partida
+     * completa en segundo plano y, al terminar, se quitan del diario los
+     * registros que esa partida ya incluye.
+     */
+    private void afterJournalAppend() {
+        if (!compacting && journal.size() > JOURNAL_COMPACT_BYTES) {
+            compacting = true;
+            int upTo = journal.getSeq();
+            createSaveGameAsync().whenComplete((result, error) -> {
+                try {
+                    if (result != null && result.isSaved()) {
+                        journal.compact(upTo);
+                    }
+                } catch (IOException ignored) {
+                } finally {
+                    compacting = false;
+                }
+            });
+        }
+    }
+
+    // Escribe la partida principal con lo que el diario tenga, lo vacía y lo cierra
+    private void closeJournal() throws IOException {
+        awaitPendingSave();
+        if (journal.isOpen() && hero != null) {
+            int upTo = journal.getSeq();
+            lastSaveMetrics = writeSaveFile(save, codec, hero, playedTime, compressSaves, journal.getId(), upTo);
+            journal.compact(upTo);
+        }
+        journal.close();
+    }
+
+    /**
+     * Guarda el héroe en una ranura del contenedor. Las ranuras no tienen
+     * diario, así que su cabecera lleva 0/0.
+     */
+    public boolean createSaveGame(int slot) {
+        boolean created = false;
+        try {
+            container.write(slot, encodeRecord(codec, hero, playedTime, compressSaves, 0, 0));
             created = true;
         } catch (IOException e) {
             throw new RuntimeException(e);
@@ -125,33 +603,131 @@ public class Game {
         return created;
     }
 
-    public boolean readSaveGame() {
+    /**
+     * Carga el héroe de una ranura. Antes se pasa lo que tenga el diario a
+     * la partida principal y se cierra, para que los cambios del héroe de la
+     * ranura no se anoten en el diario de otra partida.
+     */
+    public boolean readSaveGame(int slot) {
         boolean correct = false;
-        try (RandomAccessFile raf = new RandomAccessFile(save, "rw")) {
-            int len = raf.readInt();
-            byte[] data = new byte[len];
-            raf.readFully(data);
-            hero = (Hero) Convert.toObject(data);
-            correct = true;
-            raf.close();
-        } catch (IOException | ClassNotFoundException e) {
+        try {
+            ByteBuffer record = container.read(slot);
+            if (record != null) {
+                closeJournal();
+                SaveSummary summary = SaveSummary.readFrom(record);
+                if (summary == null) {
+                    throw new IOException("Ranura " + slot + " dañada");
+                }
+                ByteBuffer payload = record.slice();
+                payload.limit(summary.getPayloadLength());
+                decodeRecord(summary, payload, "ranura " + slot);
+                adoptRandomSeed();
+                loadHeroSectionsInBackground();
+                correct = true;
+            }
+        } catch (IOException e) {
             throw new RuntimeException(e);
         }
         return correct;
     }
 
-    public boolean deleteSaveGame() {
+    /**
+     * Cabecera de una ranura del contenedor: una lectura del directorio y
+     * otra de HEADER_SIZE bytes. Devuelve null si la ranura está vacía.
+     */
+    public SaveSummary readSaveSummary(int slot) {
+        SaveSummary summary = null;
+        try {
+            ByteBuffer head = container.readPrefix(slot, SaveSummary.HEADER_SIZE);
+            if (head != null) {
+                summary = SaveSummary.readFrom(head);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return summary;
+    }
+
+    public List<SaveSlot> listSaveSlots() {
+        List<SaveSlot> slots;
+        try {
+            slots = container.list();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return slots;
+    }
+
+    public boolean deleteSaveGame(int slot) {
         boolean correct = false;
-        if (save.exists()) {
-            correct = save.delete();
+        try {
+            correct = container.delete(slot);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
         }
         return correct;
     }
 
+    // Cabecera + cuerpo de una partida, listos para escribirse de forma contigua
+    private static ByteBuffer[] encodeRecord(SaveCodec codec, Hero hero, LocalDateTime playedTime,
+            boolean compress, int journalId, int journalSeq) throws IOException {
+        ByteBuffer data = codec.encode(hero);
+        short codecId = SaveSummary.CODEC_RAW;
+        if (compress && data.remaining() >= SaveCodec.COMPRESS_MIN_BYTES) {
+            data = codec.deflate(data);
+            codecId = SaveSummary.CODEC_DEFLATE;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(data.duplicate());
+        ByteBuffer header = ByteBuffer.allocate(SaveSummary.HEADER_SIZE);
+        SaveSummary.of(hero, playedTime, codecId, data.remaining(), (int) crc.getValue(), journalId, journalSeq)
+                .writeTo(header);
+        header.flip();
+        return new ByteBuffer[]{header, data};
+    }
+
+    private void decodeRecord(SaveSummary summary, ByteBuffer payload, String source) throws IOException {
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != summary.getChecksum()) {
+            throw new IOException("Checksum incorrecto en " + source);
+        }
+        ByteBuffer raw;
+        switch (summary.getCodec()) {
+            case SaveSummary.CODEC_RAW:
+                raw = payload;
+                break;
+            case SaveSummary.CODEC_DEFLATE:
+                raw = codec.inflate(payload);
+                break;
+            default:
+                throw new IOException("Codec desconocido " + summary.getCodec() + " en " + source);
+        }
+        hero = codec.decodeLazy(raw);
+        playedTime = summary.getPlayedTime();
+    }
+
+    /**
+     * Decodifica en un hilo virtual las secciones del Hero que quedaron
+     * pendientes al cargar (equipo, inventario, misiones, clases), mientras
+     * el mapa ya se está mostrando. Si la pantalla las necesita antes, el
+     * getter correspondiente las decodifica o espera a este hilo.
+     */
+    private void loadHeroSectionsInBackground() {
+        Hero loaded = hero;
+        if (loaded != null && loaded.hasPendingSections()) {
+            Thread.ofVirtual().name("save-sections").start(() -> {
+                try {
+                    loaded.loadSections();
+                } catch (RuntimeException ignored) {
+                    // Se vuelve a intentar, y se informa, en el primer acceso
+                }
+            });
+        }
+    }
+
     public boolean combat(Monster m) {
-        int attack = m.getAttack() + m.getActualWeapon().getAttack();
-        int defense = hero.getDefense() + hero.getArmor().getDefense();
-        int damage = (attack - defense);
+        int damage = CombatEngine.monsterDamage(m, hero);
         boolean attacked = false;
         if (damage > 0) {
             int life = (hero.getActualLife()) - damage;
@@ -166,9 +742,7 @@ public class Game {
     }
 
     public boolean heroCombat(Monster m) {
-        int attack = hero.getAttack() + hero.getActualWeapon().getAttack();
-        int defense = m.getDefense();
-        int damage = (attack - defense);
+        int damage = CombatEngine.heroDamage(hero, m);
         boolean attacked = false;
         if (damage > 0) {
             int life = (m.getActualLife()) - damage;
@@ -201,11 +775,38 @@ public class Game {
                 hero.setActualLife(hero.getActualLife() + w.getHealing());
             }
             cured = true;
+            logHeroLife();
         }
         return cured;
     }
 
     public void createItems() {
+        items.addAll(itemCatalog());
+        createMonsterTemplates();
+    }
+
+    private void createMonsterTemplates() {
+        if (!monsterRegistry.contains("monster1")) {
+            // Los de los combates de prueba del mapa: solo cambia el sprite
+            int i = 1;
+            while (i <= 3) {
+                monsterRegistry.register(new MonsterTemplate("monster" + i, "Monstruo", (Weapon) items.get(0),
+                        4, 0, 1, 6, 1, 12, "/Resources/sprites/Monsters/monster" + i + ".png", false));
+                i = i + 1;
+            }
+            monsterRegistry.register(new MonsterTemplate("gnome", "Gnome", (Weapon) items.get(1), 5, 5, 5, 5, 3, 20, null, false));
+            monsterRegistry.register(new MonsterTemplate("goblin", "Goblin", (Weapon) items.get(2), 7, 3, 5, 7, 3, 20, null, false));
+            monsterRegistry.register(new MonsterTemplate("crab", "Mystical Crab", (Weapon) items.get(0), 5, 3, 10, 3, 3, 20, null, false));
+        }
+    }
+
+    /**
+     * Catálogo de items del juego, en el orden en que createItems los
+     * añade. Devuelve una lista nueva cada vez; la simulación de equilibrio
+     * la usa sin crear un Game.
+     */
+    public static ArrayList<Item> itemCatalog() {
+        ArrayList<Item> items = new ArrayList<>();
         items.add(new Fist("It punches.", "Bare Hands", "H000", 5, 120000, "Inflicts damage.",
                 "A"));
         items.add(new Gun("It shoots.", "Desert Eagle", "GUN01", 20, 100, "Inflict damage.",
@@ -217,12 +818,22 @@ public class Game {
         items.add(new Claymore("It cuts but longer.", "Royal Claymore", "CLY01", 100, 100, "Inflict damage", "A"));
         items.add(new Wares("It cures.", "Healing Bandages", "WS01", 50));
         items.add(new Armor("Basic Armor", "Broken Cloath", "A000", 2, "Pasen Polnito"));
+        // Un efecto mal escrito quedaría en nada sin avisar: mejor fallar al crear el catálogo
+        for (Item item : items) {
+            if (item instanceof Weapon) {
+                Effect.check(((Weapon) item).getEffect());
+            } else if (item instanceof Armor) {
+                Effect.check(((Armor) item).getEffect());
+            }
+        }
+        return items;
     }
 
     public void createMonsters() {
-        characters.add(new Monster((Weapon) items.get(1), 5, 5, 5, 5, 3, "Gnome", null, 20, 20));
-        characters.add(new Monster((Weapon) items.get(2), 7, 3, 5, 7, 3, "Goblin", null, 20, 20));
-        characters.add(new Monster((Weapon) items.get(0), 5, 3, 10, 3, 3, "Mystical Crab", null, 20, 20));
+        for (String id : new String[]{"gnome", "goblin", "crab"}) {
+            MonsterTemplate t = monsterRegistry.get(id);
+            characters.add(t.create(t.getName()));
+        }
     }
     
     public void createClassTree(){
@@ -0,0 +1,74 @@
+package Logic;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.random.RandomGenerator;
+
+/**
+ * Fuente de todo el azar del juego, a partir de una sola semilla que se
+ * guarda con la partida. Cada subsistema (combate, mapa...) tiene su propio
+ * generador derivado de la semilla y de su nombre, así que lo que consume
+ * uno no cambia lo que sale en otro. Para trabajo en paralelo o repeticiones
+ * child da generadores independientes y reproducibles por índice.
+ *
+ * Los generadores de stream no son seguros entre hilos: cada subsistema lo
+ * usa desde su propio hilo (el de FX para la interfaz). Los hilos de una
+ * simulación deben pedir cada uno su child.
+ */
+public class GameRandom {
+
+    public static final String COMBAT = "combat";
+    public static final String MAP = "map";
+    public static final String LOOT = "loot";
+
+    private final long seed;
+    private final Map<String, SplittableRandom> streams = new ConcurrentHashMap<>();
+
+    public GameRandom(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Con una semilla nueva al azar, para una partida nueva. Nunca es 0, que
+     * en la partida significa "sin semilla".
+     */
+    public static GameRandom withNewSeed() {
+        long s = 0;
+        while (s == 0) {
+            s = new SplittableRandom().nextLong();
+        }
+        return new GameRandom(s);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Generador del subsistema, siempre el mismo objeto para el mismo nombre.
+     */
+    public RandomGenerator stream(String subsystem) {
+        return streams.computeIfAbsent(subsystem, k -> new SplittableRandom(mix(seed, k.hashCode())));
+    }
+
+    /**
+     * Generador nuevo e independiente para la tarea index del subsistema,
+     * por ejemplo un combate concreto o un bloque de una simulación. Con la
+     * misma semilla, subsistema e índice da siempre la misma secuencia.
+     */
+    public SplittableRandom child(String subsystem, long index) {
+        return new SplittableRandom(mix(mix(seed, subsystem.hashCode()), index));
+    }
+
+    /**
+     * Mezcla seed y key en una semilla nueva (finalizador de SplitMix64).
+     * Claves consecutivas dan semillas sin relación entre sí.
+     */
+    public static long mix(long seed, long key) {
+        long z = seed + key * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
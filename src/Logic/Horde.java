@@ -0,0 +1,121 @@
+package Logic;
+
+import Characters.CombatStats;
+import Characters.Monster;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Monstruos de un combate multitudinario guardados por columnas: un arreglo
+ * de enteros por estadística y un BitSet con los que siguen en pie. Un
+ * ataque a todos o el turno de cientos de monstruos es un bucle sobre
+ * arreglos, sin getters ni objetos por golpe.
+ *
+ * Los Monster solo se leen al crear la horda y se actualizan con writeBack
+ * al terminar; mientras tanto la vida vive aquí. Cada monstruo ocupa siempre
+ * la misma posición, aunque caiga.
+ */
+public class Horde {
+
+    private final Monster[] monsters;
+    final int[] life;
+    final int[] hp;
+    // Ataque del monstruo más el de su arma
+    final int[] attack;
+    final int[] defense;
+    final int[] velocidad;
+    // Instante de iniciativa del próximo turno de cada monstruo, como en TurnScheduler
+    final long[] readyAt;
+    private final BitSet alive;
+    private int aliveCount;
+
+    public Horde(List<Monster> monsters) {
+        int n = monsters.size();
+        this.monsters = monsters.toArray(new Monster[n]);
+        life = new int[n];
+        hp = new int[n];
+        attack = new int[n];
+        defense = new int[n];
+        velocidad = new int[n];
+        readyAt = new long[n];
+        alive = new BitSet(n);
+        int i = 0;
+        while (i < n) {
+            Monster m = this.monsters[i];
+            CombatStats stats = m.getCombatStats();
+            life[i] = m.getLife();
+            hp[i] = m.getActualLife();
+            attack[i] = stats.getAttack();
+            defense[i] = stats.getDefense();
+            velocidad[i] = stats.getVelocidad();
+            readyAt[i] = TurnScheduler.GAUGE / velocidad[i];
+            if (hp[i] > 0) {
+                alive.set(i);
+                aliveCount = aliveCount + 1;
+            }
+            i = i + 1;
+        }
+    }
+
+    /**
+     * Copia la vida de cada posición a su Monster.
+     */
+    public void writeBack() {
+        int i = 0;
+        while (i < monsters.length) {
+            monsters[i].setActualLife(hp[i]);
+            i = i + 1;
+        }
+    }
+
+    public int size() {
+        return monsters.length;
+    }
+
+    public int getAliveCount() {
+        return aliveCount;
+    }
+
+    public boolean isAlive(int index) {
+        return alive.get(index);
+    }
+
+    public Monster getMonster(int index) {
+        return monsters[index];
+    }
+
+    public int getHp(int index) {
+        return hp[index];
+    }
+
+    /**
+     * Primera posición en pie, o -1 si no queda ninguna.
+     */
+    public int firstAlive() {
+        return alive.nextSetBit(0);
+    }
+
+    /**
+     * Siguiente posición en pie a partir de from, o -1.
+     */
+    public int nextAlive(int from) {
+        return alive.nextSetBit(from);
+    }
+
+    /**
+     * Golpea la posición index con power menos su defensa. Devuelve el daño,
+     * que es 0 o negativo si no le hizo nada.
+     */
+    int hit(int index, int power) {
+        int damage = power - defense[index];
+        if (damage > 0) {
+            hp[index] = Math.max(0, hp[index] - damage);
+            if (hp[index] == 0) {
+                alive.clear(index);
+                aliveCount = aliveCount - 1;
+            }
+        }
+        return damage;
+    }
+}
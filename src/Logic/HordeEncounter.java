@@ -0,0 +1,68 @@
+package Logic;
+
+import Characters.Hero;
+import Characters.Monster;
+
+import java.util.List;
+
+/**
+ * Combate del héroe contra una horda (Horde) de cientos de monstruos. Es el
+ * equivalente de Encounter para HordeEngine, con sus mismas limitaciones:
+ * sin guardia, IA ni efectos de las armas.
+ */
+public class HordeEncounter {
+
+    private final Hero hero;
+    private final Horde horde;
+    private long heroReadyAt;
+    private int turn = 0;
+    private Encounter.Outcome outcome = Encounter.Outcome.ONGOING;
+
+    public HordeEncounter(Hero hero, List<Monster> monsters) {
+        this.hero = hero;
+        this.horde = new Horde(monsters);
+        this.heroReadyAt = TurnScheduler.GAUGE / hero.getCombatStats().getVelocidad();
+        if (horde.getAliveCount() == 0) {
+            outcome = Encounter.Outcome.VICTORY;
+        }
+    }
+
+    public Hero getHero() {
+        return hero;
+    }
+
+    public Horde getHorde() {
+        return horde;
+    }
+
+    long getHeroReadyAt() {
+        return heroReadyAt;
+    }
+
+    void heroActed() {
+        heroReadyAt = heroReadyAt + TurnScheduler.GAUGE / hero.getCombatStats().getVelocidad();
+    }
+
+    /**
+     * Número de acciones del héroe en este combate.
+     */
+    public int getTurn() {
+        return turn;
+    }
+
+    void nextTurn() {
+        turn = turn + 1;
+    }
+
+    public Encounter.Outcome getOutcome() {
+        return outcome;
+    }
+
+    void setOutcome(Encounter.Outcome outcome) {
+        this.outcome = outcome;
+    }
+
+    public boolean isOver() {
+        return outcome != Encounter.Outcome.ONGOING;
+    }
+}
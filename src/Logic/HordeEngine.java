@@ -0,0 +1,169 @@
+package Logic;
+
+import Characters.Hero;
+
+/**
+ * Combates contra una horda con las reglas básicas de CombatEngine: el
+ * héroe ataca o huye y cada monstruo solo ataca, con el mismo daño, la
+ * misma iniciativa y el mismo número de acciones por turno del héroe que
+ * CombatEngine sin BossAI ni MonsterAI. No implementa la guardia, las IA de
+ * los monstruos y los jefes, ni los efectos de las armas (veneno,
+ * quemadura, aturdimiento y robo de vida); las estadísticas se leen de
+ * CombatStats al crear la horda, así que la furia de un Boss o la guardia
+ * de ese momento quedan fijas. Con monstruos y armas sin nada de eso da los
+ * mismos resultados que CombatEngine; solo cambia el orden en que se avisa
+ * de los ataques de los monstruos dentro de un turno: van por posición, y
+ * no intercalados por iniciativa.
+ *
+ * Todavía no lo usa ningún modo de juego.
+ *
+ * Un turno de los monstruos recorre una vez los que siguen en pie, y cada
+ * uno actúa tantas veces como le dé su velocidad antes de que el héroe
+ * vuelva a estar listo. Los Monster se actualizan al terminar el combate, o
+ * en cada golpe si hay listener, para que este vea su vida.
+ */
+public class HordeEngine {
+
+    private final CombatListener listener;
+
+    public HordeEngine() {
+        this(null);
+    }
+
+    public HordeEngine(CombatListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Juega un turno como CombatEngine.turn. BATTLE ataca al primer
+     * monstruo en pie.
+     */
+    public Encounter.Outcome turn(HordeEncounter encounter, CombatEngine.Action action) {
+        if (!encounter.isOver()) {
+            monstersUntilHero(encounter);
+            if (!encounter.isOver()) {
+                encounter.nextTurn();
+                encounter.heroActed();
+                switch (action) {
+                    case ESCAPE:
+                        encounter.setOutcome(Encounter.Outcome.ESCAPED);
+                        break;
+                    case BATTLE:
+                        Horde horde = encounter.getHorde();
+                        int target = horde.firstAlive();
+                        if (target >= 0) {
+                            strike(encounter, target, heroPower(encounter.getHero()));
+                        }
+                        break;
+                    default:
+                        break;
+                }
+                checkVictory(encounter);
+                if (!encounter.isOver()) {
+                    monstersUntilHero(encounter);
+                }
+            }
+            finish(encounter);
+        }
+        return encounter.getOutcome();
+    }
+
+    /**
+     * Turno en el que el héroe golpea a todos los monstruos en pie con power
+     * menos la defensa de cada uno.
+     */
+    public Encounter.Outcome areaTurn(HordeEncounter encounter, int power) {
+        if (!encounter.isOver()) {
+            monstersUntilHero(encounter);
+            if (!encounter.isOver()) {
+                encounter.nextTurn();
+                encounter.heroActed();
+                Horde horde = encounter.getHorde();
+                int i = horde.firstAlive();
+                while (i >= 0) {
+                    // hit solo puede quitar a i del BitSet, así que el siguiente no cambia
+                    int next = horde.nextAlive(i + 1);
+                    strike(encounter, i, power);
+                    i = next;
+                }
+                checkVictory(encounter);
+                if (!encounter.isOver()) {
+                    monstersUntilHero(encounter);
+                }
+            }
+            finish(encounter);
+        }
+        return encounter.getOutcome();
+    }
+
+    /**
+     * Resuelve el combate atacando siempre al primero en pie, como
+     * CombatEngine.resolve.
+     */
+    public Encounter.Outcome resolve(HordeEncounter encounter, int maxTurns) {
+        while (!encounter.isOver() && encounter.getTurn() < maxTurns) {
+            turn(encounter, CombatEngine.Action.BATTLE);
+        }
+        return encounter.getOutcome();
+    }
+
+    /**
+     * Poder de ataque del héroe: su ataque más el de su arma.
+     */
+    public static int heroPower(Hero hero) {
+        return hero.getCombatStats().getAttack();
+    }
+
+    private void strike(HordeEncounter encounter, int index, int power) {
+        Horde horde = encounter.getHorde();
+        int damage = horde.hit(index, power);
+        if (listener != null) {
+            horde.getMonster(index).setActualLife(horde.hp[index]);
+            listener.heroAttacked(horde.getMonster(index), damage);
+            if (horde.hp[index] == 0 && damage > 0) {
+                listener.monsterDefeated(horde.getMonster(index), index);
+            }
+        }
+    }
+
+    private static void checkVictory(HordeEncounter encounter) {
+        if (!encounter.isOver() && encounter.getHorde().getAliveCount() == 0) {
+            encounter.setOutcome(Encounter.Outcome.VICTORY);
+        }
+    }
+
+    private void monstersUntilHero(HordeEncounter encounter) {
+        Hero hero = encounter.getHero();
+        Horde horde = encounter.getHorde();
+        int guard = hero.getCombatStats().getDefense();
+        long until = encounter.getHeroReadyAt();
+        int life = hero.getActualLife();
+        int i = horde.firstAlive();
+        while (i >= 0 && life > 0) {
+            // En un empate de iniciativa el héroe va primero
+            while (horde.readyAt[i] < until && life > 0) {
+                int damage = horde.attack[i] - guard;
+                if (damage > 0) {
+                    life = Math.max(0, life - damage);
+                }
+                horde.readyAt[i] = horde.readyAt[i] + TurnScheduler.GAUGE / horde.velocidad[i];
+                if (listener != null) {
+                    hero.setActualLife(life);
+                    listener.monsterAttacked(horde.getMonster(i), damage);
+                }
+            }
+            i = horde.nextAlive(i + 1);
+        }
+        hero.setActualLife(life);
+        if (life == 0) {
+            encounter.setOutcome(Encounter.Outcome.DEFEAT);
+        }
+    }
+
+    // Al terminar, la vida de la horda vuelve a los Monster
+    private static void finish(HordeEncounter encounter) {
+        if (encounter.isOver()) {
+            encounter.getHorde().writeBack();
+        }
+    }
+}
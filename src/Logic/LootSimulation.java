@@ -0,0 +1,195 @@
+package Logic;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Comprueba que una LootTable da cada entrada con la probabilidad que dicen
+ * sus pesos: tira muchas veces (cientos de millones si hace falta) y compara
+ * lo observado con lo esperado.
+ *
+ * Como BalanceSimulation, las tiradas se reparten en bloques fijos de LEAF
+ * entre los hilos de un ForkJoinPool, cada uno con un generador derivado de
+ * la semilla y de su posición, así que el resultado no depende del número
+ * de hilos.
+ */
+public class LootSimulation {
+
+    private static final int LEAF = 1 << 20;
+    // Desviación, en errores típicos, a partir de la que una entrada no cuadra
+    private static final double MAX_Z = 5;
+
+    /**
+     * Veces que salió cada entrada y su comparación con lo esperado.
+     */
+    public static class Report {
+
+        private final LootTable table;
+        private final long[] counts;
+        private long rolls = 0;
+
+        Report(LootTable table) {
+            this.table = table;
+            this.counts = new long[table.size()];
+        }
+
+        void merge(Report other) {
+            int i = 0;
+            while (i < counts.length) {
+                counts[i] = counts[i] + other.counts[i];
+                i = i + 1;
+            }
+            rolls = rolls + other.rolls;
+        }
+
+        public long getRolls() {
+            return rolls;
+        }
+
+        public long getCount(int index) {
+            return counts[index];
+        }
+
+        public double getObserved(int index) {
+            return rolls == 0 ? 0 : (double) counts[index] / rolls;
+        }
+
+        /**
+         * Diferencia entre lo observado y lo esperado en la entrada index,
+         * en errores típicos.
+         */
+        public double getZ(int index) {
+            double p = table.getProbability(index);
+            double sd = Math.sqrt(rolls * p * (1 - p));
+            return sd == 0 ? 0 : (counts[index] - rolls * p) / sd;
+        }
+
+        public double getMaxZ() {
+            double max = 0;
+            int i = 0;
+            while (i < counts.length) {
+                max = Math.max(max, Math.abs(getZ(i)));
+                i = i + 1;
+            }
+            return max;
+        }
+
+        public double getChiSquare() {
+            double chi = 0;
+            int i = 0;
+            while (i < counts.length) {
+                double expected = rolls * table.getProbability(i);
+                double d = counts[i] - expected;
+                chi = chi + d * d / expected;
+                i = i + 1;
+            }
+            return chi;
+        }
+
+        /**
+         * La chi cuadrado pasada a una normal (Wilson-Hilferty): por encima
+         * de 4 es casi imposible que los pesos y las tiradas cuadren.
+         */
+        public double getChiSquareZ() {
+            int df = counts.length - 1;
+            double z = 0;
+            if (df > 0) {
+                double v = 2.0 / (9 * df);
+                z = (Math.cbrt(getChiSquare() / df) - (1 - v)) / Math.sqrt(v);
+            }
+            return z;
+        }
+
+        public boolean isConsistent() {
+            return rolls > 0 && getChiSquareZ() < 4 && getMaxZ() < MAX_Z;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("[%s] %d tiradas%n", table.getKey(), rolls));
+            int i = 0;
+            while (i < counts.length) {
+                String name = table.getItem(i) == null ? "(nada)" : table.getItem(i).getId();
+                String rarity = table.getRarity(i) == null ? "" : table.getRarity(i).name().toLowerCase(Locale.ROOT);
+                sb.append(String.format("  %-8s %-9s esperado %.6f observado %.6f z %+.2f%n",
+                        name, rarity, table.getProbability(i), getObserved(i), getZ(i)));
+                i = i + 1;
+            }
+            sb.append(String.format("  chi2 %.2f (z %+.2f), máx. |z| %.2f: %s%n", getChiSquare(),
+                    getChiSquareZ(), getMaxZ(), isConsistent() ? "correcta" : "NO CUADRA"));
+            return sb.toString();
+        }
+    }
+
+    private final LootTable table;
+
+    public LootSimulation(LootTable table) {
+        if (table.size() == 0) {
+            throw new IllegalArgumentException("La tabla " + table.getKey() + " no tiene entradas");
+        }
+        this.table = table;
+        table.prepare();
+    }
+
+    /**
+     * Hace rolls tiradas con la semilla dada en un pool de threads hilos.
+     */
+    public Report run(long rolls, long seed, int threads) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        Report report;
+        try {
+            report = pool.invoke(new Sweep(0, rolls, seed));
+        } finally {
+            pool.shutdown();
+        }
+        return report;
+    }
+
+    private class Sweep extends RecursiveTask<Report> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long from;
+        private final long to;
+        private final long seed;
+
+        Sweep(long from, long to, long seed) {
+            this.from = from;
+            this.to = to;
+            this.seed = seed;
+        }
+
+        @Override
+        protected Report compute() {
+            Report report;
+            if (to - from <= LEAF) {
+                report = sample(from, to, seed);
+            } else {
+                // Se corta en un múltiplo de LEAF para que los bloques no dependan del reparto
+                long mid = from + Math.max(1, (to - from) / LEAF / 2) * LEAF;
+                Sweep left = new Sweep(from, mid, seed);
+                Sweep right = new Sweep(mid, to, seed);
+                left.fork();
+                report = right.compute();
+                report.merge(left.join());
+            }
+            return report;
+        }
+    }
+
+    private Report sample(long from, long to, long seed) {
+        Report report = new Report(table);
+        SplittableRandom rnd = new SplittableRandom(GameRandom.mix(seed, from / LEAF + 1));
+        long i = from;
+        while (i < to) {
+            int index = table.sampleIndex(rnd);
+            report.counts[index] = report.counts[index] + 1;
+            i = i + 1;
+        }
+        report.rolls = to - from;
+        return report;
+    }
+}
@@ -0,0 +1,240 @@
+package Logic;
+
+import Items.Item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Botín de un tipo de monstruo o de una región: objetos con un peso y una
+ * rareza, una entrada opcional de "nada", los objetos que caen siempre y
+ * cuántas tiradas se hacen por monstruo derrotado.
+ *
+ * Las tiradas usan el método de alias de Walker (en la versión de Vose):
+ * al preparar la tabla se reparte el peso de cada entrada en n casillas de
+ * dos entradas como mucho, y cada tirada elige una casilla y una de sus dos
+ * entradas con un solo número al azar. Cuesta lo mismo con 3 entradas que
+ * con 3000. Una vez preparada (la primera tirada, o prepare) la tabla no
+ * debe modificarse y se puede tirar desde varios hilos.
+ */
+public class LootTable {
+
+    /**
+     * Rareza de una entrada, con el peso que recibe si no se indica otro.
+     */
+    public enum Rarity {
+        COMMON(100), UNCOMMON(30), RARE(8), EPIC(1);
+
+        private final double weight;
+
+        Rarity(double weight) {
+            this.weight = weight;
+        }
+
+        public double getWeight() {
+            return weight;
+        }
+    }
+
+    private final String key;
+    private final List<Item> items = new ArrayList<>();
+    private final List<Rarity> rarities = new ArrayList<>();
+    private final List<Double> weights = new ArrayList<>();
+    private final List<Item> guaranteed = new ArrayList<>();
+    private int rolls = 1;
+    private double total = 0;
+    // Casillas del método de alias
+    private volatile double[] prob;
+    private int[] alias;
+
+    public LootTable(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Añade item con el peso por defecto de su rareza.
+     */
+    public void add(Item item, Rarity rarity) {
+        add(item, rarity, rarity.getWeight());
+    }
+
+    public void add(Item item, Rarity rarity, double weight) {
+        if (item == null) {
+            throw new IllegalArgumentException("Falta el objeto");
+        }
+        addEntry(item, rarity, weight);
+    }
+
+    /**
+     * Entrada en la que la tirada no da nada.
+     */
+    public void addNothing(double weight) {
+        addEntry(null, null, weight);
+    }
+
+    private void addEntry(Item item, Rarity rarity, double weight) {
+        if (!(weight > 0) || Double.isInfinite(weight)) {
+            throw new IllegalArgumentException("El peso debe ser mayor que 0");
+        }
+        if (prob != null) {
+            throw new IllegalStateException("La tabla " + key + " ya está preparada");
+        }
+        items.add(item);
+        rarities.add(rarity);
+        weights.add(weight);
+        total = total + weight;
+    }
+
+    /**
+     * Objeto que cae siempre, además de las tiradas.
+     */
+    public void addGuaranteed(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Falta el objeto");
+        }
+        guaranteed.add(item);
+    }
+
+    public List<Item> getGuaranteed() {
+        return guaranteed;
+    }
+
+    /**
+     * Tiradas por monstruo derrotado; 0 deja solo los que caen siempre.
+     */
+    public void setRolls(int rolls) {
+        if (rolls < 0) {
+            throw new IllegalArgumentException("No puede ser negativo");
+        }
+        this.rolls = rolls;
+    }
+
+    public int getRolls() {
+        return rolls;
+    }
+
+    /**
+     * Número de entradas, contando la de "nada".
+     */
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * Objeto de la entrada index, o null si es la de "nada".
+     */
+    public Item getItem(int index) {
+        return items.get(index);
+    }
+
+    public Rarity getRarity(int index) {
+        return rarities.get(index);
+    }
+
+    /**
+     * Probabilidad de la entrada index en una tirada.
+     */
+    public double getProbability(int index) {
+        return weights.get(index) / total;
+    }
+
+    /**
+     * Construye las casillas del método de alias. Lo hace sola la primera
+     * tirada; llamarlo antes evita hacerlo con varios hilos a la vez.
+     */
+    public synchronized void prepare() {
+        if (prob == null) {
+            int n = items.size();
+            double[] p = new double[n];
+            int[] a = new int[n];
+            double[] scaled = new double[n];
+            int[] small = new int[n];
+            int[] large = new int[n];
+            int smalls = 0;
+            int larges = 0;
+            int i = 0;
+            while (i < n) {
+                scaled[i] = weights.get(i) * n / total;
+                if (scaled[i] < 1) {
+                    small[smalls] = i;
+                    smalls = smalls + 1;
+                } else {
+                    large[larges] = i;
+                    larges = larges + 1;
+                }
+                i = i + 1;
+            }
+            // Cada casilla pequeña se completa con lo que le sobra a una grande
+            while (smalls > 0 && larges > 0) {
+                smalls = smalls - 1;
+                int l = small[smalls];
+                int g = large[larges - 1];
+                p[l] = scaled[l];
+                a[l] = g;
+                scaled[g] = scaled[g] + scaled[l] - 1;
+                if (scaled[g] < 1) {
+                    larges = larges - 1;
+                    small[smalls] = g;
+                    smalls = smalls + 1;
+                }
+            }
+            // Lo que queda vale 1 salvo por redondeo
+            while (larges > 0) {
+                larges = larges - 1;
+                p[large[larges]] = 1;
+            }
+            while (smalls > 0) {
+                smalls = smalls - 1;
+                p[small[smalls]] = 1;
+            }
+            alias = a;
+            prob = p;
+        }
+    }
+
+    /**
+     * Entrada de una tirada, en O(1). -1 si la tabla está vacía.
+     */
+    public int sampleIndex(RandomGenerator rnd) {
+        double[] p = prob;
+        if (p == null) {
+            prepare();
+            p = prob;
+        }
+        int index = -1;
+        if (p.length > 0) {
+            double u = rnd.nextDouble() * p.length;
+            int slot = (int) u;
+            index = u - slot < p[slot] ? slot : alias[slot];
+        }
+        return index;
+    }
+
+    /**
+     * Objeto de una tirada, o null si no cae nada.
+     */
+    public Item sample(RandomGenerator rnd) {
+        int index = sampleIndex(rnd);
+        return index < 0 ? null : items.get(index);
+    }
+
+    /**
+     * Añade a out los objetos que caen siempre y los de getRolls tiradas.
+     */
+    public void roll(RandomGenerator rnd, List<Item> out) {
+        out.addAll(guaranteed);
+        int r = 0;
+        while (r < rolls) {
+            Item item = sample(rnd);
+            if (item != null) {
+                out.add(item);
+            }
+            r = r + 1;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package Logic;
+
+import Characters.Monster;
+import Items.Item;
+import Utils.Convert;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Las tablas de botín del juego, por id de MonsterTemplate o por región.
+ * Se leen del archivo de datos la primera vez que se pide una, no al
+ * arrancar.
+ *
+ * Formato del archivo, una orden por línea ("#" empieza un comentario):
+ * <pre>
+ * [clave]                  empieza la tabla de una plantilla o región
+ * rolls n                  tiradas por monstruo derrotado (1 si no se dice)
+ * always id                el objeto id cae siempre
+ * id rareza [peso]         entrada; sin peso usa el de la rareza
+ * none peso                entrada en la que no cae nada
+ * </pre>
+ * Los id son los de Item.getId en el catálogo que se pasa al construir.
+ */
+public class LootTables {
+
+    public static final String DEFAULT_PATH = "/Resources/data/loot.txt";
+    // Tabla de los monstruos sin tabla propia ni de su región
+    public static final String DEFAULT_KEY = "default";
+
+    private final List<Item> catalog;
+    private final String path;
+    private volatile Map<String, LootTable> tables;
+
+    /**
+     * path es la ruta del recurso en el classpath.
+     */
+    public LootTables(List<Item> catalog, String path) {
+        this.catalog = catalog;
+        this.path = path;
+    }
+
+    /**
+     * Tabla de clave key, o null si no existe.
+     */
+    public LootTable get(String key) {
+        return tables().get(key);
+    }
+
+    public Map<String, LootTable> getTables() {
+        return Collections.unmodifiableMap(tables());
+    }
+
+    /**
+     * La tabla de la plantilla de m; si no tiene, la de region; si tampoco,
+     * la de por defecto. Puede ser null.
+     */
+    public LootTable forMonster(Monster m, String region) {
+        Map<String, LootTable> all = tables();
+        LootTable table = m.getTemplate() == null ? null : all.get(m.getTemplate().getId());
+        if (table == null && region != null) {
+            table = all.get(region);
+        }
+        if (table == null) {
+            table = all.get(DEFAULT_KEY);
+        }
+        return table;
+    }
+
+    /**
+     * Tira de una vez el botín de todos los monstruos derrotados (sin vida)
+     * de un combate. El de cada uno queda en su getLoot, y se devuelve todo
+     * junto. Cada objeto es una copia del del catálogo, así que se puede
+     * modificar sin tocar el de las tablas ni el de otros botines.
+     */
+    public List<Item> rollEncounter(List<Monster> monsters, String region, RandomGenerator rnd) {
+        List<Item> drops = new ArrayList<>();
+        for (Monster m : monsters) {
+            m.getLoot().clear();
+            if (m.getActualLife() <= 0) {
+                LootTable table = forMonster(m, region);
+                if (table != null) {
+                    List<Item> loot = m.getLoot();
+                    table.roll(rnd, loot);
+                    int i = 0;
+                    while (i < loot.size()) {
+                        loot.set(i, copy(loot.get(i)));
+                        i = i + 1;
+                    }
+                    drops.addAll(loot);
+                }
+            }
+        }
+        return drops;
+    }
+
+    private static Item copy(Item item) {
+        Item result;
+        try {
+            result = (Item) Convert.toObject(Convert.toBytes(item));
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("No se puede copiar " + item.getId(), e);
+        }
+        return result;
+    }
+
+    private Map<String, LootTable> tables() {
+        Map<String, LootTable> t = tables;
+        if (t == null) {
+            synchronized (this) {
+                t = tables;
+                if (t == null) {
+                    t = load();
+                    tables = t;
+                }
+            }
+        }
+        return t;
+    }
+
+    private Map<String, LootTable> load() {
+        Map<String, LootTable> result;
+        try (InputStream in = LootTables.class.getResourceAsStream(path)) {
+            if (in == null) {
+                throw new IllegalStateException("No se encuentra " + path);
+            }
+            result = parse(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)), catalog, path);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return result;
+    }
+
+    /**
+     * Lee tablas con el formato de la clase. Cada tabla queda preparada.
+     */
+    public static Map<String, LootTable> parse(BufferedReader reader, List<Item> catalog, String source)
+            throws IOException {
+        Map<String, Item> byId = new HashMap<>();
+        for (Item item : catalog) {
+            byId.putIfAbsent(item.getId(), item);
+        }
+        Map<String, LootTable> result = new LinkedHashMap<>();
+        LootTable current = null;
+        int number = 0;
+        String line = reader.readLine();
+        while (line != null) {
+            number = number + 1;
+            int comment = line.indexOf('#');
+            String text = (comment >= 0 ? line.substring(0, comment) : line).trim();
+            if (!text.isEmpty()) {
+                String where = source + " línea " + number + ": ";
+                try {
+                    if (text.startsWith("[") && text.endsWith("]")) {
+                        String key = text.substring(1, text.length() - 1).trim();
+                        if (key.isEmpty() || result.containsKey(key)) {
+                            throw new IllegalArgumentException("tabla vacía o repetida");
+                        }
+                        current = new LootTable(key);
+                        result.put(key, current);
+                    } else if (current == null) {
+                        throw new IllegalArgumentException("falta la [clave] de la tabla");
+                    } else {
+                        parseLine(current, text.split("\\s+"), byId);
+                    }
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException(where + e.getMessage(), e);
+                }
+            }
+            line = reader.readLine();
+        }
+        for (LootTable table : result.values()) {
+            table.prepare();
+        }
+        return result;
+    }
+
+    private static void parseLine(LootTable table, String[] words, Map<String, Item> byId) {
+        String first = words[0];
+        if (first.equals("rolls") && words.length == 2) {
+            table.setRolls(Integer.parseInt(words[1]));
+        } else if (first.equals("always") && words.length == 2) {
+            table.addGuaranteed(item(words[1], byId));
+        } else if (first.equals("none") && words.length == 2) {
+            table.addNothing(Double.parseDouble(words[1]));
+        } else if (words.length == 2 || words.length == 3) {
+            LootTable.Rarity rarity = LootTable.Rarity.valueOf(words[1].toUpperCase(Locale.ROOT));
+            if (words.length == 3) {
+                table.add(item(first, byId), rarity, Double.parseDouble(words[2]));
+            } else {
+                table.add(item(first, byId), rarity);
+            }
+        } else {
+            throw new IllegalArgumentException("no se entiende la línea");
+        }
+    }
+
+    private static Item item(String id, Map<String, Item> byId) {
+        Item item = byId.get(id);
+        if (item == null) {
+            throw new IllegalArgumentException("no existe el objeto " + id);
+        }
+        return item;
+    }
+}
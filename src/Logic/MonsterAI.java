@@ -0,0 +1,118 @@
+package Logic;
+
+import Characters.Monster;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Decide la acción de cada monstruo normal con su BehaviorTree: el que se
+ * haya dado con setTree al id de su MonsterTemplate, o el de por defecto.
+ * El árbol de cada monstruo se busca una vez por combate. Reparte un presupuesto de ticks (nodos
+ * evaluados) entre todos los monstruos de un turno del héroe: si se acaba,
+ * los que faltan atacan sin pensar. El presupuesto se cuenta en nodos y no
+ * en tiempo para que un combate con la misma semilla se juegue igual en
+ * cualquier máquina.
+ *
+ * La memoria de cada monstruo (sus cooldowns) vive en un solo arreglo del
+ * Encounter, con getSlots enteros por monstruo según su orden de entrada,
+ * junto a los árboles ya resueltos.
+ */
+public class MonsterAI {
+
+    // Se pone en guardia con poca vida, como mucho una vez cada 3 turnos; si no, ataca
+    private static final BehaviorTree DEFAULT = BehaviorTree.compile(
+            BehaviorTree.selector(
+                    BehaviorTree.sequence(BehaviorTree.hpBelow(35), BehaviorTree.cooldown(3, BehaviorTree.guard())),
+                    BehaviorTree.attack()));
+
+    private final BehaviorTree.Context context = new BehaviorTree.Context();
+    private final Map<String, BehaviorTree> trees = new HashMap<>();
+    private int tickBudget = 4096;
+    private long outOfTicks = 0;
+
+    /**
+     * Árbol de los monstruos que no tienen uno propio.
+     */
+    public static BehaviorTree defaultTree() {
+        return DEFAULT;
+    }
+
+    /**
+     * Árbol de los monstruos de la plantilla templateId; null vuelve al de
+     * por defecto. Los combates ya empezados siguen con el que tenían.
+     */
+    public void setTree(String templateId, BehaviorTree tree) {
+        if (tree == null) {
+            trees.remove(templateId);
+        } else {
+            trees.put(templateId, tree);
+        }
+    }
+
+    /**
+     * Árbol de los monstruos de la plantilla templateId.
+     */
+    public BehaviorTree getTree(String templateId) {
+        BehaviorTree tree = trees.get(templateId);
+        return tree != null ? tree : DEFAULT;
+    }
+
+    /**
+     * Nodos que se pueden evaluar en total en cada turno del héroe.
+     */
+    public void setTickBudget(int tickBudget) {
+        if (tickBudget < 1) {
+            throw new IllegalArgumentException("Debe ser mayor que 0");
+        }
+        this.tickBudget = tickBudget;
+    }
+
+    /**
+     * Decisiones que no se tomaron por falta de presupuesto.
+     */
+    public long getOutOfTicks() {
+        return outOfTicks;
+    }
+
+    // Lo llama CombatEngine al empezar cada turno del héroe
+    void beginTurn() {
+        context.ticks = tickBudget;
+    }
+
+    /**
+     * Acción de m, que entró al combate en la posición order (desde 1).
+     */
+    BehaviorTree.Action decide(Encounter encounter, Monster m, int order) {
+        int[] memory = encounter.getBehaviorMemory();
+        if (memory == null) {
+            Monster[] entered = encounter.getEntered();
+            BehaviorTree[] chosen = new BehaviorTree[entered.length];
+            int stride = 0;
+            int i = 0;
+            while (i < entered.length) {
+                chosen[i] = tree(entered[i]);
+                stride = Math.max(stride, chosen[i].getSlots());
+                i = i + 1;
+            }
+            memory = new int[entered.length * stride];
+            encounter.setBehaviorMemory(chosen, memory, stride);
+        }
+        context.monster = m;
+        context.hero = encounter.getHero();
+        context.memory = memory;
+        context.base = (order - 1) * encounter.getBehaviorStride();
+        context.turn = encounter.getTurn();
+        BehaviorTree.Action action = encounter.getBehaviorTrees()[order - 1].decide(context);
+        if (action == null) {
+            outOfTicks = outOfTicks + 1;
+            action = BehaviorTree.Action.ATTACK;
+        }
+        context.monster = null;
+        return action;
+    }
+
+    private BehaviorTree tree(Monster m) {
+        return m.getTemplate() == null ? DEFAULT : getTree(m.getTemplate().getId());
+    }
+}
@@ -0,0 +1,104 @@
+package Logic;
+
+import Characters.Monster;
+import Characters.MonsterTemplate;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tipos de monstruo por id (MonsterTemplate) y una reserva de Monster ya
+ * creados de cada tipo. Un combate pide sus monstruos con acquire y los
+ * devuelve con release al terminar, así que tras los primeros combates
+ * preparar uno no crea monstruos nuevos.
+ *
+ * Se usa desde el hilo de la interfaz; no es seguro entre hilos.
+ */
+public class MonsterRegistry {
+
+    private final Map<String, MonsterTemplate> templates = new LinkedHashMap<>();
+    private final Map<MonsterTemplate, ArrayDeque<Monster>> free = new IdentityHashMap<>();
+    private long created = 0;
+    private long reused = 0;
+
+    public void register(MonsterTemplate template) {
+        if (templates.containsKey(template.getId())) {
+            throw new IllegalArgumentException("Ya existe la plantilla " + template.getId());
+        }
+        templates.put(template.getId(), template);
+        free.put(template, new ArrayDeque<>());
+    }
+
+    public MonsterTemplate get(String id) {
+        MonsterTemplate template = templates.get(id);
+        if (template == null) {
+            throw new IllegalArgumentException("No existe la plantilla " + id);
+        }
+        return template;
+    }
+
+    public boolean contains(String id) {
+        return templates.containsKey(id);
+    }
+
+    /**
+     * Plantillas en el orden en que se registraron.
+     */
+    public Collection<MonsterTemplate> getTemplates() {
+        return Collections.unmodifiableCollection(templates.values());
+    }
+
+    /**
+     * Un monstruo del tipo id con toda la vida, de la reserva si hay alguno
+     * libre.
+     */
+    public Monster acquire(String id, String name) {
+        MonsterTemplate template = get(id);
+        Monster m = free.get(template).poll();
+        if (m == null) {
+            m = template.create(name);
+            created = created + 1;
+        } else {
+            template.reset(m, name);
+            reused = reused + 1;
+        }
+        return m;
+    }
+
+    /**
+     * Devuelve m a la reserva. No debe usarse más hasta que otro acquire lo
+     * entregue. Los monstruos creados a mano se ignoran.
+     */
+    public void release(Monster m) {
+        ArrayDeque<Monster> pool = m.getTemplate() == null ? null : free.get(m.getTemplate());
+        // Devolverlo dos veces lo entregaría a dos combates a la vez
+        if (pool != null && !pool.contains(m)) {
+            pool.push(m);
+        }
+    }
+
+    public void releaseAll(List<Monster> monsters) {
+        for (Monster m : monsters) {
+            release(m);
+        }
+    }
+
+    /**
+     * Monstruos creados por acquire porque no había ninguno libre.
+     */
+    public long getCreated() {
+        return created;
+    }
+
+    /**
+     * Veces que acquire entregó un monstruo de la reserva.
+     */
+    public long getReused() {
+        return reused;
+    }
+}
@@ -0,0 +1,499 @@
+package Logic;
+
+import Characters.Hero;
+import Characters.Monster;
+import Items.Armor;
+import Items.Weapon;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Busca con un algoritmo genético el ataque, la defensa, la vida y la
+ * velocidad de un monstruo para cada nivel de una curva de dificultad, de
+ * forma que el héroe de ese nivel gane con la tasa objetivo y el combate dure
+ * los turnos objetivo.
+ *
+ * Las reglas de combate no tienen azar, así que la variación entre combates
+ * viene del héroe: en cada combate sus estadísticas se alejan hasta un
+ * spread de las del nivel. Todos los candidatos de un nivel se miden contra
+ * la misma secuencia de héroes, por lo que la puntuación de un candidato es
+ * siempre la misma y se memoriza. Cada candidato se simula por lotes hasta
+ * que el intervalo de confianza del 95% de su tasa de victorias es más
+ * estrecho que confidence, o hasta maxFights combates.
+ *
+ * La velocidad decide cuántas veces actúa el monstruo por cada acción del
+ * héroe (velocidad 10, la de un Hero nuevo). Por defecto su rango es un solo
+ * valor y se queda fija; con setVelocidad entra en la búsqueda.
+ */
+public class MonsterTuner {
+
+    private static final int BATCH = 256;
+    private static final int MIN_FIGHTS = 1024;
+    // Peso del error relativo de turnos frente al error de la tasa de victorias
+    private static final double TURNS_WEIGHT = 0.25;
+    private static final int STALL_GENERATIONS = 12;
+
+    // Genes: ataque, defensa, vida y velocidad, con sus límites
+    private static final int ATTACK = 0;
+    private static final int DEFENSE = 1;
+    private static final int LIFE = 2;
+    private static final int VELOCIDAD = 3;
+    private static final int[] GENE_MAX = {4095, 4095, 65535, 4095};
+
+    /**
+     * Un punto de la curva: el héroe de ese nivel y el resultado que se busca
+     * contra un grupo de monstruos del nivel.
+     */
+    public static class Target {
+
+        private final int level;
+        private final int heroAttack;
+        private final int heroDefense;
+        private final int heroLife;
+        private final double winRate;
+        private final double turns;
+
+        public Target(int level, int heroAttack, int heroDefense, int heroLife, double winRate, double turns) {
+            if (heroAttack < 1 || heroDefense < 1 || heroLife < 1) {
+                throw new IllegalArgumentException("Las estadísticas del héroe deben ser mayores que 0");
+            }
+            if (winRate < 0 || winRate > 1 || turns < 1) {
+                throw new IllegalArgumentException("Objetivo fuera de rango: " + winRate + ", " + turns);
+            }
+            this.level = level;
+            this.heroAttack = heroAttack;
+            this.heroDefense = heroDefense;
+            this.heroLife = heroLife;
+            this.winRate = winRate;
+            this.turns = turns;
+        }
+
+        public int getLevel() {
+            return level;
+        }
+
+        public double getWinRate() {
+            return winRate;
+        }
+
+        public double getTurns() {
+            return turns;
+        }
+    }
+
+    /**
+     * Mejor monstruo encontrado para un nivel y lo que obtuvo en la
+     * simulación.
+     */
+    public static class Result {
+
+        private final Target target;
+        private final int attack;
+        private final int defense;
+        private final int life;
+        private final int velocidad;
+        private final Score score;
+        private final int generations;
+        private final long evaluations;
+        private final long cacheHits;
+
+        Result(Target target, int[] genes, Score score, int generations, long evaluations, long cacheHits) {
+            this.target = target;
+            this.attack = genes[ATTACK];
+            this.defense = genes[DEFENSE];
+            this.life = genes[LIFE];
+            this.velocidad = genes[VELOCIDAD];
+            this.score = score;
+            this.generations = generations;
+            this.evaluations = evaluations;
+            this.cacheHits = cacheHits;
+        }
+
+        public Target getTarget() {
+            return target;
+        }
+
+        public int getAttack() {
+            return attack;
+        }
+
+        public int getDefense() {
+            return defense;
+        }
+
+        public int getLife() {
+            return life;
+        }
+
+        public int getVelocidad() {
+            return velocidad;
+        }
+
+        public double getWinRate() {
+            return score.winRate();
+        }
+
+        /**
+         * Mitad del intervalo de confianza del 95% de la tasa de victorias.
+         */
+        public double getHalfWidth() {
+            return score.halfWidth();
+        }
+
+        public double getMeanTurns() {
+            return score.meanTurns();
+        }
+
+        public long getFights() {
+            return score.fights;
+        }
+
+        public int getGenerations() {
+            return generations;
+        }
+
+        /**
+         * Candidatos simulados; los repetidos salen de la memoria y se
+         * cuentan en getCacheHits.
+         */
+        public long getEvaluations() {
+            return evaluations;
+        }
+
+        public long getCacheHits() {
+            return cacheHits;
+        }
+    }
+
+    static class Score {
+
+        long fights;
+        long wins;
+        long turns;
+        double error;
+
+        double winRate() {
+            return fights == 0 ? 0.0 : (double) wins / fights;
+        }
+
+        // Agresti-Coull: no se anula cuando todos los combates acaban igual
+        double halfWidth() {
+            double n = fights + 4.0;
+            double p = (wins + 2.0) / n;
+            return 1.96 * Math.sqrt(p * (1 - p) / n);
+        }
+
+        double meanTurns() {
+            return fights == 0 ? 0.0 : (double) turns / fights;
+        }
+    }
+
+    // Objetos de combate de cada hilo, reutilizados entre simulaciones
+    private class Arena {
+
+        final Hero hero = new Hero("Simulación", heroWeapon, heroArmor);
+        final Monster[] monsters = new Monster[monsterCount];
+        final List<Monster> fighters = new ArrayList<>(monsterCount);
+        final CombatEngine engine = new CombatEngine();
+
+        Arena() {
+            int i = 0;
+            while (i < monsters.length) {
+                monsters[i] = new Monster(monsterWeapon, 1, 0, 0, 1, 1, "Candidato " + (i + 1), null, 1, 1);
+                i = i + 1;
+            }
+        }
+    }
+
+    private final Weapon heroWeapon;
+    private final Armor heroArmor;
+    private final Weapon monsterWeapon;
+    private int monsterCount = 1;
+    private double spread = 0.2;
+    private double confidence = 0.01;
+    private long maxFights = 16 * 1024;
+    private int population = 48;
+    private int maxGenerations = 60;
+    private int maxTurns = 200;
+    private int velocidadMin = 6;
+    private int velocidadMax = 6;
+
+    public MonsterTuner(Weapon heroWeapon, Armor heroArmor, Weapon monsterWeapon) {
+        this.heroWeapon = heroWeapon;
+        this.heroArmor = heroArmor;
+        this.monsterWeapon = monsterWeapon;
+    }
+
+    public void setMonsterCount(int monsterCount) {
+        if (monsterCount < 1) {
+            throw new IllegalArgumentException("Debe ser mayor que 0");
+        }
+        this.monsterCount = monsterCount;
+    }
+
+    /**
+     * Variación relativa máxima de las estadísticas del héroe entre
+     * combates, por ejemplo 0.2 para ±20%.
+     */
+    public void setSpread(double spread) {
+        if (spread < 0 || spread >= 1) {
+            throw new IllegalArgumentException("Debe estar entre 0 y 1");
+        }
+        this.spread = spread;
+    }
+
+    /**
+     * Mitad del intervalo de confianza de la tasa de victorias con la que
+     * se deja de simular un candidato.
+     */
+    public void setConfidence(double confidence) {
+        if (confidence <= 0) {
+            throw new IllegalArgumentException("Debe ser mayor que 0");
+        }
+        this.confidence = confidence;
+    }
+
+    public void setMaxFights(long maxFights) {
+        this.maxFights = Math.max(MIN_FIGHTS, maxFights);
+    }
+
+    public void setPopulation(int population) {
+        if (population < 4) {
+            throw new IllegalArgumentException("La población debe tener al menos 4 candidatos");
+        }
+        this.population = population;
+    }
+
+    public void setMaxGenerations(int maxGenerations) {
+        if (maxGenerations < 1) {
+            throw new IllegalArgumentException("Debe ser mayor que 0");
+        }
+        this.maxGenerations = maxGenerations;
+    }
+
+    public void setMaxTurns(int maxTurns) {
+        if (maxTurns < 1) {
+            throw new IllegalArgumentException("Debe ser mayor que 0");
+        }
+        this.maxTurns = maxTurns;
+    }
+
+    public void setVelocidad(int min, int max) {
+        if (min < 1 || min > max || max > GENE_MAX[VELOCIDAD]) {
+            throw new IllegalArgumentException("Rango de velocidad no válido: " + min + ":" + max);
+        }
+        this.velocidadMin = min;
+        this.velocidadMax = max;
+    }
+
+    public int getMonsterCount() {
+        return monsterCount;
+    }
+
+    /**
+     * Ajusta cada nivel de la curva por separado. Los candidatos de cada
+     * generación se evalúan en paralelo en un pool de threads hilos.
+     */
+    public List<Result> tune(List<Target> curve, long seed, int threads)
+            throws InterruptedException, ExecutionException {
+        List<Result> results = new ArrayList<>(curve.size());
+        ThreadLocal<Arena> arenas = ThreadLocal.withInitial(Arena::new);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            SplittableRandom rnd = new SplittableRandom(seed);
+            for (Target t : curve) {
+                results.add(tuneLevel(t, rnd.split(), arenas, pool));
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return results;
+    }
+
+    private Result tuneLevel(Target t, SplittableRandom rnd, ThreadLocal<Arena> arenas, ForkJoinPool pool)
+            throws InterruptedException, ExecutionException {
+        Map<Long, Score> cache = new ConcurrentHashMap<>();
+        AtomicLong hits = new AtomicLong();
+        long heroSeed = rnd.nextLong();
+
+        List<int[]> genomes = new ArrayList<>(population);
+        while (genomes.size() < population) {
+            genomes.add(randomGenome(t, rnd));
+        }
+
+        int[] best = null;
+        Score bestScore = null;
+        int stall = 0;
+        int generation = 0;
+        boolean done = false;
+        while (!done) {
+            List<int[]> candidates = genomes;
+            List<Score> scores = pool.submit(() -> candidates.parallelStream()
+                    .map(g -> evaluate(g, t, heroSeed, cache, hits, arenas))
+                    .toList()).get();
+
+            Integer[] order = new Integer[candidates.size()];
+            int i = 0;
+            while (i < order.length) {
+                order[i] = i;
+                i = i + 1;
+            }
+            Arrays.sort(order, Comparator.comparingDouble(k -> scores.get(k).error));
+
+            if (bestScore == null || scores.get(order[0]).error < bestScore.error) {
+                best = candidates.get(order[0]);
+                bestScore = scores.get(order[0]);
+                stall = 0;
+            } else {
+                stall = stall + 1;
+            }
+            generation = generation + 1;
+            done = converged(bestScore, t) || stall >= STALL_GENERATIONS || generation >= maxGenerations;
+
+            if (!done) {
+                genomes = breed(candidates, scores, order, t, rnd);
+            }
+        }
+        return new Result(t, best, bestScore, generation, cache.size(), hits.get());
+    }
+
+    // La tasa queda dentro del intervalo (o a 2 puntos) y los turnos a menos del 10%
+    private static boolean converged(Score s, Target t) {
+        return Math.abs(s.winRate() - t.winRate) <= Math.max(s.halfWidth(), 0.02)
+                && Math.abs(s.meanTurns() - t.turns) <= 0.1 * t.turns;
+    }
+
+    // Nueva generación: los 2 mejores pasan tal cual, el resto por torneo, cruce uniforme y mutación
+    private List<int[]> breed(List<int[]> genomes, List<Score> scores, Integer[] order, Target t,
+            SplittableRandom rnd) {
+        List<int[]> next = new ArrayList<>(population);
+        next.add(genomes.get(order[0]));
+        next.add(genomes.get(order[1]));
+        while (next.size() < population) {
+            int[] a = genomes.get(tournament(scores, rnd));
+            int[] b = genomes.get(tournament(scores, rnd));
+            int[] child = new int[a.length];
+            int g = 0;
+            while (g < child.length) {
+                child[g] = rnd.nextBoolean() ? a[g] : b[g];
+                if (rnd.nextDouble() < 0.35) {
+                    child[g] = child[g] + (int) Math.round(rnd.nextGaussian() * Math.max(1.0, child[g] * 0.15));
+                }
+                g = g + 1;
+            }
+            next.add(clamp(child));
+        }
+        // Un candidato nuevo por generación para no quedarse en un mínimo local
+        next.set(population - 1, randomGenome(t, rnd));
+        return next;
+    }
+
+    private static int tournament(List<Score> scores, SplittableRandom rnd) {
+        int best = rnd.nextInt(scores.size());
+        int i = 0;
+        while (i < 2) {
+            int other = rnd.nextInt(scores.size());
+            if (scores.get(other).error < scores.get(best).error) {
+                best = other;
+            }
+            i = i + 1;
+        }
+        return best;
+    }
+
+    // Candidato al azar en un rango razonable para el héroe del nivel
+    private int[] randomGenome(Target t, SplittableRandom rnd) {
+        int heroHit = t.heroAttack + (heroWeapon == null ? 0 : heroWeapon.getAttack());
+        int heroGuard = t.heroDefense + (heroArmor == null ? 0 : heroArmor.getDefense());
+        int[] g = new int[4];
+        g[ATTACK] = rnd.nextInt(2 * heroGuard + (int) (t.heroLife / t.turns) + 1);
+        g[DEFENSE] = rnd.nextInt(heroHit);
+        g[LIFE] = 1 + rnd.nextInt(Math.max(1, (int) (2 * heroHit * t.turns)));
+        g[VELOCIDAD] = velocidadMin == velocidadMax ? velocidadMin : rnd.nextInt(velocidadMin, velocidadMax + 1);
+        return clamp(g);
+    }
+
+    private int[] clamp(int[] g) {
+        g[ATTACK] = Math.max(0, Math.min(GENE_MAX[ATTACK], g[ATTACK]));
+        g[DEFENSE] = Math.max(0, Math.min(GENE_MAX[DEFENSE], g[DEFENSE]));
+        g[LIFE] = Math.max(1, Math.min(GENE_MAX[LIFE], g[LIFE]));
+        g[VELOCIDAD] = Math.max(velocidadMin, Math.min(velocidadMax, g[VELOCIDAD]));
+        return g;
+    }
+
+    private static long key(int[] g) {
+        return (long) g[ATTACK] << 40 | (long) g[DEFENSE] << 28 | (long) g[LIFE] << 12 | g[VELOCIDAD];
+    }
+
+    private Score evaluate(int[] g, Target t, long heroSeed, Map<Long, Score> cache, AtomicLong hits,
+            ThreadLocal<Arena> arenas) {
+        long key = key(g);
+        Score s = cache.get(key);
+        if (s == null) {
+            s = simulate(g, t, heroSeed, arenas.get());
+            Score previous = cache.putIfAbsent(key, s);
+            if (previous != null) {
+                s = previous;
+            }
+        } else {
+            hits.incrementAndGet();
+        }
+        return s;
+    }
+
+    private Score simulate(int[] g, Target t, long heroSeed, Arena arena) {
+        Score s = new Score();
+        SplittableRandom rnd = new SplittableRandom(heroSeed);
+        Hero hero = arena.hero;
+        boolean enough = false;
+        while (!enough) {
+            int b = 0;
+            while (b < BATCH) {
+                hero.setAttack(vary(t.heroAttack, rnd));
+                hero.setDefense(vary(t.heroDefense, rnd));
+                int life = vary(t.heroLife, rnd);
+                hero.setLife(life);
+                hero.setActualLife(life);
+
+                arena.fighters.clear();
+                int i = 0;
+                while (i < arena.monsters.length) {
+                    Monster m = arena.monsters[i];
+                    m.setAttack(g[ATTACK]);
+                    m.setDefense(g[DEFENSE]);
+                    m.setVelocidad(g[VELOCIDAD]);
+                    m.setLife(g[LIFE]);
+                    m.setActualLife(g[LIFE]);
+                    arena.fighters.add(m);
+                    i = i + 1;
+                }
+
+                Encounter e = new Encounter(hero, arena.fighters);
+                if (arena.engine.resolve(e, maxTurns) == Encounter.Outcome.VICTORY) {
+                    s.wins = s.wins + 1;
+                }
+                s.turns = s.turns + e.getTurn();
+                s.fights = s.fights + 1;
+                b = b + 1;
+            }
+            enough = s.fights >= maxFights || (s.fights >= MIN_FIGHTS && s.halfWidth() <= confidence);
+        }
+        double winError = s.winRate() - t.winRate;
+        double turnsError = (s.meanTurns() - t.turns) / t.turns;
+        s.error = winError * winError + TURNS_WEIGHT * turnsError * turnsError;
+        return s;
+    }
+
+    private int vary(int value, SplittableRandom rnd) {
+        return Math.max(1, (int) Math.round(value * (1 + spread * (2 * rnd.nextDouble() - 1))));
+    }
+}
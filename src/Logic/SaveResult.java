@@ -0,0 +1,62 @@
+package Logic;
+
+import Utils.SaveMetrics;
+import Utils.SaveSummary;
+
+import java.io.File;
+
+/**
+ * Resultado de un guardado en segundo plano. Si varias peticiones se
+ * agruparon en una sola escritura, todas reciben el mismo resultado y
+ * getCoalesced() indica cuántas se cubrieron.
+ */
+public class SaveResult {
+
+    private final File file;
+    private final boolean saved;
+    private final SaveMetrics metrics;
+    private final long elapsedNanos;
+    private final int coalesced;
+    private final Throwable error;
+
+    public SaveResult(File file, boolean saved, SaveMetrics metrics, long elapsedNanos, int coalesced,
+            Throwable error) {
+        this.file = file;
+        this.saved = saved;
+        this.metrics = metrics;
+        this.elapsedNanos = elapsedNanos;
+        this.coalesced = coalesced;
+        this.error = error;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public boolean isSaved() {
+        return saved;
+    }
+
+    /**
+     * Bytes escritos en disco, cabecera incluida.
+     */
+    public long getBytes() {
+        return metrics == null ? 0 : SaveSummary.HEADER_SIZE + metrics.getStoredBytes();
+    }
+
+    public SaveMetrics getMetrics() {
+        return metrics;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public int getCoalesced() {
+        return coalesced;
+    }
+
+    public Throwable getError() {
+        return error;
+    }
+}
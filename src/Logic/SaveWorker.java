@@ -0,0 +1,109 @@
+package Logic;
+
+import Characters.Hero;
+import Utils.SaveCodec;
+import Utils.SaveMetrics;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Escritor de partidas en un hilo virtual. Recibe copias del Hero tomadas en
+ * el hilo de JavaFX y las codifica y escribe fuera de él. Si llegan varias
+ * peticiones para el mismo archivo antes de que empiece la escritura, solo se
+ * escribe la última y todas las peticiones pendientes se completan con ese
+ * resultado.
+ */
+class SaveWorker {
+
+    private static class Job {
+
+        Hero snapshot;
+        LocalDateTime playedTime;
+        boolean compress;
+        int journalId;
+        int journalSeq;
+        final List<CompletableFuture<SaveResult>> waiters = new ArrayList<>();
+    }
+
+    private final Map<File, Job> pending = new LinkedHashMap<>();
+    private final SaveCodec codec = new SaveCodec();
+    private boolean running = false;
+    private CompletableFuture<Void> idle = CompletableFuture.completedFuture(null);
+
+    CompletableFuture<SaveResult> submit(File file, Hero snapshot, LocalDateTime playedTime, boolean compress,
+            int journalId, int journalSeq) {
+        CompletableFuture<SaveResult> future = new CompletableFuture<>();
+        synchronized (this) {
+            Job job = pending.get(file);
+            if (job == null) {
+                job = new Job();
+                pending.put(file, job);
+            }
+            job.snapshot = snapshot;
+            job.playedTime = playedTime;
+            job.compress = compress;
+            job.journalId = journalId;
+            job.journalSeq = journalSeq;
+            job.waiters.add(future);
+            if (!running) {
+                running = true;
+                idle = new CompletableFuture<>();
+                Thread.ofVirtual().name("save-writer").start(this::drain);
+            }
+        }
+        return future;
+    }
+
+    /**
+     * Bloquea hasta que no quede ninguna escritura pendiente.
+     */
+    void awaitIdle() {
+        CompletableFuture<Void> current;
+        synchronized (this) {
+            current = idle;
+        }
+        current.join();
+    }
+
+    private void drain() {
+        boolean more = true;
+        while (more) {
+            File file = null;
+            Job job = null;
+            synchronized (this) {
+                Iterator<Map.Entry<File, Job>> it = pending.entrySet().iterator();
+                if (it.hasNext()) {
+                    Map.Entry<File, Job> e = it.next();
+                    file = e.getKey();
+                    job = e.getValue();
+                    it.remove();
+                } else {
+                    running = false;
+                    idle.complete(null);
+                    more = false;
+                }
+            }
+            if (job != null) {
+                SaveResult result;
+                long start = System.nanoTime();
+                try {
+                    SaveMetrics metrics = Game.writeSaveFile(file, codec, job.snapshot, job.playedTime,
+                            job.compress, job.journalId, job.journalSeq);
+                    result = new SaveResult(file, true, metrics, System.nanoTime() - start, job.waiters.size(), null);
+                } catch (Throwable t) {
+                    result = new SaveResult(file, false, null, System.nanoTime() - start, job.waiters.size(), t);
+                }
+                for (CompletableFuture<SaveResult> f : job.waiters) {
+                    f.complete(result);
+                }
+            }
+        }
+    }
+}
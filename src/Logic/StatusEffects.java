@@ -0,0 +1,312 @@
+package Logic;
+
+import Characters.Monster;
+import Items.Effect;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estados activos de un combate: venenos, quemaduras y aturdimientos. Los
+ * crea el Encounter la primera vez que un golpe aplica un efecto, así que un
+ * combate sin efectos no paga nada.
+ *
+ * Cada combatiente se identifica por su orden de entrada (0 el héroe, desde
+ * 1 los monstruos, como en TurnScheduler) y lleva la suma del daño por turno
+ * de sus venenos y quemaduras. Cada veneno o quemadura es un nodo de una
+ * rueda de tiempo de WHEEL casillas, en la del turno en que se acaba; al
+ * empezar cada turno solo se recorren los nodos que vencen en él. Los nodos
+ * se reservan al crear el objeto y se reutilizan, de modo que aplicar y
+ * avanzar un turno no crea objetos. Un estado que dure más de WHEEL turnos
+ * da varias vueltas a la rueda antes de vencer.
+ *
+ * Los combatientes que reciben daño por turno se guardan además en una
+ * lista compacta, así que el daño de cada turno solo recorre a esos y no a
+ * todos los que entraron al combate.
+ */
+class StatusEffects {
+
+    private static final int WHEEL = 32;
+    private static final int MASK = WHEEL - 1;
+    // Quemaduras a la vez por combatiente; las que pasen de aquí se pierden
+    private static final int MAX_BURNS = 4;
+
+    private final Monster[] targets;
+    private final Map<Monster, Integer> orders;
+    // Daño por turno de todos los estados de cada combatiente
+    private final int[] rate;
+    private final int[] poisonNode;
+    private final int[] burns;
+    private final int[] stunMeter;
+    private final int[] stunned;
+    // Combatientes con daño por turno y no derrotados, y su posición en la lista (-1 si no está)
+    private final int[] damaged;
+    private final int[] damagedPos;
+    private int damagedCount = 0;
+
+    private final int[] head = new int[WHEEL];
+    private final int[] next;
+    private final int[] prev;
+    private final int[] target;
+    private final int[] damage;
+    private final int[] expires;
+    private int free;
+    private int active = 0;
+
+    StatusEffects(Encounter encounter) {
+        int n = encounter.getSize() + 1;
+        targets = new Monster[n];
+        orders = new IdentityHashMap<>(n);
+        Monster[] entered = encounter.getEntered();
+        int i = 1;
+        while (i < n) {
+            targets[i] = entered[i - 1];
+            orders.putIfAbsent(entered[i - 1], i);
+            i = i + 1;
+        }
+        rate = new int[n];
+        poisonNode = new int[n];
+        burns = new int[n];
+        stunMeter = new int[n];
+        stunned = new int[n];
+        damaged = new int[n];
+        damagedPos = new int[n];
+        int capacity = n * (1 + MAX_BURNS);
+        next = new int[capacity];
+        prev = new int[capacity];
+        target = new int[capacity];
+        damage = new int[capacity];
+        expires = new int[capacity];
+        i = 0;
+        while (i < n) {
+            poisonNode[i] = -1;
+            damagedPos[i] = -1;
+            i = i + 1;
+        }
+        i = 0;
+        while (i < WHEEL) {
+            head[i] = -1;
+            i = i + 1;
+        }
+        // Lista de nodos libres encadenados por next
+        i = 0;
+        while (i < capacity) {
+            next[i] = i + 1 < capacity ? i + 1 : -1;
+            i = i + 1;
+        }
+        free = 0;
+    }
+
+    /**
+     * Número de combatientes, contando al héroe.
+     */
+    int size() {
+        return targets.length;
+    }
+
+    /**
+     * Orden de entrada de m, o 0 si es null (el héroe).
+     */
+    int indexOf(Monster m) {
+        Integer order = m == null ? null : orders.get(m);
+        return order == null ? 0 : order;
+    }
+
+    /**
+     * Posición en monsters, los monstruos que siguen en pie, del de orden de
+     * entrada index, o -1 si ya no está. La lista conserva el orden de
+     * entrada, así que se busca por bisección.
+     */
+    int liveIndex(List<Monster> monsters, int index) {
+        int result = -1;
+        int low = 0;
+        int high = Math.min(monsters.size(), index) - 1;
+        while (low <= high && result < 0) {
+            int mid = (low + high) >>> 1;
+            int order = indexOf(monsters.get(mid));
+            if (order == index) {
+                result = mid;
+            } else if (order < index) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Monstruo con orden de entrada index, o null para el héroe.
+     */
+    Monster getTarget(int index) {
+        return targets[index];
+    }
+
+    /**
+     * Daño por turno que recibe el combatiente index.
+     */
+    int getRate(int index) {
+        return rate[index];
+    }
+
+    /**
+     * Número de combatientes con daño por turno, contando al héroe.
+     */
+    int getDamagedCount() {
+        return damagedCount;
+    }
+
+    /**
+     * Orden de entrada del combatiente en la posición pos de la lista de los
+     * que reciben daño por turno. El orden de la lista cambia al quitar.
+     */
+    int getDamaged(int pos) {
+        return damaged[pos];
+    }
+
+    /**
+     * Saca de la lista de daño por turno al combatiente index, derrotado.
+     * Sus estados siguen en la rueda hasta que vencen.
+     */
+    void defeated(int index) {
+        removeDamaged(index);
+    }
+
+    /**
+     * Aplica el efecto de un golpe de source a victim en el turno turn.
+     */
+    void apply(Effect e, int source, int victim, int turn) {
+        if (e.getPoisonTurns() > 0) {
+            int node = poisonNode[victim];
+            if (node >= 0) {
+                unlink(node);
+                rate[victim] = rate[victim] - damage[node];
+                damage[node] = Math.max(damage[node], e.getPoisonDamage());
+            } else {
+                node = allocate(victim, e.getPoisonDamage());
+                poisonNode[victim] = node;
+            }
+            rate[victim] = rate[victim] + damage[node];
+            addDamaged(victim);
+            schedule(node, turn + e.getPoisonTurns());
+        }
+        if (e.getBurnTurns() > 0 && burns[victim] < MAX_BURNS) {
+            int node = allocate(victim, e.getBurnDamage());
+            burns[victim] = burns[victim] + 1;
+            rate[victim] = rate[victim] + damage[node];
+            addDamaged(victim);
+            schedule(node, turn + e.getBurnTurns());
+        }
+        if (e.getStunActions() > 0) {
+            stunMeter[source] = stunMeter[source] + e.getStunPercent();
+            if (stunMeter[source] >= 100) {
+                stunMeter[source] = stunMeter[source] - 100;
+                stunned[victim] = Math.max(stunned[victim], e.getStunActions());
+            }
+        }
+    }
+
+    /**
+     * true si index está aturdido y pierde esta acción.
+     */
+    boolean consumeStun(int index) {
+        boolean result = stunned[index] > 0;
+        if (result) {
+            stunned[index] = stunned[index] - 1;
+        }
+        return result;
+    }
+
+    /**
+     * Quita los estados que vencen en turn. Se llama una vez por turno,
+     * después de aplicar el daño del turno.
+     */
+    void expire(int turn) {
+        if (active > 0) {
+            int node = head[turn & MASK];
+            while (node >= 0) {
+                int following = next[node];
+                if (expires[node] <= turn) {
+                    int victim = target[node];
+                    rate[victim] = rate[victim] - damage[node];
+                    if (rate[victim] == 0) {
+                        removeDamaged(victim);
+                    }
+                    if (poisonNode[victim] == node) {
+                        poisonNode[victim] = -1;
+                    } else {
+                        burns[victim] = burns[victim] - 1;
+                    }
+                    unlink(node);
+                    release(node);
+                }
+                node = following;
+            }
+        }
+    }
+
+    /**
+     * Estados de veneno o quemadura activos.
+     */
+    int getActive() {
+        return active;
+    }
+
+    private void addDamaged(int index) {
+        if (damagedPos[index] < 0 && rate[index] > 0) {
+            damaged[damagedCount] = index;
+            damagedPos[index] = damagedCount;
+            damagedCount = damagedCount + 1;
+        }
+    }
+
+    // Quita index de la lista poniendo en su sitio el último
+    private void removeDamaged(int index) {
+        int pos = damagedPos[index];
+        if (pos >= 0) {
+            damagedCount = damagedCount - 1;
+            int last = damaged[damagedCount];
+            damaged[pos] = last;
+            damagedPos[last] = pos;
+            damagedPos[index] = -1;
+        }
+    }
+
+    private int allocate(int victim, int amount) {
+        int node = free;
+        free = next[node];
+        target[node] = victim;
+        damage[node] = amount;
+        active = active + 1;
+        return node;
+    }
+
+    private void release(int node) {
+        next[node] = free;
+        free = node;
+        active = active - 1;
+    }
+
+    private void schedule(int node, int turn) {
+        int slot = turn & MASK;
+        expires[node] = turn;
+        prev[node] = -1;
+        next[node] = head[slot];
+        if (head[slot] >= 0) {
+            prev[head[slot]] = node;
+        }
+        head[slot] = node;
+    }
+
+    private void unlink(int node) {
+        if (prev[node] >= 0) {
+            next[prev[node]] = next[node];
+        } else {
+            head[expires[node] & MASK] = next[node];
+        }
+        if (next[node] >= 0) {
+            prev[next[node]] = prev[node];
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package Logic;
+
+import Characters.Hero;
+import Characters.Monster;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Orden de turnos por iniciativa. Cada combatiente llena una barra de
+ * GAUGE puntos a razón de su velocidad, y actúa cuando se llena; el que
+ * tiene la barra llena antes es el siguiente. Un monstruo con el doble de
+ * velocidad que el héroe actúa dos veces por cada acción del héroe.
+ *
+ * Las entradas van en una cola de prioridad por el instante en que estarán
+ * listas, así que sacar el siguiente turno cuesta O(log n). Los monstruos
+ * derrotados no se buscan en la cola: se descartan cuando llegan al frente.
+ * Los empates se resuelven por orden de entrada (el héroe primero y luego
+ * los monstruos en su orden), sin azar, de modo que el mismo combate da
+ * siempre el mismo orden.
+ */
+public class TurnScheduler {
+
+    // Múltiplo de 1..16, para que las velocidades habituales den retrasos exactos
+    static final long GAUGE = 720720;
+
+    /**
+     * Un turno en la cola: quién actúa y cuándo.
+     */
+    public static class Initiative {
+
+        private final Monster monster;
+        private final int order;
+        private long readyAt;
+
+        Initiative(Monster monster, int order, long readyAt) {
+            this.monster = monster;
+            this.order = order;
+            this.readyAt = readyAt;
+        }
+
+        public boolean isHero() {
+            return monster == null;
+        }
+
+        /**
+         * Posición de entrada al combate: 0 el héroe, y desde 1 los monstruos.
+         */
+        int getOrder() {
+            return order;
+        }
+
+        /**
+         * Monstruo que actúa, o null si es el turno del héroe.
+         */
+        public Monster getMonster() {
+            return monster;
+        }
+
+        /**
+         * Instante del combate en que actúa, en puntos de barra.
+         */
+        public long getReadyAt() {
+            return readyAt;
+        }
+    }
+
+    private static final Comparator<Initiative> ORDER = Comparator
+            .comparingLong((Initiative i) -> i.readyAt)
+            .thenComparingInt(i -> i.order);
+
+    private final Hero hero;
+    private final PriorityQueue<Initiative> queue;
+
+    public TurnScheduler(Hero hero, List<Monster> monsters) {
+        this.hero = hero;
+        this.queue = new PriorityQueue<>(monsters.size() + 1, ORDER);
+        queue.add(new Initiative(null, 0, delay(hero.getCombatStats().getVelocidad())));
+        int i = 0;
+        while (i < monsters.size()) {
+            Monster m = monsters.get(i);
+            queue.add(new Initiative(m, i + 1, delay(m.getCombatStats().getVelocidad())));
+            i = i + 1;
+        }
+    }
+
+    private static long delay(int velocidad) {
+        return GAUGE / Math.max(1, velocidad);
+    }
+
+    /**
+     * Instante del próximo turno de monster, o del héroe si es null; -1 si
+     * no está en la cola.
+     */
+    long readyAt(Monster monster) {
+        long at = -1;
+        for (Initiative i : queue) {
+            if (i.monster == monster) {
+                at = i.readyAt;
+            }
+        }
+        return at;
+    }
+
+    private int velocidad(Initiative i) {
+        return i.isHero() ? hero.getCombatStats().getVelocidad() : i.monster.getCombatStats().getVelocidad();
+    }
+
+    private static boolean isAlive(Initiative i) {
+        return i.monster == null || i.monster.getActualLife() > 0;
+    }
+
+    /**
+     * Turno que viene, sin consumirlo, o null si no queda nadie.
+     */
+    public Initiative peek() {
+        while (!queue.isEmpty() && !isAlive(queue.peek())) {
+            queue.poll();
+        }
+        return queue.peek();
+    }
+
+    public boolean isHeroNext() {
+        Initiative next = peek();
+        return next != null && next.isHero();
+    }
+
+    /**
+     * Consume el turno que viene y lo vuelve a programar según la velocidad
+     * actual de quien actúa. Devuelve la entrada de quien actúa, ya con el
+     * instante de su siguiente turno, o null si no queda nadie.
+     */
+    public Initiative next() {
+        Initiative next = peek();
+        if (next != null) {
+            queue.poll();
+            int velocidad = velocidad(next);
+            next.readyAt = next.readyAt + delay(velocidad);
+            queue.add(next);
+        }
+        return next;
+    }
+
+    /**
+     * Los próximos count turnos, en orden, suponiendo que nadie cae ni
+     * cambia de velocidad. No modifica la cola.
+     */
+    public List<Initiative> preview(int count) {
+        PriorityQueue<Initiative> copy = new PriorityQueue<>(Math.max(1, queue.size()), ORDER);
+        for (Initiative i : queue) {
+            if (isAlive(i)) {
+                copy.add(new Initiative(i.monster, i.order, i.readyAt));
+            }
+        }
+        List<Initiative> turns = new ArrayList<>(count);
+        while (turns.size() < count && !copy.isEmpty()) {
+            Initiative i = copy.poll();
+            turns.add(new Initiative(i.monster, i.order, i.readyAt));
+            int velocidad = velocidad(i);
+            i.readyAt = i.readyAt + delay(velocidad);
+            copy.add(i);
+        }
+        return turns;
+    }
+}
@@ -7,4 +7,52 @@ public class Task {
     private String id;
     private boolean state;
     private boolean mainQuest;
+
+    public Task(String name, String info, String id, boolean state, boolean mainQuest) {
+        setName(name);
+        setInfo(info);
+        setId(id);
+        setState(state);
+        setMainQuest(mainQuest);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getInfo() {
+        return info;
+    }
+
+    public void setInfo(String info) {
+        this.info = info;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public boolean isState() {
+        return state;
+    }
+
+    public void setState(boolean state) {
+        this.state = state;
+    }
+
+    public boolean isMainQuest() {
+        return mainQuest;
+    }
+
+    public void setMainQuest(boolean mainQuest) {
+        this.mainQuest = mainQuest;
+    }
 }
@@ -0,0 +1,90 @@
+package Runner;
+
+import Logic.BalanceReport;
+import Logic.BalanceSimulation;
+import Logic.BalanceSimulation.Range;
+import Logic.Game;
+
+/**
+ * Simulación de equilibrio sin interfaz gráfica. Resuelve millones de
+ * combates con estadísticas al azar dentro de los rangos indicados y las
+ * armas y armaduras del catálogo del juego, y muestra la tasa de victorias,
+ * los turnos hasta ganar, el daño por golpe y la vida restante del héroe.
+ *
+ * Uso: BalanceRunner [-n combates] [-seed semilla] [-j hilos] [-turns máximo]
+ * [-hero-attack a:b] [-hero-defense a:b] [-hero-life a:b] [-hero-velocidad a:b]
+ * [-monster-attack a:b] [-monster-defense a:b] [-monster-life a:b]
+ * [-monster-velocidad a:b] [-monsters a:b] [-monster-weapons]
+ */
+public class BalanceRunner {
+
+    private static final String USAGE = "Uso: BalanceRunner [-n combates] [-seed semilla] [-j hilos] "
+            + "[-turns máximo] [-hero-attack a:b] [-hero-defense a:b] [-hero-life a:b] "
+            + "[-hero-velocidad a:b] [-monster-attack a:b] [-monster-defense a:b] [-monster-life a:b] "
+            + "[-monster-velocidad a:b] [-monsters a:b] [-monster-weapons]";
+
+    public static void main(String[] args) {
+        BalanceSimulation sim = new BalanceSimulation(Game.itemCatalog());
+        long fights = 1_000_000;
+        long seed = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean usage = false;
+        int i = 0;
+        try {
+            while (i < args.length && !usage) {
+                String value = i + 1 < args.length ? args[i + 1] : null;
+                int used = 2;
+                if (args[i].equals("-monster-weapons")) {
+                    sim.setMonstersUseCatalog(true);
+                    used = 1;
+                } else if (value == null) {
+                    usage = true;
+                } else if (args[i].equals("-n")) {
+                    fights = Long.parseLong(value);
+                } else if (args[i].equals("-seed")) {
+                    seed = Long.parseLong(value);
+                } else if (args[i].equals("-j")) {
+                    threads = Integer.parseInt(value);
+                } else if (args[i].equals("-turns")) {
+                    sim.setMaxTurns(Integer.parseInt(value));
+                } else if (args[i].equals("-hero-attack")) {
+                    sim.setHeroAttack(Range.parse(value));
+                } else if (args[i].equals("-hero-defense")) {
+                    sim.setHeroDefense(Range.parse(value));
+                } else if (args[i].equals("-hero-life")) {
+                    sim.setHeroLife(Range.parse(value));
+                } else if (args[i].equals("-hero-velocidad")) {
+                    sim.setHeroVelocidad(Range.parse(value));
+                } else if (args[i].equals("-monster-attack")) {
+                    sim.setMonsterAttack(Range.parse(value));
+                } else if (args[i].equals("-monster-defense")) {
+                    sim.setMonsterDefense(Range.parse(value));
+                } else if (args[i].equals("-monster-life")) {
+                    sim.setMonsterLife(Range.parse(value));
+                } else if (args[i].equals("-monster-velocidad")) {
+                    sim.setMonsterVelocidad(Range.parse(value));
+                } else if (args[i].equals("-monsters")) {
+                    sim.setMonsterCount(Range.parse(value));
+                } else {
+                    usage = true;
+                }
+                i = i + used;
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            usage = true;
+        }
+        if (usage || fights < 1 || threads < 1) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        System.out.println("Configuración: " + sim);
+        System.out.printf("Semilla %d, %d hilos%n", seed, threads);
+        long start = System.nanoTime();
+        BalanceReport report = sim.run(fights, seed, threads);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.print(report);
+        System.out.printf("%.2f s, %.0f combates/s%n", seconds, fights / seconds);
+    }
+}
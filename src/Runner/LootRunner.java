@@ -0,0 +1,81 @@
+package Runner;
+
+import Logic.Game;
+import Logic.LootSimulation;
+import Logic.LootTable;
+import Logic.LootTables;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Valida las tablas de botín del archivo de datos: tira cada una muchas
+ * veces con LootSimulation y compara las veces que sale cada entrada con la
+ * probabilidad de su peso. Termina con código 1 si alguna no cuadra.
+ *
+ * Uso: LootRunner [-table clave] [-n tiradas] [-seed semilla] [-j hilos]
+ */
+public class LootRunner {
+
+    private static final String USAGE = "Uso: LootRunner [-table clave] [-n tiradas] [-seed semilla] [-j hilos]";
+
+    public static void main(String[] args) {
+        String key = null;
+        long rolls = 100_000_000;
+        long seed = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean usage = false;
+        int i = 0;
+        try {
+            while (i < args.length && !usage) {
+                String value = i + 1 < args.length ? args[i + 1] : null;
+                if (value == null) {
+                    usage = true;
+                } else if (args[i].equals("-table")) {
+                    key = value;
+                } else if (args[i].equals("-n")) {
+                    rolls = Long.parseLong(value);
+                } else if (args[i].equals("-seed")) {
+                    seed = Long.parseLong(value);
+                } else if (args[i].equals("-j")) {
+                    threads = Integer.parseInt(value);
+                } else {
+                    usage = true;
+                }
+                i = i + 2;
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            usage = true;
+        }
+        if (usage || rolls < 1 || threads < 1) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        LootTables tables = new LootTables(Game.itemCatalog(), LootTables.DEFAULT_PATH);
+        List<LootTable> selected = new ArrayList<>();
+        if (key == null) {
+            selected.addAll(tables.getTables().values());
+        } else if (tables.get(key) != null) {
+            selected.add(tables.get(key));
+        } else {
+            System.err.println("Error: no existe la tabla " + key);
+            System.exit(2);
+        }
+
+        System.out.printf("Semilla %d, %d hilos%n", seed, threads);
+        boolean ok = true;
+        for (LootTable table : selected) {
+            long start = System.nanoTime();
+            LootSimulation.Report report = new LootSimulation(table).run(rolls, seed, threads);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.print(report);
+            System.out.printf("  %.2f s, %.0f tiradas/s%n", seconds, rolls / seconds);
+            ok = ok && report.isConsistent();
+        }
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+}
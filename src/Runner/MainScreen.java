@@ -37,7 +37,6 @@ import javafx.util.Duration;
 import javafx.scene.effect.DropShadow;
 import javafx.scene.effect.BlurType;
 import javafx.scene.text.FontWeight;
-import java.io.File;
 import java.net.URL;
 import java.util.Optional;
 
@@ -56,6 +55,8 @@ public class MainScreen extends GameApplication {
     private double volumeSetting = 0.7;
     private MediaPlayer bgMusic;
     private boolean configOpen = false;
+    // "Continuar" ya está cargando la partida en segundo plano
+    private boolean loadingSave = false;
     private static final double CURSOR_UP_OFFSET = 8.0;
     private GameMapScreen currentMapScreen;
     private static final int DURACION_CARGA_MS = 600;
@@ -147,7 +148,7 @@ public class MainScreen extends GameApplication {
             if (n instanceof Button) {
                 Button b = (Button) n;
                 if ("Continuar".equals(b.getText())) {
-                    boolean saveExists = (game != null && game.getSave() != null && game.getSave().exists());
+                    boolean saveExists = (game != null && game.getSave() != null && game.hasSaveGame());
                     b.setDisable(!saveExists);
                     if (b.isDisable()) {
                         b.setStyle("-fx-background-color: rgba(80,80,80,0.5); -fx-text-fill: rgba(200,200,200,0.7);");
@@ -341,18 +342,10 @@ public class MainScreen extends GameApplication {
             deleteBtn.setMinWidth(200);
             deleteBtn.setStyle("-fx-background-color: linear-gradient(#E57373,#EF5350); -fx-text-fill: white; -fx-font-weight: bold;");
             deleteBtn.setOnAction(e -> {
+                // Solo la partida principal: archives es el contenedor de todas las ranuras
                 boolean deleted = false;
                 if (game != null && game.getSave() != null) {
-                    File saveFile = game.getSave();
-                    if (saveFile.exists()) {
-                        deleted = saveFile.delete();
-                    }
-                }
-                if (!deleted && game != null && game.getArchives() != null) {
-                    File arch = game.getArchives();
-                    if (arch.exists()) {
-                        deleted = arch.delete();
-                    }
+                    deleted = game.deleteSaveGame();
                 }
                 Alert info = new Alert(Alert.AlertType.INFORMATION);
                 if (deleted) {
@@ -383,10 +376,10 @@ public class MainScreen extends GameApplication {
                 if (rootPane != null) {
                     rootPane.setCursor(Cursor.NONE);
                 }
+                boolean saveExists = (game != null && game.getSave() != null && game.hasSaveGame());
                 for (Node n : menuBox.getChildren()) {
                     if (n instanceof Button) {
                         Button b = (Button) n;
-                        boolean saveExists = (game != null && game.getSave() != null && game.getSave().exists());
                         if ("Continuar".equals(b.getText())) {
                             b.setDisable(!saveExists);
                             if (b.isDisable()) {
@@ -533,23 +526,40 @@ public class MainScreen extends GameApplication {
         st.play();
         switch (sel) {
             case "Continuar":
-                if (game.getSave().exists()) {
-                    boolean correct = game.readSaveGame();
-                    a = new Alert(Alert.AlertType.INFORMATION);
-                    if (correct) {
-                        a.setHeaderText("Partida Iniciada");
-                        a.setTitle("Iniciada la partida correctamente");
-                        a.setContentText("La partida se ha cargado correctamente: " + game.getHero().getName());
-                        a.showAndWait();
-                        stopBackgroundMusic();
-                        showLoadingThenMap();
-                    } else {
-                        a.setAlertType(Alert.AlertType.ERROR);
-                        a.setTitle("No se pudo iniciar la partida");
-                        a.setHeaderText("Incorrecto");
-                        a.setContentText("Error ");
-                        a.showAndWait();
-                    }
+                if (game.hasSaveGame() && !loadingSave) {
+                    // Carga completa fuera del hilo de la interfaz: espera a los guardados
+                    // pendientes, migra el formato antiguo y aplica el diario
+                    loadingSave = true;
+                    Thread.ofVirtual().name("save-load").start(() -> {
+                        boolean correct;
+                        try {
+                            correct = game.readSaveGame();
+                        } catch (RuntimeException e) {
+                            correct = false;
+                        }
+                        boolean loaded = correct;
+                        Platform.runLater(() -> {
+                            loadingSave = false;
+                            a = new Alert(Alert.AlertType.INFORMATION);
+                            if (loaded) {
+                                // El héroe ya cargado: la cabecera no incluye lo que se aplicó del diario
+                                Hero hero = game.getHero();
+                                a.setHeaderText("Partida Iniciada");
+                                a.setTitle("Iniciada la partida correctamente");
+                                a.setContentText("La partida se ha cargado correctamente: " + hero.getName()
+                                        + " (nivel " + hero.getLevel() + ", vida " + hero.getActualLife() + "/" + hero.getLife() + ")");
+                                a.showAndWait();
+                                stopBackgroundMusic();
+                                showLoadingThenMap();
+                            } else {
+                                a.setAlertType(Alert.AlertType.ERROR);
+                                a.setTitle("No se pudo iniciar la partida");
+                                a.setHeaderText("Incorrecto");
+                                a.setContentText("Error ");
+                                a.showAndWait();
+                            }
+                        });
+                    });
                 }
                 break;
             case "Nueva Partida":
@@ -557,30 +567,32 @@ public class MainScreen extends GameApplication {
                 String name = showNewGameDialog();
                 if (name != null) {
                     game.createHero(name);
-                    boolean cor = game.createSaveGame();
-                    a = new Alert(Alert.AlertType.INFORMATION);
-                    if (cor) {
-                        a.setHeaderText("Partida Creada");
-                        a.setTitle("Creada la partida correctamente");
-                        a.setContentText("Creada la partida con nombre: " + name);
-                        a.showAndWait();
-                        for (Node n : menuBox.getChildren()) {
-                            if (n instanceof Button) {
-                                Button b = (Button) n;
-                                if ("Continuar".equals(b.getText())) {
-                                    b.setDisable(false);
-                                    b.setStyle("-fx-background-color: rgba(0,0,0,0.6); -fx-text-fill: white; -fx-background-radius: 6; -fx-padding: 8 12 8 12;");
+                    // El guardado corre en segundo plano; el aviso se muestra al terminar
+                    game.createSaveGameAsync().thenAccept(result -> Platform.runLater(() -> {
+                        a = new Alert(Alert.AlertType.INFORMATION);
+                        if (result.isSaved()) {
+                            a.setHeaderText("Partida Creada");
+                            a.setTitle("Creada la partida correctamente");
+                            a.setContentText("Creada la partida con nombre: " + name);
+                            a.showAndWait();
+                            for (Node n : menuBox.getChildren()) {
+                                if (n instanceof Button) {
+                                    Button b = (Button) n;
+                                    if ("Continuar".equals(b.getText())) {
+                                        b.setDisable(false);
+                                        b.setStyle("-fx-background-color: rgba(0,0,0,0.6); -fx-text-fill: white; -fx-background-radius: 6; -fx-padding: 8 12 8 12;");
+                                    }
                                 }
                             }
+                            updateCursorSmooth();
+                        } else {
+                            a.setAlertType(Alert.AlertType.ERROR);
+                            a.setTitle("No se pudo crear la partida");
+                            a.setHeaderText("Incorrecto");
+                            a.setContentText("Error " + (result.getError() != null ? result.getError().getMessage() : ""));
+                            a.showAndWait();
                         }
-                        updateCursorSmooth();
-                    } else {
-                        a.setAlertType(Alert.AlertType.ERROR);
-                        a.setTitle("No se pudo crear la partida");
-                        a.setHeaderText("Incorrecto");
-                        a.setContentText("Error ");
-                        a.showAndWait();
-                    }
+                    }));
                 }
                 break;
             case "Configuración":
@@ -588,6 +600,9 @@ public class MainScreen extends GameApplication {
                 break;
             case "Salir":
                 stopBackgroundMusic();
+                if (game != null) {
+                    game.awaitPendingSave();
+                }
                 Platform.runLater(() -> Platform.exit());
                 break;
             default:
@@ -0,0 +1,197 @@
+package Runner;
+
+import Items.Armor;
+import Items.Item;
+import Items.Weapon;
+import Logic.Game;
+import Logic.MonsterTuner;
+import Logic.MonsterTuner.Result;
+import Logic.MonsterTuner.Target;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Ajusta las estadísticas de los monstruos nivel a nivel con MonsterTuner y
+ * escribe en la salida estándar las plantillas (MonsterTemplate) para
+ * Game.createMonsterTemplates, y el progreso en la de errores.
+ *
+ * El héroe del nivel 1 tiene las estadísticas de -hero y en cada nivel suma
+ * las de -growth. La tasa de victorias y los turnos objetivo van en línea
+ * recta del primer al último nivel. Las armas y armaduras son posiciones en
+ * Game.itemCatalog().
+ *
+ * Uso: MonsterTunerRunner [-levels n] [-hero ataque:defensa:vida]
+ * [-growth ataque:defensa:vida] [-win desde:hasta] [-turns desde:hasta]
+ * [-weapon i] [-armor i] [-monster-weapon i] [-monsters n] [-velocidad a:b]
+ * [-spread s] [-ci c] [-max-fights n] [-pop n] [-gens n] [-seed s] [-j hilos]
+ */
+public class MonsterTunerRunner {
+
+    private static final String USAGE = "Uso: MonsterTunerRunner [-levels n] [-hero ataque:defensa:vida] "
+            + "[-growth ataque:defensa:vida] [-win desde:hasta] [-turns desde:hasta] [-weapon i] [-armor i] "
+            + "[-monster-weapon i] [-monsters n] [-velocidad a:b] [-spread s] [-ci c] [-max-fights n] "
+            + "[-pop n] [-gens n] [-seed s] [-j hilos]";
+
+    public static void main(String[] args) {
+        List<Item> catalog = Game.itemCatalog();
+        int levels = 5;
+        int[] hero = {5, 4, 100};
+        int[] growth = {2, 1, 15};
+        double[] win = {0.9, 0.6};
+        double[] turns = {3, 6};
+        int weapon = 0;
+        int armor = 6;
+        int monsterWeapon = 0;
+        long seed = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<String[]> tunerArgs = new ArrayList<>();
+        boolean usage = false;
+        int i = 0;
+        try {
+            while (i < args.length && !usage) {
+                String value = i + 1 < args.length ? args[i + 1] : null;
+                if (value == null) {
+                    usage = true;
+                } else if (args[i].equals("-levels")) {
+                    levels = Integer.parseInt(value);
+                } else if (args[i].equals("-hero")) {
+                    hero = ints(value, 3);
+                } else if (args[i].equals("-growth")) {
+                    growth = ints(value, 3);
+                } else if (args[i].equals("-win")) {
+                    win = doubles(value);
+                } else if (args[i].equals("-turns")) {
+                    turns = doubles(value);
+                } else if (args[i].equals("-weapon")) {
+                    weapon = Integer.parseInt(value);
+                } else if (args[i].equals("-armor")) {
+                    armor = Integer.parseInt(value);
+                } else if (args[i].equals("-monster-weapon")) {
+                    monsterWeapon = Integer.parseInt(value);
+                } else if (args[i].equals("-seed")) {
+                    seed = Long.parseLong(value);
+                } else if (args[i].equals("-j")) {
+                    threads = Integer.parseInt(value);
+                } else if (args[i].startsWith("-")) {
+                    // Opciones del propio MonsterTuner, se aplican cuando ya existe
+                    tunerArgs.add(new String[]{args[i], value});
+                } else {
+                    usage = true;
+                }
+                i = i + 2;
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            usage = true;
+        }
+
+        MonsterTuner tuner = null;
+        List<Target> curve = new ArrayList<>();
+        if (!usage) {
+            try {
+                tuner = new MonsterTuner(item(catalog, weapon, Weapon.class), item(catalog, armor, Armor.class),
+                        item(catalog, monsterWeapon, Weapon.class));
+                for (String[] option : tunerArgs) {
+                    usage = usage || !configure(tuner, option[0], option[1]);
+                }
+                int level = 1;
+                while (level <= levels) {
+                    double f = levels == 1 ? 0.0 : (double) (level - 1) / (levels - 1);
+                    int step = level - 1;
+                    curve.add(new Target(level, hero[0] + growth[0] * step, hero[1] + growth[1] * step,
+                            hero[2] + growth[2] * step, win[0] + (win[1] - win[0]) * f,
+                            turns[0] + (turns[1] - turns[0]) * f));
+                    level = level + 1;
+                }
+            } catch (IllegalArgumentException e) {
+                System.err.println("Error: " + e.getMessage());
+                usage = true;
+            }
+        }
+        if (usage || levels < 1 || threads < 1) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        int status = 0;
+        try {
+            long start = System.nanoTime();
+            List<Result> results = tuner.tune(curve, seed, threads);
+            for (Result r : results) {
+                System.err.printf(Locale.ROOT, "nivel %d: %d generaciones, %d candidatos simulados, %d repetidos%n",
+                        r.getTarget().getLevel(), r.getGenerations(), r.getEvaluations(), r.getCacheHits());
+            }
+            System.err.printf(Locale.ROOT, "%.1f s%n", (System.nanoTime() - start) / 1e9);
+            for (Result r : results) {
+                Target t = r.getTarget();
+                System.out.printf(Locale.ROOT, "        // Nivel %d contra %d: victorias %.1f%% ± %.1f (objetivo %.1f%%), "
+                        + "%.2f turnos (objetivo %.2f)%n", t.getLevel(), tuner.getMonsterCount(),
+                        r.getWinRate() * 100, r.getHalfWidth() * 100, t.getWinRate() * 100, r.getMeanTurns(),
+                        t.getTurns());
+                System.out.printf("        monsterRegistry.register(new MonsterTemplate(\"lv%d\", \"Monster Lv%d\", "
+                        + "(Weapon) items.get(%d), %d, %d, %d, %d, %d, %d, null, false));%n", t.getLevel(),
+                        t.getLevel(), monsterWeapon, r.getAttack(), 0, r.getDefense(), r.getVelocidad(), t.getLevel(),
+                        r.getLife());
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            System.err.println("Error: " + e.getMessage());
+            status = 2;
+        }
+        System.exit(status);
+    }
+
+    private static boolean configure(MonsterTuner tuner, String option, String value) {
+        boolean known = true;
+        if (option.equals("-monsters")) {
+            tuner.setMonsterCount(Integer.parseInt(value));
+        } else if (option.equals("-velocidad")) {
+            int[] v = ints(value, 2);
+            tuner.setVelocidad(v[0], v[1]);
+        } else if (option.equals("-spread")) {
+            tuner.setSpread(Double.parseDouble(value));
+        } else if (option.equals("-ci")) {
+            tuner.setConfidence(Double.parseDouble(value));
+        } else if (option.equals("-max-fights")) {
+            tuner.setMaxFights(Long.parseLong(value));
+        } else if (option.equals("-pop")) {
+            tuner.setPopulation(Integer.parseInt(value));
+        } else if (option.equals("-gens")) {
+            tuner.setMaxGenerations(Integer.parseInt(value));
+        } else {
+            known = false;
+        }
+        return known;
+    }
+
+    private static <T extends Item> T item(List<Item> catalog, int index, Class<T> type) {
+        if (index < 0 || index >= catalog.size() || !type.isInstance(catalog.get(index))) {
+            throw new IllegalArgumentException("El item " + index + " del catálogo no es " + type.getSimpleName());
+        }
+        return type.cast(catalog.get(index));
+    }
+
+    private static int[] ints(String text, int count) {
+        String[] parts = text.split(":");
+        if (parts.length != count) {
+            throw new IllegalArgumentException("Se esperaban " + count + " valores: " + text);
+        }
+        int[] values = new int[count];
+        int i = 0;
+        while (i < count) {
+            values[i] = Integer.parseInt(parts[i].trim());
+            i = i + 1;
+        }
+        return values;
+    }
+
+    private static double[] doubles(String text) {
+        String[] parts = text.split(":");
+        double[] values = new double[2];
+        values[0] = Double.parseDouble(parts[0].trim());
+        values[1] = parts.length > 1 ? Double.parseDouble(parts[1].trim()) : values[0];
+        return values;
+    }
+}
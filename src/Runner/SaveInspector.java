@@ -0,0 +1,351 @@
+package Runner;
+
+import Characters.Hero;
+import Utils.Convert;
+import Utils.SaveCodec;
+import Utils.SaveContainer;
+import Utils.SaveJournal;
+import Utils.SaveSlot;
+import Utils.SaveStats;
+import Utils.SaveSummary;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Inspector de partidas sin interfaz gráfica. Recorre un directorio, verifica
+ * cada .sav (cabecera, longitud y CRC32C del cuerpo) y escribe una línea CSV
+ * por partida con nombre, nivel, vida, ubicación, recuentos de inventario y
+ * misiones y clases desbloqueadas. Un contenedor de ranuras produce una línea
+ * por ranura ocupada.
+ *
+ * Los datos son los del cuerpo de la partida. Si su diario (.jnl) tiene
+ * registros posteriores, el juego los aplicaría al cargar: la fila lo indica
+ * con el estado PENDING y el número de registros en pending, y sus valores
+ * no son los actuales.
+ *
+ * No arranca JavaFX ni crea el Hero de las partidas actuales, y no modifica
+ * nada: las partidas antiguas se leen pero no se migran.
+ *
+ * Uso: SaveInspector directorio [-o salida.csv] [-j hilos]
+ */
+public class SaveInspector {
+
+    private static final String CSV_HEADER = "file,status,codec,name,level,hp,max_hp,location,pos_x,pos_y,"
+            + "items,weapons,tasks,completed_tasks,classes,unlocked_classes,active_class,weapon,armor,"
+            + "stored_bytes,raw_bytes,journal_id,journal_seq,pending,error";
+
+    // Estado de cada partida en la columna status
+    private static final String OK = "OK";
+    private static final String LEGACY = "LEGACY";
+    // Correcta, pero el diario tiene cambios que el cuerpo no incluye
+    private static final String PENDING = "PENDING";
+    private static final String TRUNCATED = "TRUNCATED";
+    private static final String BAD_HEADER = "BAD_HEADER";
+    private static final String BAD_CHECKSUM = "BAD_CHECKSUM";
+    private static final String CORRUPT = "CORRUPT";
+    private static final String ERROR = "ERROR";
+
+    // SaveCodec reutiliza sus buffers y no es seguro entre hilos: uno por hilo del pool
+    private static final ThreadLocal<SaveCodec> CODECS = ThreadLocal.withInitial(SaveCodec::new);
+
+    private static class Row {
+
+        final String file;
+        String status = OK;
+        String codec;
+        String name;
+        Integer level;
+        Integer actualLife;
+        Integer life;
+        Hero.Location location;
+        Double posX;
+        Double posY;
+        SaveStats stats;
+        Integer storedBytes;
+        Integer rawBytes;
+        int journalId;
+        Integer journalSeq;
+        Integer pending;
+        String error;
+
+        Row(String file) {
+            this.file = file;
+        }
+
+        void summary(SaveSummary s) {
+            codec = s.getCodec() == SaveSummary.CODEC_DEFLATE ? "deflate" : "raw";
+            name = s.getName();
+            level = s.getLevel();
+            actualLife = s.getActualLife();
+            life = s.getLife();
+            location = s.getLocation();
+            posX = s.getPosX();
+            posY = s.getPosY();
+            storedBytes = s.getPayloadLength();
+            journalId = s.getJournalId();
+            journalSeq = s.getJournalSeq();
+        }
+
+        void hero(Hero h) {
+            codec = "serialized";
+            name = h.getName();
+            level = h.getLevel();
+            actualLife = h.getActualLife();
+            life = h.getLife();
+            location = h.getLastLocation();
+            posX = h.getLastPosX();
+            posY = h.getLastPosY();
+            stats = SaveStats.of(h);
+        }
+
+        void fail(String status, String error) {
+            this.status = status;
+            this.error = error;
+        }
+
+        boolean isHealthy() {
+            return status.equals(OK) || status.equals(LEGACY) || status.equals(PENDING);
+        }
+
+        String toCsv() {
+            StringBuilder sb = new StringBuilder(160);
+            sb.append(csv(file)).append(',').append(status).append(',').append(csv(codec)).append(',')
+                    .append(csv(name)).append(',').append(csv(level)).append(',').append(csv(actualLife))
+                    .append(',').append(csv(life)).append(',').append(csv(location)).append(',')
+                    .append(csv(posX)).append(',').append(csv(posY)).append(',');
+            if (stats != null) {
+                sb.append(stats.getItems()).append(',').append(stats.getWeapons()).append(',')
+                        .append(stats.getTasks()).append(',').append(stats.getCompletedTasks()).append(',')
+                        .append(stats.getClasses()).append(',').append(stats.getUnlockedClasses()).append(',')
+                        .append(csv(stats.getActiveClass())).append(',').append(csv(stats.getWeapon()))
+                        .append(',').append(csv(stats.getArmor())).append(',');
+            } else {
+                sb.append(",,,,,,,,,");
+            }
+            sb.append(csv(storedBytes)).append(',').append(csv(rawBytes)).append(',')
+                    .append(journalId == 0 ? "" : Integer.toHexString(journalId)).append(',')
+                    .append(csv(journalSeq)).append(',').append(csv(pending)).append(',').append(csv(error));
+            return sb.toString();
+        }
+    }
+
+    public static void main(String[] args) {
+        Path dir = null;
+        Path out = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean usage = false;
+        int i = 0;
+        while (i < args.length && !usage) {
+            if (args[i].equals("-o") && i + 1 < args.length) {
+                out = Paths.get(args[i + 1]);
+                i = i + 2;
+            } else if (args[i].equals("-j") && i + 1 < args.length) {
+                threads = Integer.parseInt(args[i + 1]);
+                i = i + 2;
+            } else if (dir == null && !args[i].startsWith("-")) {
+                dir = Paths.get(args[i]);
+                i = i + 1;
+            } else {
+                usage = true;
+            }
+        }
+        if (usage || dir == null || threads < 1 || !Files.isDirectory(dir)) {
+            System.err.println("Uso: SaveInspector directorio [-o salida.csv] [-j hilos]");
+            System.exit(2);
+        }
+
+        int status = 0;
+        try {
+            long start = System.nanoTime();
+            List<Row> rows = inspectAll(dir, threads);
+            int failed = 0;
+            try (Writer w = out == null
+                    ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+                    : Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+                w.write(CSV_HEADER);
+                w.write('\n');
+                for (Row r : rows) {
+                    w.write(r.toCsv());
+                    w.write('\n');
+                    if (!r.isHealthy()) {
+                        failed = failed + 1;
+                    }
+                }
+            }
+            System.err.printf("%d partidas, %d con errores, %.1f ms%n", rows.size(), failed,
+                    (System.nanoTime() - start) / 1_000_000.0);
+            // Código distinto de 0 para que la integración continua marque el lote
+            status = failed > 0 ? 1 : 0;
+        } catch (IOException | InterruptedException | ExecutionException e) {
+            System.err.println("Error: " + e.getMessage());
+            status = 2;
+        }
+        System.exit(status);
+    }
+
+    /**
+     * Inspecciona todos los .sav bajo dir en un ForkJoinPool de threads
+     * hilos. Las filas salen en el orden de las rutas, no en el de llegada.
+     */
+    private static List<Row> inspectAll(Path dir, int threads)
+            throws IOException, InterruptedException, ExecutionException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(dir)) {
+            files = walk.filter(p -> Files.isRegularFile(p) && p.getFileName().toString().endsWith(".sav"))
+                    .sorted()
+                    .toList();
+        }
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        List<Row> rows;
+        try {
+            rows = pool.submit(() -> files.parallelStream()
+                    .flatMap(p -> inspect(dir.relativize(p).toString(), p).stream())
+                    .toList()).get();
+        } finally {
+            pool.shutdown();
+        }
+        return rows;
+    }
+
+    private static List<Row> inspect(String name, Path file) {
+        List<Row> rows = new ArrayList<>(1);
+        SaveCodec codec = CODECS.get();
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Archivo demasiado grande: " + size + " bytes");
+            }
+            ByteBuffer all = codec.readBuffer((int) size);
+            long at = 0;
+            while (all.hasRemaining() && at < size) {
+                int n = ch.read(all, at);
+                if (n < 0) {
+                    at = size;
+                } else {
+                    at = at + n;
+                }
+            }
+            all.flip();
+            if (SaveContainer.isContainer(all)) {
+                inspectContainer(name, file, rows);
+            } else {
+                Row row = new Row(name);
+                inspectRecord(row, all, true);
+                inspectJournal(row, file);
+                rows.add(row);
+            }
+        } catch (IOException | RuntimeException e) {
+            Row row = new Row(name);
+            row.fail(CORRUPT, e.getMessage());
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static void inspectContainer(String name, Path file, List<Row> rows) throws IOException {
+        SaveContainer container = new SaveContainer(file.toFile());
+        for (SaveSlot slot : container.list()) {
+            if (!slot.isEmpty()) {
+                Row row = new Row(name + "#" + slot.getIndex());
+                try {
+                    inspectRecord(row, container.read(slot.getIndex()), false);
+                } catch (IOException | RuntimeException e) {
+                    row.fail(BAD_CHECKSUM, e.getMessage());
+                }
+                rows.add(row);
+            }
+        }
+    }
+
+    // Verifica cabecera, longitud y checksum y luego cuenta el contenido sin crear el Hero
+    private static void inspectRecord(Row row, ByteBuffer record, boolean allowLegacy) {
+        SaveCodec codec = CODECS.get();
+        SaveSummary summary = SaveSummary.readFrom(record);
+        try {
+            if (summary != null) {
+                row.summary(summary);
+                int length = summary.getPayloadLength();
+                if (length < 0 || record.remaining() < length) {
+                    row.fail(TRUNCATED, "Cuerpo de " + record.remaining() + " bytes, la cabecera indica " + length);
+                } else {
+                    ByteBuffer payload = record.slice(record.position(), length);
+                    CRC32C crc = new CRC32C();
+                    crc.update(payload.duplicate());
+                    if ((int) crc.getValue() != summary.getChecksum()) {
+                        row.fail(BAD_CHECKSUM, "Checksum incorrecto");
+                    } else {
+                        ByteBuffer raw;
+                        if (summary.getCodec() == SaveSummary.CODEC_DEFLATE) {
+                            raw = codec.inflate(payload);
+                        } else if (summary.getCodec() == SaveSummary.CODEC_RAW) {
+                            raw = payload;
+                        } else {
+                            throw new IOException("Codec desconocido " + summary.getCodec());
+                        }
+                        row.rawBytes = raw.remaining();
+                        row.stats = SaveCodec.readStats(raw);
+                    }
+                }
+            } else if (SaveSummary.hasMagic(record) || !allowLegacy) {
+                row.fail(BAD_HEADER, "Cabecera dañada");
+            } else {
+                // Formato antiguo: longitud + Hero serializado con ObjectOutputStream
+                int length = record.remaining() >= 4 ? record.getInt() : -1;
+                if (length < 0 || length > record.remaining()) {
+                    row.fail(TRUNCATED, "Partida antigua incompleta");
+                } else {
+                    byte[] data = new byte[length];
+                    record.get(data);
+                    row.hero((Hero) Convert.toObject(data));
+                    row.status = LEGACY;
+                    row.storedBytes = length;
+                }
+            }
+        } catch (IOException | ClassNotFoundException | RuntimeException e) {
+            row.fail(CORRUPT, e.getMessage());
+        } catch (LinkageError e) {
+            // Una partida antigua necesita la clase Hero completa; sin sus dependencias falla solo esa fila
+            row.fail(ERROR, e.toString());
+        }
+    }
+
+    // Registros del diario de la partida que el cuerpo no incluye; las ranuras no tienen diario
+    private static void inspectJournal(Row row, Path file) {
+        if (row.status.equals(OK) && row.journalId != 0) {
+            try {
+                int last = SaveJournal.readLastSeq(SaveJournal.fileFor(file.toFile()), row.journalId, row.journalSeq);
+                row.pending = last - row.journalSeq;
+                if (row.pending > 0) {
+                    row.status = PENDING;
+                }
+            } catch (IOException e) {
+                row.fail(ERROR, "Diario ilegible: " + e.getMessage());
+            }
+        }
+    }
+
+    // Campo CSV: vacío si es null, entre comillas si contiene separadores
+    private static String csv(Object value) {
+        String s = value == null ? "" : value.toString();
+        if (s.indexOf(',') >= 0 || s.indexOf('"') >= 0 || s.indexOf('\n') >= 0 || s.indexOf('\r') >= 0) {
+            s = "\"" + s.replace("\"", "\"\"") + "\"";
+        }
+        return s;
+    }
+}
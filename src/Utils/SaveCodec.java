@@ -0,0 +1,894 @@
+package Utils;
+
+import Characters.Hero;
+import Items.*;
+import Misc.*;
+import cu.edu.cujae.ceis.tree.binary.BinaryTreeNode;
+import cu.edu.cujae.ceis.tree.general.GeneralTree;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.zip.CRC32C;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Codec binario de la partida. Escribe el Hero campo a campo en un
+ * ByteBuffer, sin descriptores de clase ni referencias de
+ * ObjectOutputStream. Cada subclase de Item y de Classes se identifica con
+ * un byte fijo, así que renombrar una clase no rompe las partidas guardadas.
+ *
+ * Desde la versión 2 el cuerpo se divide en secciones (ver Hero.Section) con
+ * una tabla al principio, de modo que cada una se puede decodificar por
+ * separado y la carga puede limitarse a CORE.
+ *
+ * El buffer interno se reutiliza entre llamadas; el ByteBuffer que devuelve
+ * encode() solo es válido hasta la siguiente llamada. Lo mismo vale para los
+ * buffers de compresión: cada SaveCodec tiene su Deflater, su Inflater y sus
+ * bloques, y no debe usarse desde dos hilos a la vez.
+ */
+public class SaveCodec {
+
+    public static final int MAGIC = 0x4D4F5452; // "MOTR"
+    public static final short VERSION = 2;
+    // Tabla de secciones: id (byte), posición desde el inicio del cuerpo (int), longitud (int)
+    private static final int TABLE_ENTRY = 9;
+
+    private static final byte NONE = 0;
+
+    private static final byte ITEM_FIST = 1;
+    private static final byte ITEM_GUN = 2;
+    private static final byte ITEM_SWORD = 3;
+    private static final byte ITEM_SPEAR = 4;
+    private static final byte ITEM_CLAYMORE = 5;
+    private static final byte ITEM_WARES = 6;
+    private static final byte ITEM_ARMOR = 7;
+
+    private static final byte CLASS_WARRIOR = 1;
+    private static final byte CLASS_SWORDMAN = 2;
+    private static final byte CLASS_SPEAR = 3;
+    private static final byte CLASS_GUNNER = 4;
+    private static final byte CLASS_CLAYMORE_USER = 5;
+    private static final byte CLASS_SABRE_USER = 6;
+    private static final byte CLASS_RIFLE_USER = 7;
+    private static final byte CLASS_SHOTGUN_USER = 8;
+    private static final byte CLASS_HALBERD_USER = 9;
+    private static final byte CLASS_PIKE_USER = 10;
+
+    // Por debajo de este tamaño comprimir no compensa la cabecera de Deflate
+    public static final int COMPRESS_MIN_BYTES = 1024;
+    private static final int CHUNK = 16 * 1024;
+
+    private ByteBuffer buffer;
+    private ByteBuffer stored;
+    private ByteBuffer inflated;
+    private final ByteBuffer chunk;
+    private final Deflater deflater;
+    private final Inflater inflater;
+
+    public SaveCodec() {
+        buffer = ByteBuffer.allocate(4096);
+        stored = ByteBuffer.allocate(4096);
+        inflated = ByteBuffer.allocate(4096);
+        chunk = ByteBuffer.allocate(CHUNK);
+        deflater = new Deflater(Deflater.BEST_SPEED);
+        inflater = new Inflater();
+    }
+
+    /**
+     * Comprime raw con Deflate y escribe los bloques en out según salen del
+     * compresor, sin juntar antes todo el resultado. El cuerpo comprimido
+     * empieza con la longitud sin comprimir. crc se actualiza con los bytes
+     * escritos. Devuelve cuántos bytes se escribieron.
+     */
+    public int deflateTo(ByteBuffer raw, WritableByteChannel out, CRC32C crc) throws IOException {
+        int written = 0;
+        deflater.reset();
+        chunk.clear();
+        chunk.putInt(raw.remaining());
+        deflater.setInput(raw);
+        deflater.finish();
+        boolean done = false;
+        while (!done) {
+            deflater.deflate(chunk);
+            done = deflater.finished();
+            if (done || !chunk.hasRemaining()) {
+                chunk.flip();
+                crc.update(chunk.duplicate());
+                while (chunk.hasRemaining()) {
+                    written = written + out.write(chunk);
+                }
+                chunk.clear();
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Igual que deflateTo pero en memoria, para quien necesita el cuerpo
+     * completo (por ejemplo una ranura del contenedor). El resultado vive en
+     * un buffer reutilizado.
+     */
+    public ByteBuffer deflate(ByteBuffer raw) throws IOException {
+        stored.clear();
+        deflateTo(raw, new WritableByteChannel() {
+            @Override
+            public int write(ByteBuffer src) {
+                int n = src.remaining();
+                stored = grow(stored, n);
+                stored.put(src);
+                return n;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        }, new CRC32C());
+        stored.flip();
+        return stored;
+    }
+
+    /**
+     * Descomprime un cuerpo escrito por deflateTo en un buffer reutilizado.
+     */
+    public ByteBuffer inflate(ByteBuffer in) throws IOException {
+        int rawLength;
+        try {
+            rawLength = in.getInt();
+            if (rawLength < 0) {
+                throw new IOException("Longitud sin comprimir inválida: " + rawLength);
+            }
+            inflated.clear();
+            inflated = grow(inflated, rawLength);
+            inflated.limit(rawLength);
+            inflater.reset();
+            inflater.setInput(in);
+            while (inflated.hasRemaining()) {
+                if (inflater.inflate(inflated) == 0 && (inflater.finished() || inflater.needsInput()
+                        || inflater.needsDictionary())) {
+                    throw new IOException("Cuerpo comprimido incompleto");
+                }
+            }
+        } catch (DataFormatException | BufferUnderflowException e) {
+            throw new IOException("Cuerpo comprimido dañado", e);
+        }
+        inflated.flip();
+        return inflated;
+    }
+
+    /**
+     * Buffer reutilizado con espacio para length bytes, listo para leer en él
+     * el cuerpo de una partida desde disco.
+     */
+    public ByteBuffer readBuffer(int length) {
+        stored.clear();
+        stored = grow(stored, length);
+        stored.limit(length);
+        return stored;
+    }
+
+    // Devuelve b o uno mayor con su contenido, con al menos bytes libres
+    private static ByteBuffer grow(ByteBuffer b, int bytes) {
+        ByteBuffer out = b;
+        if (b.capacity() - b.position() < bytes) {
+            int capacity = b.capacity() * 2;
+            while (capacity - b.position() < bytes) {
+                capacity = capacity * 2;
+            }
+            out = ByteBuffer.allocate(capacity);
+            b.flip();
+            out.put(b);
+        }
+        return out;
+    }
+
+    public ByteBuffer encode(Hero hero) {
+        buffer.clear();
+        putShort(VERSION);
+        Hero.Section[] sections = Hero.Section.values();
+        putByte((byte) sections.length);
+        int table = buffer.position();
+        ensure(sections.length * TABLE_ENTRY);
+        buffer.position(table + sections.length * TABLE_ENTRY);
+        for (Hero.Section section : sections) {
+            int at = buffer.position();
+            putSection(hero, section);
+            int entry = table + section.ordinal() * TABLE_ENTRY;
+            buffer.put(entry, (byte) section.ordinal());
+            buffer.putInt(entry + 1, at);
+            buffer.putInt(entry + 5, buffer.position() - at);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private void putSection(Hero hero, Hero.Section section) {
+        switch (section) {
+            case CORE:
+                putString(hero.getName());
+                putString(hero.getSpritePath());
+                putInt(hero.getVelocidad());
+                putInt(hero.getAttack());
+                putInt(hero.getMagic());
+                putInt(hero.getDefense());
+                putInt(hero.getLevel());
+                putInt(hero.getLife());
+                putInt(hero.getActualLife());
+                putByte((byte) hero.getLastLocation().ordinal());
+                putDouble(hero.getLastPosX());
+                putDouble(hero.getLastPosY());
+                // Añadido al final: los lectores anteriores ignoran lo que sobra de la sección
+                putLong(hero.getRandomSeed());
+                break;
+            case EQUIPMENT:
+                putItem(hero.getActualWeapon());
+                putItem(hero.getArmor());
+                putClass(hero.getActualClass());
+                break;
+            case INVENTORY:
+                LinkedList<Item> items = hero.getItems();
+                putInt(items.size());
+                for (Item i : items) {
+                    putItem(i);
+                }
+                LinkedList<Weapon> weapons = hero.getWeapons();
+                putInt(weapons.size());
+                for (Weapon w : weapons) {
+                    putItem(w);
+                }
+                break;
+            case QUESTS:
+                putTasks(hero.getTasks());
+                putTasks(hero.getCompletedTasks());
+                break;
+            case CLASSES:
+                GeneralTree<Classes> tree = hero.getUnlockedClasses();
+                putClassNode(tree == null ? null : (BinaryTreeNode<Classes>) tree.getRoot());
+                break;
+        }
+    }
+
+    /**
+     * Decodifica la partida completa.
+     */
+    public Hero decode(ByteBuffer in) throws IOException {
+        return decode(in, false);
+    }
+
+    /**
+     * Decodifica solo la sección CORE y deja el resto pendiente en el Hero,
+     * que lo decodifica al usarlo por primera vez o con loadSections(). Los
+     * bytes se copian, así que in puede reutilizarse en cuanto vuelve.
+     * Una partida de versión 1 no tiene secciones y se decodifica entera.
+     */
+    public Hero decodeLazy(ByteBuffer in) throws IOException {
+        return decode(in, true);
+    }
+
+    private static Hero decode(ByteBuffer in, boolean lazy) throws IOException {
+        Hero hero;
+        try {
+            int base = in.position();
+            short version = in.getShort();
+            if (version > VERSION) {
+                throw new IOException("Versión de partida no soportada: " + version);
+            }
+            if (version == 1) {
+                hero = decodeV1(in);
+            } else {
+                ByteBuffer body = lazy ? copyOf(in, base) : in;
+                int[][] table = readTable(body, lazy ? 0 : base);
+                SectionDecoder decoder = new SectionDecoder(body, table);
+                hero = decoder.core();
+                Hero.Section[] rest = {Hero.Section.EQUIPMENT, Hero.Section.INVENTORY,
+                    Hero.Section.QUESTS, Hero.Section.CLASSES};
+                if (lazy) {
+                    hero.deferSections(decoder, rest);
+                } else {
+                    for (Hero.Section section : rest) {
+                        decoder.load(hero, section);
+                    }
+                }
+            }
+        } catch (BufferUnderflowException | ClassCastException | IndexOutOfBoundsException
+                | IllegalArgumentException e) {
+            throw new IOException("Partida dañada", e);
+        }
+        return hero;
+    }
+
+    /**
+     * Recorre el cuerpo de una partida contando items, misiones y clases sin
+     * crear el Hero, de modo que no se carga el sprite ni se toca JavaFX. En
+     * la versión 2 la sección CORE ni se lee.
+     */
+    public static SaveStats readStats(ByteBuffer in) throws IOException {
+        SaveStats stats = new SaveStats();
+        try {
+            int base = in.position();
+            short version = in.getShort();
+            if (version > VERSION) {
+                throw new IOException("Versión de partida no soportada: " + version);
+            }
+            if (version == 1) {
+                getString(in);
+                getString(in);
+                in.position(in.position() + 7 * 4);
+                Item weapon = getItem(in);
+                Item armor = getItem(in);
+                countInventory(in, stats);
+                countClassNode(in, stats);
+                stats.setEquipment(weapon, armor, getClass(in));
+                countQuests(in, stats);
+            } else {
+                int[][] table = readTable(in, base);
+                SectionDecoder sections = new SectionDecoder(in, table);
+                ByteBuffer s = sections.section(Hero.Section.EQUIPMENT);
+                if (s != null) {
+                    stats.setEquipment(getItem(s), getItem(s), getClass(s));
+                }
+                s = sections.section(Hero.Section.INVENTORY);
+                if (s != null) {
+                    countInventory(s, stats);
+                }
+                s = sections.section(Hero.Section.QUESTS);
+                if (s != null) {
+                    countQuests(s, stats);
+                }
+                s = sections.section(Hero.Section.CLASSES);
+                if (s != null) {
+                    countClassNode(s, stats);
+                }
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Partida dañada", e);
+        }
+        return stats;
+    }
+
+    private static void countInventory(ByteBuffer in, SaveStats stats) {
+        stats.items = in.getInt();
+        int i = 0;
+        while (i < stats.items) {
+            getItem(in);
+            i = i + 1;
+        }
+        stats.weapons = in.getInt();
+        i = 0;
+        while (i < stats.weapons) {
+            getItem(in);
+            i = i + 1;
+        }
+    }
+
+    private static void countQuests(ByteBuffer in, SaveStats stats) {
+        stats.tasks = countTasks(in);
+        stats.completedTasks = countTasks(in);
+    }
+
+    private static int countTasks(ByteBuffer in) {
+        int count = in.getInt();
+        int i = 0;
+        while (i < count) {
+            getTask(in);
+            i = i + 1;
+        }
+        return count;
+    }
+
+    private static void countClassNode(ByteBuffer in, SaveStats stats) {
+        if (in.get() != NONE) {
+            stats.countClass(getClass(in));
+            countClassNode(in, stats);
+            countClassNode(in, stats);
+        }
+    }
+
+    private static ByteBuffer copyOf(ByteBuffer in, int base) {
+        byte[] bytes = new byte[in.limit() - base];
+        in.get(base, bytes);
+        return ByteBuffer.wrap(bytes);
+    }
+
+    // Posición absoluta y longitud de cada sección conocida, indexadas por Section
+    private static int[][] readTable(ByteBuffer body, int base) {
+        int[][] table = new int[Hero.Section.values().length][];
+        int count = body.get(base + 2) & 0xFF;
+        int i = 0;
+        while (i < count) {
+            int entry = base + 3 + i * TABLE_ENTRY;
+            int id = body.get(entry);
+            int offset = body.getInt(entry + 1);
+            int length = body.getInt(entry + 5);
+            if (offset < 0 || length < 0 || base + offset + length > body.limit()) {
+                throw new IndexOutOfBoundsException("Sección fuera de la partida: " + id);
+            }
+            // Secciones de versiones posteriores que no se conocen se ignoran
+            if (id >= 0 && id < table.length) {
+                table[id] = new int[]{base + offset, length};
+            }
+            i = i + 1;
+        }
+        if (table[Hero.Section.CORE.ordinal()] == null) {
+            throw new IllegalArgumentException("Partida sin sección CORE");
+        }
+        return table;
+    }
+
+    /**
+     * Decodifica secciones sueltas a partir de la tabla. Se queda con el
+     * buffer de la partida mientras el Hero tenga secciones pendientes.
+     */
+    private static class SectionDecoder implements Hero.SectionLoader {
+
+        private final ByteBuffer body;
+        private final int[][] table;
+
+        SectionDecoder(ByteBuffer body, int[][] table) {
+            this.body = body;
+            this.table = table;
+        }
+
+        Hero core() {
+            return getCore(section(Hero.Section.CORE));
+        }
+
+        private ByteBuffer section(Hero.Section section) {
+            int[] where = table[section.ordinal()];
+            ByteBuffer in = null;
+            if (where != null) {
+                in = body.duplicate();
+                in.limit(where[0] + where[1]).position(where[0]);
+            }
+            return in;
+        }
+
+        @Override
+        public void load(Hero hero, Hero.Section section) throws IOException {
+            ByteBuffer in = section(section);
+            if (in != null) {
+                try {
+                    getSection(in, hero, section);
+                } catch (BufferUnderflowException | ClassCastException | IndexOutOfBoundsException
+                        | IllegalArgumentException e) {
+                    throw new IOException("Sección " + section + " dañada", e);
+                }
+            }
+        }
+    }
+
+    private static Hero getCore(ByteBuffer in) {
+        Hero hero = new Hero(getString(in), null, null);
+        hero.setSpritePath(getString(in));
+        hero.setVelocidad(in.getInt());
+        hero.setAttack(in.getInt());
+        hero.setMagic(in.getInt());
+        hero.setDefense(in.getInt());
+        hero.setLevel(in.getInt());
+        hero.setLife(in.getInt());
+        hero.setActualLife(in.getInt());
+        hero.setLastLocation(Hero.Location.values()[in.get()]);
+        hero.setLastPosX(in.getDouble());
+        hero.setLastPosY(in.getDouble());
+        if (in.remaining() >= 8) {
+            hero.setRandomSeed(in.getLong());
+        }
+        return hero;
+    }
+
+    private static void getSection(ByteBuffer in, Hero hero, Hero.Section section) {
+        switch (section) {
+            case EQUIPMENT:
+                hero.setActualWeapon((Weapon) getItem(in));
+                hero.setArmor((Armor) getItem(in));
+                hero.setActualClass(getClass(in));
+                break;
+            case INVENTORY:
+                int count = in.getInt();
+                int i = 0;
+                while (i < count) {
+                    hero.getItems().add(getItem(in));
+                    i = i + 1;
+                }
+                count = in.getInt();
+                i = 0;
+                while (i < count) {
+                    hero.getWeapons().add((Weapon) getItem(in));
+                    i = i + 1;
+                }
+                break;
+            case QUESTS:
+                getTasks(in, hero.getTasks());
+                getTasks(in, hero.getCompletedTasks());
+                break;
+            case CLASSES:
+                GeneralTree<Classes> tree = new GeneralTree<>();
+                BinaryTreeNode<Classes> root = getClassNode(in);
+                if (root != null) {
+                    tree.setRoot(root);
+                }
+                hero.setUnlockedClasses(tree);
+                break;
+            default:
+                // CORE se lee con getCore al crear el Hero
+                break;
+        }
+    }
+
+    // Versión 1: todos los campos seguidos, sin tabla de secciones
+    private static Hero decodeV1(ByteBuffer in) throws IOException {
+        Hero hero;
+        try {
+            String name = getString(in);
+            String sprite = getString(in);
+            int velocidad = in.getInt();
+            int attack = in.getInt();
+            int magic = in.getInt();
+            int defense = in.getInt();
+            int level = in.getInt();
+            int life = in.getInt();
+            int actualLife = in.getInt();
+
+            Weapon weapon = (Weapon) getItem(in);
+            Armor armor = (Armor) getItem(in);
+
+            hero = new Hero(name, weapon, armor);
+            hero.setSpritePath(sprite);
+            hero.setVelocidad(velocidad);
+            hero.setAttack(attack);
+            hero.setMagic(magic);
+            hero.setDefense(defense);
+            hero.setLevel(level);
+            hero.setLife(life);
+            hero.setActualLife(actualLife);
+
+            int count = in.getInt();
+            int i = 0;
+            while (i < count) {
+                hero.getItems().add(getItem(in));
+                i = i + 1;
+            }
+            count = in.getInt();
+            i = 0;
+            while (i < count) {
+                hero.getWeapons().add((Weapon) getItem(in));
+                i = i + 1;
+            }
+
+            GeneralTree<Classes> tree = new GeneralTree<>();
+            BinaryTreeNode<Classes> root = getClassNode(in);
+            if (root != null) {
+                tree.setRoot(root);
+            }
+            hero.setUnlockedClasses(tree);
+            hero.setActualClass(getClass(in));
+
+            getTasks(in, hero.getTasks());
+            getTasks(in, hero.getCompletedTasks());
+
+            hero.setLastLocation(Hero.Location.values()[in.get()]);
+            hero.setLastPosX(in.getDouble());
+            hero.setLastPosY(in.getDouble());
+        } catch (BufferUnderflowException | ClassCastException | IndexOutOfBoundsException
+                | IllegalArgumentException e) {
+            throw new IOException("Partida dañada", e);
+        }
+        return hero;
+    }
+
+    /**
+     * Codifica un solo item con el mismo formato que dentro de la partida.
+     * Lo usa el diario de cambios; comparte el buffer interno con encode().
+     */
+    ByteBuffer encodeItem(Item item) {
+        buffer.clear();
+        putItem(item);
+        buffer.flip();
+        return buffer;
+    }
+
+    ByteBuffer encodeTask(Task task) {
+        buffer.clear();
+        putTask(task);
+        buffer.flip();
+        return buffer;
+    }
+
+    // --- escritura ---
+    private void ensure(int bytes) {
+        buffer = grow(buffer, bytes);
+    }
+
+    private void putByte(byte b) {
+        ensure(1);
+        buffer.put(b);
+    }
+
+    private void putBoolean(boolean b) {
+        putByte(b ? (byte) 1 : (byte) 0);
+    }
+
+    private void putShort(short s) {
+        ensure(2);
+        buffer.putShort(s);
+    }
+
+    private void putInt(int v) {
+        ensure(4);
+        buffer.putInt(v);
+    }
+
+    private void putDouble(double d) {
+        ensure(8);
+        buffer.putDouble(d);
+    }
+
+    private void putLong(long v) {
+        ensure(8);
+        buffer.putLong(v);
+    }
+
+    private void putString(String s) {
+        if (s == null) {
+            putInt(-1);
+        } else {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            ensure(bytes.length);
+            buffer.put(bytes);
+        }
+    }
+
+    private void putItem(Item item) {
+        byte kind = itemKind(item);
+        putByte(kind);
+        if (kind != NONE) {
+            putString(item.getInfo());
+            putString(item.getName());
+            putString(item.getId());
+            if (item instanceof Weapon) {
+                Weapon w = (Weapon) item;
+                putInt(w.getAttack());
+                putInt(w.getLifeSpan());
+                putString(w.getEffect());
+                putString(w.getType());
+                if (w instanceof Gun) {
+                    putDouble(((Gun) w).getRange());
+                }
+            } else if (item instanceof Wares) {
+                putInt(((Wares) item).getHealing());
+            } else if (item instanceof Armor) {
+                Armor a = (Armor) item;
+                putInt(a.getDefense());
+                putString(a.getEffect());
+            }
+        }
+    }
+
+    private void putClass(Classes c) {
+        byte kind = classKind(c);
+        putByte(kind);
+        if (kind != NONE) {
+            putString(c.getDescription());
+            putBoolean(c.isUnlocked());
+            putBoolean(c.isActived());
+        }
+    }
+
+    // Preorden sobre la representación hijo-izquierdo / hermano-derecho del árbol
+    private void putClassNode(BinaryTreeNode<Classes> node) {
+        if (node == null) {
+            putByte(NONE);
+        } else {
+            putByte((byte) 1);
+            putClass(node.getInfo());
+            putClassNode(node.getLeft());
+            putClassNode(node.getRight());
+        }
+    }
+
+    private void putTasks(Queue<Task> tasks) {
+        putInt(tasks.size());
+        for (Task t : tasks) {
+            putTask(t);
+        }
+    }
+
+    private void putTask(Task t) {
+        putString(t.getName());
+        putString(t.getInfo());
+        putString(t.getId());
+        putBoolean(t.isState());
+        putBoolean(t.isMainQuest());
+    }
+
+    // --- lectura ---
+    private static String getString(ByteBuffer in) {
+        String s = null;
+        int len = in.getInt();
+        if (len >= 0) {
+            if (len > in.remaining()) {
+                throw new BufferUnderflowException();
+            }
+            s = new String(in.array(), in.arrayOffset() + in.position(), len, StandardCharsets.UTF_8);
+            in.position(in.position() + len);
+        }
+        return s;
+    }
+
+    static Item getItem(ByteBuffer in) {
+        Item item = null;
+        byte kind = in.get();
+        if (kind != NONE) {
+            String info = getString(in);
+            String name = getString(in);
+            String id = getString(in);
+            if (kind == ITEM_WARES) {
+                item = new Wares(info, name, id, in.getInt());
+            } else if (kind == ITEM_ARMOR) {
+                int defense = in.getInt();
+                item = new Armor(info, name, id, defense, getString(in));
+            } else {
+                int attack = in.getInt();
+                int lifeSpan = in.getInt();
+                String effect = getString(in);
+                String type = getString(in);
+                switch (kind) {
+                    case ITEM_FIST:
+                        item = new Fist(info, name, id, attack, lifeSpan, effect, type);
+                        break;
+                    case ITEM_GUN:
+                        item = new Gun(info, name, id, attack, lifeSpan, effect, type, in.getDouble());
+                        break;
+                    case ITEM_SWORD:
+                        item = new Sword(info, name, id, attack, lifeSpan, effect, type);
+                        break;
+                    case ITEM_SPEAR:
+                        item = new Spear(info, name, id, attack, lifeSpan, effect, type);
+                        break;
+                    case ITEM_CLAYMORE:
+                        item = new Claymore(info, name, id, attack, lifeSpan, effect, type);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Tipo de item desconocido: " + kind);
+                }
+            }
+        }
+        return item;
+    }
+
+    private static Classes getClass(ByteBuffer in) {
+        Classes c = null;
+        byte kind = in.get();
+        if (kind != NONE) {
+            String description = getString(in);
+            boolean unlocked = in.get() != 0;
+            boolean actived = in.get() != 0;
+            switch (kind) {
+                case CLASS_WARRIOR:
+                    c = new WarriorClass(description, unlocked, actived);
+                    break;
+                case CLASS_SWORDMAN:
+                    c = new SwordmanClass(description, unlocked, actived);
+                    break;
+                case CLASS_SPEAR:
+                    c = new SpearClass(description, unlocked, actived);
+                    break;
+                case CLASS_GUNNER:
+                    c = new GunnerClass(description, unlocked, actived);
+                    break;
+                case CLASS_CLAYMORE_USER:
+                    c = new ClaymoreUserClass(description, unlocked, actived);
+                    break;
+                case CLASS_SABRE_USER:
+                    c = new SabreUserClass(description, unlocked, actived);
+                    break;
+                case CLASS_RIFLE_USER:
+                    c = new RifleUserClass(description, unlocked, actived);
+                    break;
+                case CLASS_SHOTGUN_USER:
+                    c = new ShotgunUserClass(description, unlocked, actived);
+                    break;
+                case CLASS_HALBERD_USER:
+                    c = new HalberdUserClass(description, unlocked, actived);
+                    break;
+                case CLASS_PIKE_USER:
+                    c = new PikeUserClass(description, unlocked, actived);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Clase desconocida: " + kind);
+            }
+        }
+        return c;
+    }
+
+    private static BinaryTreeNode<Classes> getClassNode(ByteBuffer in) {
+        BinaryTreeNode<Classes> node = null;
+        if (in.get() != NONE) {
+            node = new BinaryTreeNode<>(getClass(in));
+            node.setLeft(getClassNode(in));
+            node.setRight(getClassNode(in));
+        }
+        return node;
+    }
+
+    private static void getTasks(ByteBuffer in, Queue<Task> out) {
+        int count = in.getInt();
+        int i = 0;
+        while (i < count) {
+            out.offer(getTask(in));
+            i = i + 1;
+        }
+    }
+
+    static Task getTask(ByteBuffer in) {
+        String name = getString(in);
+        String info = getString(in);
+        String id = getString(in);
+        boolean state = in.get() != 0;
+        boolean mainQuest = in.get() != 0;
+        return new Task(name, info, id, state, mainQuest);
+    }
+
+    // --- identificadores estables de tipo ---
+    private static byte itemKind(Item item) {
+        byte kind = NONE;
+        if (item instanceof Fist) {
+            kind = ITEM_FIST;
+        } else if (item instanceof Gun) {
+            kind = ITEM_GUN;
+        } else if (item instanceof Claymore) {
+            kind = ITEM_CLAYMORE;
+        } else if (item instanceof Sword) {
+            kind = ITEM_SWORD;
+        } else if (item instanceof Spear) {
+            kind = ITEM_SPEAR;
+        } else if (item instanceof Wares) {
+            kind = ITEM_WARES;
+        } else if (item instanceof Armor) {
+            kind = ITEM_ARMOR;
+        } else if (item != null) {
+            throw new IllegalArgumentException("Item sin identificador de guardado: " + item.getClass().getName());
+        }
+        return kind;
+    }
+
+    private static byte classKind(Classes c) {
+        byte kind = NONE;
+        if (c instanceof WarriorClass) {
+            kind = CLASS_WARRIOR;
+        } else if (c instanceof SwordmanClass) {
+            kind = CLASS_SWORDMAN;
+        } else if (c instanceof SpearClass) {
+            kind = CLASS_SPEAR;
+        } else if (c instanceof GunnerClass) {
+            kind = CLASS_GUNNER;
+        } else if (c instanceof ClaymoreUserClass) {
+            kind = CLASS_CLAYMORE_USER;
+        } else if (c instanceof SabreUserClass) {
+            kind = CLASS_SABRE_USER;
+        } else if (c instanceof RifleUserClass) {
+            kind = CLASS_RIFLE_USER;
+        } else if (c instanceof ShotgunUserClass) {
+            kind = CLASS_SHOTGUN_USER;
+        } else if (c instanceof HalberdUserClass) {
+            kind = CLASS_HALBERD_USER;
+        } else if (c instanceof PikeUserClass) {
+            kind = CLASS_PIKE_USER;
+        } else if (c != null) {
+            throw new IllegalArgumentException("Clase sin identificador de guardado: " + c.getClass().getName());
+        }
+        return kind;
+    }
+}
@@ -0,0 +1,242 @@
+package Utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Varias partidas dentro de un solo archivo. El archivo empieza con un
+ * directorio de tamaño fijo (una entrada por ranura con offset, longitud,
+ * capacidad, fecha y CRC32C) y detrás van las regiones de cada ranura.
+ *
+ * Guardar la ranura N escribe solo su región y su entrada del directorio
+ * con escrituras posicionadas; si la partida ya no cabe en su región se le
+ * asigna una nueva al final del archivo. Listar las ranuras es una sola
+ * lectura del directorio.
+ */
+public class SaveContainer {
+
+    public static final int SLOTS = 32;
+
+    private static final int MAGIC = 0x4D4F5443; // "MOTC"
+    private static final short VERSION = 1;
+    private static final int PREFIX_SIZE = 8;
+    private static final int ENTRY_SIZE = 32;
+    private static final int DIRECTORY_SIZE = PREFIX_SIZE + SLOTS * ENTRY_SIZE;
+    private static final int BLOCK = 4096;
+
+    private final File file;
+
+    public SaveContainer(File file) {
+        this.file = file;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Indica si los bytes en la posición actual de head son el inicio de un
+     * contenedor de partidas.
+     */
+    public static boolean isContainer(ByteBuffer head) {
+        return head.remaining() >= 4 && head.getInt(head.position()) == MAGIC;
+    }
+
+    /**
+     * Devuelve las SLOTS entradas del directorio, vacías incluidas. Si el
+     * contenedor todavía no existe todas las ranuras están vacías.
+     */
+    public List<SaveSlot> list() throws IOException {
+        List<SaveSlot> slots = new ArrayList<>(SLOTS);
+        ByteBuffer dir = null;
+        if (file.exists()) {
+            try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                dir = readDirectory(ch);
+            }
+        }
+        int i = 0;
+        while (i < SLOTS) {
+            slots.add(dir == null ? new SaveSlot(i, 0, 0, 0, 0, 0) : entry(dir, i));
+            i = i + 1;
+        }
+        return slots;
+    }
+
+    /**
+     * Escribe el contenido de la ranura. parts se escribe de forma contigua,
+     * en orden, como un solo registro.
+     */
+    public SaveSlot write(int slot, ByteBuffer... parts) throws IOException {
+        checkSlot(slot);
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        int length = 0;
+        CRC32C crc = new CRC32C();
+        for (ByteBuffer p : parts) {
+            length = length + p.remaining();
+            crc.update(p.duplicate());
+        }
+        SaveSlot written;
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer dir = readDirectory(ch);
+            if (ch.size() < DIRECTORY_SIZE) {
+                ch.write(dir.duplicate(), 0);
+            }
+            SaveSlot old = entry(dir, slot);
+            long offset = old.getOffset();
+            int capacity = old.getCapacity();
+            if (capacity < length) {
+                // No cabe en su región: se reserva una nueva al final, redondeada a BLOCK
+                offset = endOfRegions(dir, ch.size());
+                capacity = ((length + BLOCK - 1) / BLOCK) * BLOCK;
+            }
+            long pos = offset;
+            for (ByteBuffer p : parts) {
+                while (p.hasRemaining()) {
+                    pos = pos + ch.write(p, pos);
+                }
+            }
+            written = new SaveSlot(slot, offset, length, capacity, System.currentTimeMillis(), (int) crc.getValue());
+            writeEntry(ch, written);
+        }
+        return written;
+    }
+
+    /**
+     * Lee el registro completo de la ranura. Devuelve null si está vacía.
+     */
+    public ByteBuffer read(int slot) throws IOException {
+        checkSlot(slot);
+        ByteBuffer data = null;
+        if (file.exists()) {
+            try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                SaveSlot s = entry(readDirectory(ch), slot);
+                if (!s.isEmpty()) {
+                    data = ByteBuffer.allocate(s.getLength());
+                    readFully(ch, data, s.getOffset());
+                    data.flip();
+                    CRC32C crc = new CRC32C();
+                    crc.update(data.duplicate());
+                    if ((int) crc.getValue() != s.getChecksum()) {
+                        throw new IOException("Checksum incorrecto en la ranura " + slot);
+                    }
+                }
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Lee solo los primeros bytes del registro de la ranura, por ejemplo la
+     * cabecera SaveSummary. Devuelve null si está vacía.
+     */
+    public ByteBuffer readPrefix(int slot, int bytes) throws IOException {
+        checkSlot(slot);
+        ByteBuffer data = null;
+        if (file.exists()) {
+            try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                SaveSlot s = entry(readDirectory(ch), slot);
+                if (!s.isEmpty()) {
+                    data = ByteBuffer.allocate(Math.min(bytes, s.getLength()));
+                    readFully(ch, data, s.getOffset());
+                    data.flip();
+                }
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Vacía la ranura. Su región se conserva para reutilizarla en el
+     * siguiente guardado.
+     */
+    public boolean delete(int slot) throws IOException {
+        checkSlot(slot);
+        boolean deleted = false;
+        if (file.exists()) {
+            try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                SaveSlot s = entry(readDirectory(ch), slot);
+                if (!s.isEmpty()) {
+                    writeEntry(ch, new SaveSlot(slot, s.getOffset(), 0, s.getCapacity(), 0, 0));
+                    deleted = true;
+                }
+            }
+        }
+        return deleted;
+    }
+
+    private ByteBuffer readDirectory(FileChannel ch) throws IOException {
+        ByteBuffer dir = ByteBuffer.allocate(DIRECTORY_SIZE);
+        if (ch.size() >= DIRECTORY_SIZE) {
+            readFully(ch, dir, 0);
+            if (dir.getInt(0) != MAGIC || dir.getShort(4) > VERSION) {
+                throw new IOException("El archivo " + file.getName() + " no es un contenedor de partidas");
+            }
+        } else {
+            // Contenedor nuevo o vacío: directorio sin ranuras ocupadas
+            dir.putInt(0, MAGIC);
+            dir.putShort(4, VERSION);
+            dir.putShort(6, (short) SLOTS);
+        }
+        return dir;
+    }
+
+    // Primer byte libre tras todas las regiones reservadas, escritas o no
+    private static long endOfRegions(ByteBuffer dir, long fileSize) {
+        long end = Math.max(fileSize, DIRECTORY_SIZE);
+        int i = 0;
+        while (i < SLOTS) {
+            SaveSlot s = entry(dir, i);
+            end = Math.max(end, s.getOffset() + s.getCapacity());
+            i = i + 1;
+        }
+        return end;
+    }
+
+    private static SaveSlot entry(ByteBuffer dir, int slot) {
+        int at = PREFIX_SIZE + slot * ENTRY_SIZE;
+        return new SaveSlot(slot, dir.getLong(at), dir.getInt(at + 8), dir.getInt(at + 12),
+                dir.getLong(at + 16), dir.getInt(at + 24));
+    }
+
+    private static void writeEntry(FileChannel ch, SaveSlot s) throws IOException {
+        ByteBuffer e = ByteBuffer.allocate(ENTRY_SIZE);
+        e.putLong(s.getOffset());
+        e.putInt(s.getLength());
+        e.putInt(s.getCapacity());
+        e.putLong(s.getSavedAt());
+        e.putInt(s.getChecksum());
+        e.flip();
+        long pos = PREFIX_SIZE + (long) s.getIndex() * ENTRY_SIZE;
+        while (e.hasRemaining()) {
+            pos = pos + ch.write(e, pos);
+        }
+    }
+
+    private static void readFully(FileChannel ch, ByteBuffer dst, long pos) throws IOException {
+        long at = pos;
+        while (dst.hasRemaining()) {
+            int n = ch.read(dst, at);
+            if (n < 0) {
+                throw new IOException("Fin de archivo inesperado");
+            }
+            at = at + n;
+        }
+    }
+
+    private static void checkSlot(int slot) {
+        if (slot < 0 || slot >= SLOTS) {
+            throw new IllegalArgumentException("Ranura fuera de rango: " + slot);
+        }
+    }
+}
@@ -0,0 +1,409 @@
+package Utils;
+
+import Characters.Hero;
+import Items.*;
+import Misc.Task;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.CRC32C;
+
+/**
+ * Diario de cambios que se escribe detrás de la última partida completa.
+ * Cada cambio pequeño (posición, vida, items, equipo, misiones) se añade al
+ * final como un registro con su número de secuencia y su CRC32C, así que un
+ * autoguardado cuesta lo que ocupa el cambio y no el Hero entero.
+ *
+ * La cabecera de la partida guarda el identificador del diario y el último
+ * registro que ya incluye; al cargar se aplican solo los registros
+ * posteriores. Un registro cortado a medias por un cierre inesperado marca
+ * el final del diario y se descarta.
+ */
+public class SaveJournal {
+
+    public static final byte POSITION = 1;
+    public static final byte LIFE = 2;
+    public static final byte ITEM_ADD = 3;
+    public static final byte ITEM_REMOVE = 4;
+    public static final byte EQUIP_WEAPON = 5;
+    public static final byte EQUIP_ARMOR = 6;
+    public static final byte TASK_COMPLETE = 7;
+
+    private static final int MAGIC = 0x4D4F544A; // "MOTJ"
+    private static final int PREFIX_SIZE = 8;
+    // longitud + crc, delante de seq + tipo + datos
+    private static final int RECORD_HEAD = 8;
+
+    private final File file;
+    private final SaveCodec codec = new SaveCodec();
+    private ByteBuffer record = ByteBuffer.allocate(256);
+    private FileChannel channel;
+    private int id;
+    private int seq;
+
+    public SaveJournal(File file) {
+        this.file = file;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Archivo del diario de la partida save: el mismo nombre con extensión
+     * .jnl.
+     */
+    public static File fileFor(File save) {
+        String name = save.getName();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        return new File(save.getParentFile(), base + ".jnl");
+    }
+
+    /**
+     * Último registro que aplicaría replay a una partida cuya cabecera lleva
+     * journalId y fromSeq, leyendo file sin abrirlo para escribir ni
+     * cortarlo. Devuelve fromSeq si no hay diario, es de otra partida o no
+     * tiene registros posteriores.
+     */
+    public static int readLastSeq(File file, int journalId, int fromSeq) throws IOException {
+        int last = fromSeq;
+        if (journalId != 0 && file.exists()) {
+            ByteBuffer all = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+            if (all.remaining() >= PREFIX_SIZE && all.getInt(0) == MAGIC && all.getInt(4) == journalId) {
+                all.position(PREFIX_SIZE);
+                boolean gap = false;
+                ByteBuffer r = nextRecord(all);
+                while (r != null && !gap) {
+                    int rseq = r.getInt();
+                    if (rseq > last + 1) {
+                        gap = true;
+                    } else {
+                        last = Math.max(last, rseq);
+                        r = nextRecord(all);
+                    }
+                }
+            }
+        }
+        return last;
+    }
+
+    public synchronized int getId() {
+        return id;
+    }
+
+    public synchronized int getSeq() {
+        return seq;
+    }
+
+    public synchronized boolean isOpen() {
+        return channel != null;
+    }
+
+    public synchronized long size() {
+        long size = 0;
+        try {
+            if (channel != null) {
+                size = channel.size();
+            }
+        } catch (IOException ignored) {
+            size = 0;
+        }
+        return size;
+    }
+
+    /**
+     * Empieza un diario vacío. Con journalId 0 se genera un identificador
+     * nuevo (partida nueva); si no, se reutiliza el de la partida cargada
+     * para que sus registros se sigan aplicando en la próxima carga.
+     */
+    public synchronized void reset(int journalId, int fromSeq) throws IOException {
+        close();
+        int newId = journalId;
+        while (newId == 0) {
+            newId = ThreadLocalRandom.current().nextInt();
+        }
+        id = newId;
+        seq = fromSeq;
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer prefix = ByteBuffer.allocate(PREFIX_SIZE);
+        prefix.putInt(MAGIC).putInt(id).flip();
+        writeFully(prefix, 0);
+    }
+
+    /**
+     * Aplica sobre hero los registros posteriores a fromSeq si el diario en
+     * disco pertenece a journalId, y deja el diario abierto para seguir
+     * añadiendo detrás del último registro válido. Si no pertenece, empieza
+     * uno nuevo. Los registros deben seguir a fromSeq sin saltos: si falta
+     * alguno (por ejemplo al cargar una generación anterior de la partida
+     * después de una compactación) el diario se corta en el hueco.
+     * Devuelve cuántos registros se aplicaron.
+     */
+    public synchronized int replay(Hero hero, int journalId, int fromSeq) throws IOException {
+        close();
+        int applied = 0;
+        boolean matches = false;
+        if (journalId != 0 && file.exists()) {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            ByteBuffer prefix = ByteBuffer.allocate(PREFIX_SIZE);
+            channel.read(prefix, 0);
+            matches = prefix.position() == PREFIX_SIZE && prefix.getInt(0) == MAGIC
+                    && prefix.getInt(4) == journalId;
+            if (matches) {
+                id = journalId;
+                seq = fromSeq;
+                ByteBuffer all = ByteBuffer.allocate((int) (channel.size() - PREFIX_SIZE));
+                readFully(all, PREFIX_SIZE);
+                all.flip();
+                int valid = PREFIX_SIZE;
+                boolean gap = false;
+                ByteBuffer r = nextRecord(all);
+                while (r != null && !gap) {
+                    int rseq = r.getInt();
+                    byte type = r.get();
+                    if (rseq > seq + 1) {
+                        gap = true;
+                    } else {
+                        if (rseq > fromSeq) {
+                            apply(hero, type, r);
+                            applied = applied + 1;
+                            seq = rseq;
+                        }
+                        valid = PREFIX_SIZE + all.position();
+                        r = nextRecord(all);
+                    }
+                }
+                // Cola cortada o dañada: se descarta para que lo siguiente se añada detrás de lo válido
+                channel.truncate(valid);
+            } else {
+                close();
+            }
+        }
+        if (!matches) {
+            reset(journalId, fromSeq);
+        }
+        return applied;
+    }
+
+    /**
+     * Elimina del diario los registros ya incluidos en una partida completa
+     * (seq <= upToSeq). Se reescribe en un archivo temporal y se sustituye.
+     */
+    public synchronized void compact(int upToSeq) throws IOException {
+        if (channel != null) {
+            ByteBuffer all = ByteBuffer.allocate((int) (channel.size() - PREFIX_SIZE));
+            readFully(all, PREFIX_SIZE);
+            all.flip();
+            File tmp = new File(file.getPath() + ".tmp");
+            try (FileChannel out = FileChannel.open(tmp.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer prefix = ByteBuffer.allocate(PREFIX_SIZE);
+                prefix.putInt(MAGIC).putInt(id).flip();
+                out.write(prefix);
+                int start = all.position();
+                ByteBuffer r = nextRecord(all);
+                while (r != null) {
+                    if (r.getInt(r.position()) > upToSeq) {
+                        ByteBuffer whole = all.duplicate();
+                        whole.position(start).limit(all.position());
+                        while (whole.hasRemaining()) {
+                            out.write(whole);
+                        }
+                    }
+                    start = all.position();
+                    r = nextRecord(all);
+                }
+            }
+            close();
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+    }
+
+    public synchronized void delete() {
+        close();
+        file.delete();
+        id = 0;
+        seq = 0;
+    }
+
+    public synchronized void close() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+            channel = null;
+        }
+    }
+
+    // --- registros ---
+    public synchronized void appendPosition(Hero.Location location, double x, double y) throws IOException {
+        begin(POSITION, 17);
+        record.put((byte) location.ordinal());
+        record.putDouble(x);
+        record.putDouble(y);
+        commit();
+    }
+
+    public synchronized void appendLife(int actualLife, int life) throws IOException {
+        begin(LIFE, 8);
+        record.putInt(actualLife);
+        record.putInt(life);
+        commit();
+    }
+
+    public synchronized void appendItemAdd(Item item) throws IOException {
+        appendEncoded(ITEM_ADD, codec.encodeItem(item));
+    }
+
+    public synchronized void appendItemRemove(int index) throws IOException {
+        begin(ITEM_REMOVE, 4);
+        record.putInt(index);
+        commit();
+    }
+
+    public synchronized void appendEquipWeapon(Weapon weapon) throws IOException {
+        appendEncoded(EQUIP_WEAPON, codec.encodeItem(weapon));
+    }
+
+    public synchronized void appendEquipArmor(Armor armor) throws IOException {
+        appendEncoded(EQUIP_ARMOR, codec.encodeItem(armor));
+    }
+
+    public synchronized void appendTaskComplete(Task task) throws IOException {
+        appendEncoded(TASK_COMPLETE, codec.encodeTask(task));
+    }
+
+    private void appendEncoded(byte type, ByteBuffer data) throws IOException {
+        begin(type, data.remaining());
+        record.put(data);
+        commit();
+    }
+
+    private void begin(byte type, int payload) throws IOException {
+        if (channel == null) {
+            throw new IOException("El diario no está abierto");
+        }
+        int needed = RECORD_HEAD + 5 + payload;
+        if (record.capacity() < needed) {
+            record = ByteBuffer.allocate(Math.max(needed, record.capacity() * 2));
+        }
+        record.clear();
+        record.position(RECORD_HEAD);
+        record.putInt(seq + 1);
+        record.put(type);
+    }
+
+    private void commit() throws IOException {
+        int end = record.position();
+        CRC32C crc = new CRC32C();
+        ByteBuffer body = record.duplicate();
+        body.position(RECORD_HEAD).limit(end);
+        crc.update(body);
+        record.putInt(0, end - RECORD_HEAD);
+        record.putInt(4, (int) crc.getValue());
+        record.position(0).limit(end);
+        writeFully(record, channel.size());
+        seq = seq + 1;
+    }
+
+    // Devuelve el cuerpo (seq + tipo + datos) del siguiente registro válido, o null
+    private static ByteBuffer nextRecord(ByteBuffer all) {
+        ByteBuffer body = null;
+        if (all.remaining() >= RECORD_HEAD) {
+            int at = all.position();
+            int len = all.getInt(at);
+            int crc = all.getInt(at + 4);
+            if (len >= 5 && len <= all.remaining() - RECORD_HEAD) {
+                ByteBuffer candidate = all.duplicate();
+                candidate.position(at + RECORD_HEAD).limit(at + RECORD_HEAD + len);
+                CRC32C check = new CRC32C();
+                check.update(candidate.duplicate());
+                if ((int) check.getValue() == crc) {
+                    body = candidate.slice();
+                    all.position(at + RECORD_HEAD + len);
+                }
+            }
+        }
+        return body;
+    }
+
+    private static void apply(Hero hero, byte type, ByteBuffer r) {
+        switch (type) {
+            case POSITION:
+                hero.setLastLocation(Hero.Location.values()[r.get()]);
+                hero.setLastPosX(r.getDouble());
+                hero.setLastPosY(r.getDouble());
+                break;
+            case LIFE:
+                int actualLife = r.getInt();
+                hero.setLife(r.getInt());
+                hero.setActualLife(actualLife);
+                break;
+            case ITEM_ADD:
+                hero.getItems().add(SaveCodec.getItem(r));
+                break;
+            case ITEM_REMOVE:
+                int index = r.getInt();
+                if (index >= 0 && index < hero.getItems().size()) {
+                    hero.getItems().remove(index);
+                }
+                break;
+            case EQUIP_WEAPON:
+                hero.setActualWeapon((Weapon) SaveCodec.getItem(r));
+                break;
+            case EQUIP_ARMOR:
+                hero.setArmor((Armor) SaveCodec.getItem(r));
+                break;
+            case TASK_COMPLETE:
+                Task done = SaveCodec.getTask(r);
+                Iterator<Task> it = hero.getTasks().iterator();
+                boolean removed = false;
+                while (it.hasNext() && !removed) {
+                    Task t = it.next();
+                    if (t.getId() != null && t.getId().equals(done.getId())) {
+                        it.remove();
+                        removed = true;
+                    }
+                }
+                hero.addCompletedTasks(done);
+                break;
+            default:
+                // Tipo desconocido de una versión posterior: se ignora
+                break;
+        }
+    }
+
+    private void writeFully(ByteBuffer data, long pos) throws IOException {
+        long at = pos;
+        while (data.hasRemaining()) {
+            at = at + channel.write(data, at);
+        }
+    }
+
+    private void readFully(ByteBuffer dst, long pos) throws IOException {
+        long at = pos;
+        while (dst.hasRemaining()) {
+            int n = channel.read(dst, at);
+            if (n < 0) {
+                throw new IOException("Fin de diario inesperado");
+            }
+            at = at + n;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package Utils;
+
+/**
+ * Tamaños y tiempo de un guardado: bytes del cuerpo sin comprimir, bytes
+ * realmente escritos tras el codec y el codec usado.
+ */
+public class SaveMetrics {
+
+    private final int rawBytes;
+    private final int storedBytes;
+    private final short codec;
+    private final long elapsedNanos;
+
+    public SaveMetrics(int rawBytes, int storedBytes, short codec, long elapsedNanos) {
+        this.rawBytes = rawBytes;
+        this.storedBytes = storedBytes;
+        this.codec = codec;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getRawBytes() {
+        return rawBytes;
+    }
+
+    public int getStoredBytes() {
+        return storedBytes;
+    }
+
+    public short getCodec() {
+        return codec;
+    }
+
+    public boolean isCompressed() {
+        return codec != SaveSummary.CODEC_RAW;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Bytes escritos por cada byte sin comprimir (1.0 si no se comprimió).
+     */
+    public double getRatio() {
+        return rawBytes == 0 ? 1.0 : (double) storedBytes / rawBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "raw=" + rawBytes + " stored=" + storedBytes + " codec=" + codec
+                + String.format(" ratio=%.2f", getRatio()) + " ms=" + (elapsedNanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,52 @@
+package Utils;
+
+/**
+ * Entrada del directorio de un SaveContainer: dónde vive la ranura dentro
+ * del archivo y qué contiene, sin leer la partida en sí.
+ */
+public class SaveSlot {
+
+    private final int index;
+    private final long offset;
+    private final int length;
+    private final int capacity;
+    private final long savedAt;
+    private final int checksum;
+
+    public SaveSlot(int index, long offset, int length, int capacity, long savedAt, int checksum) {
+        this.index = index;
+        this.offset = offset;
+        this.length = length;
+        this.capacity = capacity;
+        this.savedAt = savedAt;
+        this.checksum = checksum;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getSavedAt() {
+        return savedAt;
+    }
+
+    public int getChecksum() {
+        return checksum;
+    }
+
+    public boolean isEmpty() {
+        return length == 0;
+    }
+}
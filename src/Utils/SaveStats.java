@@ -0,0 +1,102 @@
+package Utils;
+
+import Characters.Hero;
+import Items.Item;
+import Misc.Classes;
+import cu.edu.cujae.ceis.tree.binary.BinaryTreeNode;
+import cu.edu.cujae.ceis.tree.general.GeneralTree;
+
+/**
+ * Recuento del contenido de una partida (inventario, misiones, clases y
+ * equipo) para herramientas que no necesitan el Hero completo. Se obtiene
+ * con SaveCodec.readStats() sin crear el Hero, o con of() a partir de uno ya
+ * cargado.
+ */
+public class SaveStats {
+
+    int items;
+    int weapons;
+    int tasks;
+    int completedTasks;
+    int classes;
+    int unlockedClasses;
+    String activeClass;
+    String weapon;
+    String armor;
+
+    SaveStats() {
+    }
+
+    public static SaveStats of(Hero hero) {
+        SaveStats s = new SaveStats();
+        s.items = hero.getItems().size();
+        s.weapons = hero.getWeapons().size();
+        s.tasks = hero.getTasks().size();
+        s.completedTasks = hero.getCompletedTasks().size();
+        GeneralTree<Classes> tree = hero.getUnlockedClasses();
+        if (tree != null) {
+            s.countClasses((BinaryTreeNode<Classes>) tree.getRoot());
+        }
+        s.setEquipment(hero.getActualWeapon(), hero.getArmor(), hero.getActualClass());
+        return s;
+    }
+
+    void countClasses(BinaryTreeNode<Classes> node) {
+        if (node != null) {
+            countClass(node.getInfo());
+            countClasses(node.getLeft());
+            countClasses(node.getRight());
+        }
+    }
+
+    void countClass(Classes c) {
+        if (c != null) {
+            classes = classes + 1;
+            if (c.isUnlocked()) {
+                unlockedClasses = unlockedClasses + 1;
+            }
+        }
+    }
+
+    void setEquipment(Item weapon, Item armor, Classes activeClass) {
+        this.weapon = weapon == null ? null : weapon.getName();
+        this.armor = armor == null ? null : armor.getName();
+        this.activeClass = activeClass == null ? null : activeClass.getClass().getSimpleName();
+    }
+
+    public int getItems() {
+        return items;
+    }
+
+    public int getWeapons() {
+        return weapons;
+    }
+
+    public int getTasks() {
+        return tasks;
+    }
+
+    public int getCompletedTasks() {
+        return completedTasks;
+    }
+
+    public int getClasses() {
+        return classes;
+    }
+
+    public int getUnlockedClasses() {
+        return unlockedClasses;
+    }
+
+    public String getActiveClass() {
+        return activeClass;
+    }
+
+    public String getWeapon() {
+        return weapon;
+    }
+
+    public String getArmor() {
+        return armor;
+    }
+}
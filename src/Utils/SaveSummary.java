@@ -0,0 +1,254 @@
+package Utils;
+
+import Characters.Hero;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.CRC32C;
+
+/**
+ * Cabecera de tamaño fijo al inicio de cada archivo .sav. Contiene lo
+ * necesario para pintar el menú o una lista de ranuras (nombre, nivel, vida,
+ * ubicación, tiempo de juego) sin decodificar el Hero completo, más la
+ * longitud y el checksum CRC32C del cuerpo que le sigue. Los últimos cuatro
+ * bytes son el CRC32C de la propia cabecera, así que una partida dañada o
+ * cortada se rechaza antes de tocar el cuerpo.
+ */
+public class SaveSummary {
+
+    public static final int HEADER_SIZE = 128;
+    public static final short VERSION = 5;
+
+    // Codec del cuerpo, en los bits bajos de flags
+    public static final short CODEC_RAW = 0;
+    public static final short CODEC_DEFLATE = 1;
+    public static final short CODEC_MASK = 0x0F;
+
+    private static final int NAME_BYTES = 48;
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    // Posiciones dentro de la cabecera
+    private static final int MAGIC_AT = 0;
+    private static final int VERSION_AT = 4;
+    private static final int FLAGS_AT = 6;
+    private static final int LENGTH_AT = 8;
+    private static final int CHECKSUM_AT = 12;
+    private static final int SAVED_AT = 16;
+    private static final int PLAYED_AT = 24;
+    private static final int LEVEL_AT = 32;
+    private static final int LIFE_AT = 36;
+    private static final int ACTUAL_LIFE_AT = 40;
+    private static final int LOCATION_AT = 44;
+    private static final int POS_X_AT = 48;
+    private static final int POS_Y_AT = 56;
+    private static final int NAME_AT = 64;
+    private static final int JOURNAL_ID_AT = 116;
+    private static final int JOURNAL_SEQ_AT = 120;
+    private static final int HEADER_CRC_AT = 124;
+    // Primera versión con CRC de cabecera
+    private static final short HEADER_CRC_VERSION = 5;
+
+    private String name;
+    private int level;
+    private int life;
+    private int actualLife;
+    private Hero.Location location;
+    private double posX;
+    private double posY;
+    private LocalDateTime playedTime;
+    private long savedAt;
+    private short flags;
+    private int payloadLength;
+    private int checksum;
+    private int journalId;
+    private int journalSeq;
+
+    private SaveSummary() {
+    }
+
+    public static SaveSummary of(Hero hero, LocalDateTime playedTime, short codec, int payloadLength,
+            int checksum, int journalId, int journalSeq) {
+        SaveSummary s = new SaveSummary();
+        s.flags = (short) (codec & CODEC_MASK);
+        s.name = hero.getName();
+        s.level = hero.getLevel();
+        s.life = hero.getLife();
+        s.actualLife = hero.getActualLife();
+        s.location = hero.getLastLocation();
+        s.posX = hero.getLastPosX();
+        s.posY = hero.getLastPosY();
+        s.playedTime = playedTime;
+        s.savedAt = System.currentTimeMillis();
+        s.payloadLength = payloadLength;
+        s.checksum = checksum;
+        s.journalId = journalId;
+        s.journalSeq = journalSeq;
+        return s;
+    }
+
+    /**
+     * Escribe la cabecera en out a partir de su posición actual, ocupando
+     * siempre HEADER_SIZE bytes.
+     */
+    public void writeTo(ByteBuffer out) {
+        int base = out.position();
+        byte[] pad = new byte[HEADER_SIZE];
+        out.put(pad);
+        out.putInt(base + MAGIC_AT, SaveCodec.MAGIC);
+        out.putShort(base + VERSION_AT, VERSION);
+        out.putShort(base + FLAGS_AT, flags);
+        out.putInt(base + LENGTH_AT, payloadLength);
+        out.putInt(base + CHECKSUM_AT, checksum);
+        out.putLong(base + SAVED_AT, savedAt);
+        out.putLong(base + PLAYED_AT, playedTime == null ? NO_TIME : playedTime.toEpochSecond(ZoneOffset.UTC));
+        out.putInt(base + LEVEL_AT, level);
+        out.putInt(base + LIFE_AT, life);
+        out.putInt(base + ACTUAL_LIFE_AT, actualLife);
+        out.put(base + LOCATION_AT, (byte) location.ordinal());
+        out.putDouble(base + POS_X_AT, posX);
+        out.putDouble(base + POS_Y_AT, posY);
+        byte[] bytes = nameBytes(name);
+        out.put(base + NAME_AT, (byte) bytes.length);
+        out.put(base + NAME_AT + 1, bytes);
+        out.putInt(base + JOURNAL_ID_AT, journalId);
+        out.putInt(base + JOURNAL_SEQ_AT, journalSeq);
+        out.putInt(base + HEADER_CRC_AT, headerCrc(out, base));
+    }
+
+    /**
+     * Indica si los bytes en la posición actual de in empiezan por el MAGIC
+     * del formato, aunque la cabecera luego no sea válida.
+     */
+    public static boolean hasMagic(ByteBuffer in) {
+        return in.remaining() >= 4 && in.getInt(in.position() + MAGIC_AT) == SaveCodec.MAGIC;
+    }
+
+    /**
+     * Lee una cabecera desde la posición actual de in. Devuelve null si los
+     * bytes no empiezan por el MAGIC del formato (por ejemplo, una partida
+     * antigua guardada con ObjectOutputStream), si la versión es posterior o
+     * si el CRC de la cabecera no coincide. hasMagic() distingue el primer
+     * caso de los demás.
+     */
+    public static SaveSummary readFrom(ByteBuffer in) {
+        SaveSummary s = null;
+        int base = in.position();
+        short version = in.remaining() >= HEADER_SIZE ? in.getShort(base + VERSION_AT) : 0;
+        if (in.remaining() >= HEADER_SIZE && in.getInt(base + MAGIC_AT) == SaveCodec.MAGIC
+                && version <= VERSION
+                && (version < HEADER_CRC_VERSION || in.getInt(base + HEADER_CRC_AT) == headerCrc(in, base))) {
+            s = new SaveSummary();
+            s.flags = in.getShort(base + FLAGS_AT);
+            s.payloadLength = in.getInt(base + LENGTH_AT);
+            s.checksum = in.getInt(base + CHECKSUM_AT);
+            s.savedAt = in.getLong(base + SAVED_AT);
+            long played = in.getLong(base + PLAYED_AT);
+            s.playedTime = played == NO_TIME ? null : LocalDateTime.ofEpochSecond(played, 0, ZoneOffset.UTC);
+            s.level = in.getInt(base + LEVEL_AT);
+            s.life = in.getInt(base + LIFE_AT);
+            s.actualLife = in.getInt(base + ACTUAL_LIFE_AT);
+            int loc = in.get(base + LOCATION_AT);
+            Hero.Location[] locations = Hero.Location.values();
+            s.location = (loc >= 0 && loc < locations.length) ? locations[loc] : Hero.Location.UNKNOWN;
+            s.posX = in.getDouble(base + POS_X_AT);
+            s.posY = in.getDouble(base + POS_Y_AT);
+            int len = Math.min(in.get(base + NAME_AT) & 0xFF, NAME_BYTES);
+            byte[] bytes = new byte[len];
+            in.get(base + NAME_AT + 1, bytes);
+            s.name = new String(bytes, StandardCharsets.UTF_8);
+            // En cabeceras de versión 2 estos bytes estaban a cero: sin diario asociado
+            s.journalId = in.getInt(base + JOURNAL_ID_AT);
+            s.journalSeq = in.getInt(base + JOURNAL_SEQ_AT);
+            in.position(base + HEADER_SIZE);
+        }
+        return s;
+    }
+
+    private static int headerCrc(ByteBuffer b, int base) {
+        ByteBuffer covered = b.duplicate();
+        covered.limit(base + HEADER_CRC_AT).position(base);
+        CRC32C crc = new CRC32C();
+        crc.update(covered);
+        return (int) crc.getValue();
+    }
+
+    // El nombre se recorta por caracteres completos para no partir un UTF-8 multibyte
+    private static byte[] nameBytes(String name) {
+        String n = name == null ? "" : name;
+        byte[] bytes = n.getBytes(StandardCharsets.UTF_8);
+        while (bytes.length > NAME_BYTES) {
+            n = n.substring(0, n.length() - 1);
+            bytes = n.getBytes(StandardCharsets.UTF_8);
+        }
+        return bytes;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public int getLife() {
+        return life;
+    }
+
+    public int getActualLife() {
+        return actualLife;
+    }
+
+    public Hero.Location getLocation() {
+        return location;
+    }
+
+    public double getPosX() {
+        return posX;
+    }
+
+    public double getPosY() {
+        return posY;
+    }
+
+    public LocalDateTime getPlayedTime() {
+        return playedTime;
+    }
+
+    public long getSavedAt() {
+        return savedAt;
+    }
+
+    public short getFlags() {
+        return flags;
+    }
+
+    public short getCodec() {
+        return (short) (flags & CODEC_MASK);
+    }
+
+    public int getPayloadLength() {
+        return payloadLength;
+    }
+
+    public int getChecksum() {
+        return checksum;
+    }
+
+    /**
+     * Identificador del diario de cambios sobre el que se tomó esta partida,
+     * o 0 si no tiene ninguno.
+     */
+    public int getJournalId() {
+        return journalId;
+    }
+
+    /**
+     * Último registro del diario ya incluido en esta partida.
+     */
+    public int getJournalSeq() {
+        return journalSeq;
+    }
+}